@@ -37,6 +37,8 @@ public class BagRoute {
 
 	private PassengerBag bag;
 	private NodePath<TerminalGate> bagPath;
+	private boolean late;
+	private boolean unroutable;
 
 
 	public BagRoute() { }
@@ -75,4 +77,33 @@ public class BagRoute {
 		this.bagPath = bagPath;
 	}
 
+	/**
+	 * Check if the bag can't make its flight on this route.
+	 */
+	public boolean isLate() {
+		return late;
+	}
+
+	/**
+	 * Flag the bag as unable to make its flight.
+	 */
+	public void setLate( boolean late ) {
+		this.late = late;
+	}
+
+	/**
+	 * Check if there is no route at all for the bag. The path then just has the
+	 * entry point and the destination.
+	 */
+	public boolean isUnroutable() {
+		return unroutable;
+	}
+
+	/**
+	 * Flag the bag as having no route to its destination.
+	 */
+	public void setUnroutable( boolean unroutable ) {
+		this.unroutable = unroutable;
+	}
+
 }
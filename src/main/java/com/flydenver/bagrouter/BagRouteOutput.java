@@ -23,7 +23,8 @@ package com.flydenver.bagrouter;/*
  *
  */
 
-import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -32,12 +33,17 @@ import java.io.Writer;
 
 
 /**
- * Class for writing out the bag path.
+ * Class for writing out the bag path. Each route is built up in one reusable
+ * buffer and handed to the writer in a single write, so an output should only
+ * be written from one thread at a time.
  */
 public class BagRouteOutput {
 
 	private final static String NEWLINE = System.getProperty( "line.separator" );
 	private final Writer writer;
+	private final StringBuilder line = new StringBuilder( 128 );
+	private final GateAppender gates = new GateAppender();
+	private char[] chars = new char[128];
 
 
 	/** Construct an output using the given writer. */
@@ -86,36 +92,56 @@ public class BagRouteOutput {
 	 * @param route single {@link BagRoute} entry
 	 */
 	public void write( BagRoute route ) throws IOException {
+		render( route );
+		flushLine();
+	}
+
+
+	/**
+	 * Same as {@link #write(BagRoute)}, but a line separator is added.
+	 */
+	public void writeln( BagRoute route ) throws IOException {
+		render( route );
+		line.append( NEWLINE );
+		flushLine();
+	}
+
+
+	//	bag number, then each gate followed by a space, then the distance or UNROUTABLE
+	private void render( BagRoute route ) throws IOException {
 		if ( route == null || route.getBag() == null || route.getBagPath() == null ) {
 			throw new IllegalArgumentException( "Null route data." );
 		}
 
-		final Writer writer = getWriter();
+		line.setLength( 0 );
 		try {
-			writer.write( route.getBag().getBagNumber() );
-			writer.write( " " );
-
-			route.getBagPath().forEachNode( gate -> {
-				writer.write( gate.getGateNumber() );
-				writer.write( " " );
-			});
-
-			writer.write( ": " );
-			writer.write( String.valueOf( route.getBagPath().getTotalDistance() ) );
-
+			line.append( route.getBag().getBagNumber() ).append( ' ' );
+			route.getBagPath().visitNodes( gates );
+			line.append( ": " );
+			if ( route.isUnroutable() ) {
+				line.append( "UNROUTABLE" );
+			}
+			else {
+				line.append( route.getBagPath().getTotalDistance() );
+			}
+
+			if ( route.isLate() ) {
+				line.append( " LATE" );
+			}
 		}
-		catch ( SearchRouteException | RuntimeException e ) {
+		catch ( RuntimeException e ) {
 			throw new IOException( "Error writing bag route.", e );
 		}
 	}
 
 
-	/**
-	 * Same as {@link #write(BagRoute)}, but a line separator is added.
-	 */
-	public void writeln( BagRoute route ) throws IOException {
-		write( route );
-		getWriter().write( NEWLINE );
+	private void flushLine() throws IOException {
+		int length = line.length();
+		if ( length > chars.length ) {
+			chars = new char[Math.max( length, chars.length << 1 )];
+		}
+		line.getChars( 0, length, chars, 0 );
+		getWriter().write( chars, 0, length );
 	}
 
 
@@ -131,4 +157,13 @@ public class BagRouteOutput {
 		return writer;
 	}
 
+
+	//	appends each gate on the path to the line being built
+	private final class GateAppender implements NodePath.NodeVisitor<TerminalGate> {
+		@Override
+		public void visitNode( TerminalGate gate ) {
+			line.append( gate.getGateNumber() ).append( ' ' );
+		}
+	}
+
 }
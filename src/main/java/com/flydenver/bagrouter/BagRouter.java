@@ -25,22 +25,35 @@
 
 package com.flydenver.bagrouter;
 
+import com.flydenver.bagrouter.domain.TerminalGate;
 import com.flydenver.bagrouter.lexer.ParseException;
 import com.flydenver.bagrouter.lexer.RoutingInput;
 import com.flydenver.bagrouter.routing.RoutingException;
+import com.flydenver.bagrouter.routing.store.CompiledTopology;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 
 
 /**
- * This is just a main runner class.
+ * This is just a main runner class. {@code --compile <input> <output>} compiles the
+ * conveyor section of an input file, and setting {@code router.topology.file} to the
+ * compiled file routes over it instead of parsing the conveyors each run.
  */
 public class BagRouter {
 
+	public final static String topologyFile = System.getProperty( "router.topology.file" );
+
 	public static void main( String [] args ) {
+		if ( args.length == 3 && args[0].equals( "--compile" ) ) {
+			compile( args[1], args[2] );
+			return;
+		}
+
 		String inputFile = ( args.length < 1 ) ? "routing-input.txt" : args[0];
 
 		try {
@@ -66,6 +79,9 @@ public class BagRouter {
 			RoutingInput input = new RoutingInput( fis2 );
 			BagRouteOutput output = new BagRouteOutput( System.out );
 			RoutingEngine engine = new RoutingEngine();
+			if ( topologyFile != null ) {
+				engine.setCompiledTopology( CompiledTopology.open( Paths.get( topologyFile ), TerminalGate::new ) );
+			}
 			engine.executeSearch( input, output );
 			System.out.println( "[*] ------------------" );
 
@@ -77,7 +93,28 @@ public class BagRouter {
 		catch ( FileNotFoundException e ) {
 			System.err.println( "Could not find file. " + e.getMessage() );
 		}
+		catch ( IOException e ) {
+			System.err.println( "Could not open compiled topology. " + e.getMessage() );
+		}
+
+	}
 
+
+	//	compile the conveyors with hub labels, so routing over the file needs no searching
+	private static void compile( String inputFile, String outputFile ) {
+		try ( InputStream in = new FileInputStream( inputFile ) ) {
+			new RoutingEngine().compileTopology( new RoutingInput( in ), Paths.get( outputFile ), true );
+			System.out.println( "[*] Compiled " + inputFile + " to " + outputFile );
+		}
+		catch ( RoutingException e ) {
+			System.err.println( "Error compiling. " + e.getMessage() );
+		}
+		catch ( FileNotFoundException e ) {
+			System.err.println( "Could not find file. " + e.getMessage() );
+		}
+		catch ( IOException e ) {
+			System.err.println( "Could not write compiled topology. " + e.getMessage() );
+		}
 	}
 
 }
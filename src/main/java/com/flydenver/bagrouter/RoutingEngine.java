@@ -27,6 +27,7 @@ package com.flydenver.bagrouter;
 
 
 import com.flydenver.bagrouter.domain.PassengerBag;
+import com.flydenver.bagrouter.domain.SymbolTable;
 import com.flydenver.bagrouter.domain.TerminalGate;
 import com.flydenver.bagrouter.lexer.ParseException;
 import com.flydenver.bagrouter.lexer.RoutingEvaluator;
@@ -35,24 +36,53 @@ import com.flydenver.bagrouter.lexer.section.SectionParser;
 import com.flydenver.bagrouter.lexer.section.SectionType;
 import com.flydenver.bagrouter.lexer.section.bag.BagEntry;
 import com.flydenver.bagrouter.lexer.section.bag.BagRowParser;
+import com.flydenver.bagrouter.lexer.section.capacity.ConveyorCapacity;
+import com.flydenver.bagrouter.lexer.section.capacity.ConveyorCapacityRowParser;
 import com.flydenver.bagrouter.lexer.section.conveyor.ConveyorRoute;
 import com.flydenver.bagrouter.lexer.section.conveyor.ConveyorRowParser;
 import com.flydenver.bagrouter.lexer.section.departure.Departure;
 import com.flydenver.bagrouter.lexer.section.departure.DepartureRowParser;
+import com.flydenver.bagrouter.lexer.section.profile.ConveyorProfile;
+import com.flydenver.bagrouter.lexer.section.profile.ConveyorProfileRowParser;
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.GraphBuilder;
 import com.flydenver.bagrouter.routing.Node;
 import com.flydenver.bagrouter.routing.RoutingException;
 import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
 import com.flydenver.bagrouter.routing.search.GraphSearchStrategy;
 import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.Searchable;
 import com.flydenver.bagrouter.routing.search.SearchableGraph;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+import com.flydenver.bagrouter.routing.search.cache.RouteCache;
+import com.flydenver.bagrouter.routing.search.capacity.CapacityAwareSearchStrategy;
 import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.timed.TimeDependentSearchStrategy;
+import com.flydenver.bagrouter.routing.store.BufferGraph;
+import com.flydenver.bagrouter.routing.store.CompiledTopology;
+import com.flydenver.bagrouter.routing.store.TopologyCompiler;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 
 /**
@@ -61,9 +91,27 @@ import java.util.Map;
 public class RoutingEngine {
 
 	public final static String searchStrategyClass = System.getProperty( "router.search.strategy", DijkstraSearchStrategy.class.getName() );
+	public final static boolean batchRoutingDefault = Boolean.parseBoolean( System.getProperty( "router.search.batch", "false" ) );
+	public final static boolean capacityRoutingDefault = Boolean.parseBoolean( System.getProperty( "router.search.capacityAware", "false" ) );
+	public final static boolean deadlineRoutingDefault = Boolean.parseBoolean( System.getProperty( "router.search.deadlines", "false" ) );
+	public final static boolean offHeapGraphDefault = Boolean.parseBoolean( System.getProperty( "router.graph.offHeap", "false" ) );
+	public final static int parallelismDefault = Integer.getInteger( "router.search.parallelism", 1 );
+	public final static int chunkSizeDefault = Integer.getInteger( "router.search.chunkSize", 64 );
+	public final static int routeCacheSizeDefault = Integer.getInteger( "router.search.cacheSize", 0 );
 
 	private final int defaultCollectionSize = 100;
+	private final static int minutesPerDay = 24 * 60;
 	private String baggageClaimId = "BaggageClaim";
+	private boolean batchRouting = batchRoutingDefault;
+	private boolean capacityRouting = capacityRoutingDefault;
+	private boolean deadlineRouting = deadlineRoutingDefault;
+	private boolean offHeapGraph = offHeapGraphDefault;
+	private int parallelism = parallelismDefault;
+	private int chunkSize = chunkSizeDefault;
+	private int routeCacheSize = routeCacheSizeDefault;
+	private int entryTime = -1;
+	private Consumer<BagRoute> routeListener;
+	private CompiledTopology<TerminalGate> compiledTopology;
 	private Router router = new Router();
 
 
@@ -76,6 +124,198 @@ public class RoutingEngine {
 	}
 
 
+	/**
+	 * Strategy for searching one bag at a time, in place of the one named by
+	 * {@code router.search.strategy}. Any preprocessing it does runs on the conveyor
+	 * graph before the first bag is routed.
+	 */
+	public void setSearchStrategy( GraphSearchStrategy<TerminalGate, WeightedGraph<TerminalGate>> searchStrategy ) {
+		if ( searchStrategy == null ) {
+			throw new IllegalArgumentException( "Null search strategy" );
+		}
+		router.searchStrategy = searchStrategy;
+	}
+
+
+	/**
+	 * Route bags in batches, with one shortest path tree per destination instead of
+	 * one search per bag. Routes have the same travel times, but where two routes tie
+	 * the tree may pick a different one than the search strategy.
+	 */
+	public void setBatchRouting( boolean batchRouting ) {
+		this.batchRouting = batchRouting;
+	}
+
+
+	/**
+	 * Route bags one at a time in schedule order, booking each onto its conveyors so
+	 * later bags steer around conveyors filling up, per the conveyor capacity section.
+	 * This takes precedence over the other routing options.
+	 */
+	public void setCapacityRouting( boolean capacityRouting ) {
+		this.capacityRouting = capacityRouting;
+	}
+
+
+	/**
+	 * Route bags by departure deadline, earliest flight first, with arriving bags last.
+	 * Bags that can't reach their gate by the flight time, leaving at the entry time,
+	 * are flagged late. The output is still written in input order.
+	 */
+	public void setDeadlineRouting( boolean deadlineRouting ) {
+		this.deadlineRouting = deadlineRouting;
+	}
+
+
+	/**
+	 * Keep the conveyor graph in direct memory instead of on the heap, for very large
+	 * conveyor systems. The conveyor rows are copied straight into the buffer and no
+	 * graph of objects is built, so routing needs a compact search strategy.
+	 */
+	public void setOffHeapGraph( boolean offHeapGraph ) {
+		this.offHeapGraph = offHeapGraph;
+	}
+
+
+	/**
+	 * Listener given each route as soon as it is found, in routing order rather than
+	 * input order. With more than one thread it is called from the routing threads,
+	 * but one call at a time, so it needn't be thread-safe. Routes then come in
+	 * schedule order chunk by chunk, with the chunks being routed at once interleaved.
+	 */
+	public void setRouteListener( Consumer<BagRoute> routeListener ) {
+		this.routeListener = routeListener;
+	}
+
+
+	/**
+	 * Number of threads routing bags. With more than one, the threads of a
+	 * {@link ForkJoinPool} take chunks of the schedule in order, so the most urgent
+	 * bags are still routed first, and the routes are put back in input order.
+	 */
+	public void setParallelism( int parallelism ) {
+		if ( parallelism < 1 ) {
+			throw new IllegalArgumentException( "Parallelism must be at least 1" );
+		}
+		this.parallelism = parallelism;
+	}
+
+
+	/**
+	 * Number of bags a routing thread takes from the schedule at a time.
+	 */
+	public void setChunkSize( int chunkSize ) {
+		if ( chunkSize < 1 ) {
+			throw new IllegalArgumentException( "Chunk size must be at least 1" );
+		}
+		this.chunkSize = chunkSize;
+	}
+
+
+	/**
+	 * Most routes to keep in the route cache, or 0 to search for every bag. Bags that
+	 * share an entry point and destination then share one search.
+	 */
+	public void setRouteCacheSize( int routeCacheSize ) {
+		if ( routeCacheSize < 0 ) {
+			throw new IllegalArgumentException( "Route cache size must not be negative" );
+		}
+		this.routeCacheSize = routeCacheSize;
+	}
+
+
+	/**
+	 * Time bags get on the conveyors, in minutes since midnight. It only matters when
+	 * the input has conveyor profiles, which switch routing to travel times by time of day,
+	 * and for checking flight deadlines.
+	 */
+	public void setEntryTime( int entryTime ) {
+		if ( entryTime < 0 ) {
+			throw new IllegalArgumentException( "Entry time must not be negative" );
+		}
+		this.entryTime = entryTime;
+	}
+
+
+	/**
+	 * Entry time from {@code router.search.entryTime}, as {@code HH:mm}, in minutes
+	 * since midnight. It's read once, by the first run without a set entry time.
+	 * @throws IllegalArgumentException if the time doesn't parse
+	 */
+	public static int entryTimeDefault() {
+		String time = System.getProperty( "router.search.entryTime", "00:00" );
+		try {
+			return LocalTime.parse( time ).toSecondOfDay() / 60;
+		}
+		catch ( DateTimeParseException e ) {
+			throw new IllegalArgumentException( "Bad router.search.entryTime \"" + time + "\". " + e.getMessage(), e );
+		}
+	}
+
+
+	//	the set entry time, or the default read the first time it's needed
+	private int entryTime() {
+		if ( entryTime < 0 ) {
+			entryTime = entryTimeDefault();
+		}
+		return entryTime;
+	}
+
+
+	/**
+	 * Route over a compiled conveyor system instead of the input's conveyor section,
+	 * which is then skipped, or null to go back to parsing it. Conveyor profiles and
+	 * capacity routing need the parsed conveyors, so runs with them are rejected.
+	 */
+	public void setCompiledTopology( CompiledTopology<TerminalGate> compiledTopology ) {
+		this.compiledTopology = compiledTopology;
+	}
+
+
+	/**
+	 * Compile the conveyor section of the input to a file for
+	 * {@link CompiledTopology#open(Path, java.util.function.Function)}.
+	 * @param includeHubLabels also build hub labels and store them in the file
+	 * @throws IOException if the input can't be read or the file can't be written
+	 */
+	public void compileTopology( RoutingInput input, Path file, boolean includeHubLabels ) throws RoutingException, IOException {
+		if ( input == null || file == null ) {
+			throw new IllegalArgumentException( "Null input or file" );
+		}
+
+		GraphBuilder<TerminalGate> conveyors = new GraphBuilder<>();
+		try {
+			SectionParser parser = RoutingEvaluator.multiSectionParser( input );
+			parser.addSectionConsumer( SectionType.CONVEYOR_SYSTEM, new ConveyorRowParser(), entry -> {
+				ConveyorRoute conveyor = (ConveyorRoute) entry;
+				conveyors.add( conveyor.getFirstTerminal(), conveyor.getSecondTerminal(), conveyor.getTravelTime() );
+			});
+			parser.parseSections();
+
+			TopologyCompiler<TerminalGate> compiler = new TopologyCompiler<>();
+			compiler.setIncludeHubLabels( includeHubLabels );
+			compiler.compile( conveyors.build(), file );
+		}
+		catch ( ParseException e ) {
+			throw new RoutingException( e.getMessage(), e );
+		}
+		finally {
+			input.closeQuietly();
+		}
+	}
+
+
+	/**
+	 * Build a conveyor graph from conveyor rows in one pass. Belts listed more than
+	 * once, either way round, are kept once with the lowest travel time.
+	 */
+	public static WeightedGraph<TerminalGate> buildConveyorGraph( Stream<ConveyorRoute> conveyors ) {
+		return new GraphBuilder<TerminalGate>()
+				.addAll( conveyors, ConveyorRoute::getFirstTerminal, ConveyorRoute::getSecondTerminal, ConveyorRoute::getTravelTime )
+				.build();
+	}
+
+
 	/**
 	 * Run the {@code RoutingEngine}. This expects that the input and output have both
 	 * been set with the output. Otherwise an exception is thrown.
@@ -102,11 +342,24 @@ public class RoutingEngine {
 		private RoutingInput routingInput;
 		private BagRouteOutput routingOutput;
 		private Node<TerminalGate> baggageClaim;
-		private Map<String, Departure> departures = new HashMap<>( defaultCollectionSize );
+		private final SymbolTable symbols = new SymbolTable( defaultCollectionSize );
+		//	departures by flight symbol, and graph nodes by gate symbol
+		private final List<Departure> departures = new ArrayList<>( defaultCollectionSize );
+		private final List<Node<TerminalGate>> gateNodes = new ArrayList<>( defaultCollectionSize );
+		//	departure minute of day by flight symbol, set along with the departure, -1 without a time
+		private int[] departureMinutes = new int[defaultCollectionSize];
+		private final Calendar calendar = Calendar.getInstance();
 		private Map<String, BagEntry> passengerBags = new LinkedHashMap<>( defaultCollectionSize );
+		private TimeDependentSearchStrategy<TerminalGate> profileStrategy;
+		private List<ConveyorCapacity> conveyorCapacities = new ArrayList<>();
 		//private Map<String, BagEntry> passengerBags = new TreeMap<>( ( o1, o2 ) -> o2.toLowerCase().compareTo( o1.toLowerCase() ) );
 		private WeightedGraph<TerminalGate> conveyorRoutes = new WeightedGraph<>();
+		//	conveyors in direct memory instead of conveyorRoutes, in off-heap mode
+		private BufferGraph<TerminalGate> conveyorBuffer;
 		private GraphSearchStrategy<TerminalGate, WeightedGraph<TerminalGate>> searchStrategy;
+		private RouteCache<TerminalGate> routeCache;
+		//	route listener calls are serialized on this
+		private final Object listenerLock = new Object();
 
 
 		/**
@@ -120,6 +373,13 @@ public class RoutingEngine {
 			if ( routingOutput == null ) {
 				throw new RoutingException( "Routing output not set." );
 			}
+			//	a bad entry time property fails the run up front, not on some routing thread
+			try {
+				entryTime();
+			}
+			catch ( IllegalArgumentException e ) {
+				throw new RoutingException( e.getMessage(), e );
+			}
 
 			try {
 				cleanup();
@@ -144,31 +404,328 @@ public class RoutingEngine {
 
 
 		/**
-		 * Search for the list of routes for passenger bags
+		 * Search for the list of routes for passenger bags. A strategy that refuses
+		 * the conveyor graph is reported before any bag is routed.
 		 */
-		protected List<BagRoute> performSearch() {
-			SearchableGraph<TerminalGate> searchableGraph = new SearchableGraph<>( conveyorRoutes );
-			searchableGraph.setSearchStrategy( getSearchStrategy() );
-
-			List<BagRoute> bagRoutes = new ArrayList<>( passengerBags.size() );
-			passengerBags.forEach( ( bagid, entry ) -> {
-				final PassengerBag bag = entry.getBag();
-				final boolean isFinal = bag.getBagState().equals( PassengerBag.BagState.ARRIVAL );
-
-				Node<TerminalGate> endNode;
-				if (!isFinal) {
-					Departure departure = departures.get( entry.getFlight().getFlightId().getId() );
-					endNode = new Node<>( departure.getFlightGate() );
+		protected List<BagRoute> performSearch() throws RoutingException {
+			if ( compiledTopology != null ) {
+				return routeBags( entry -> {
+					Node<TerminalGate> startNode = gateNode( entry.getEntryPoint() );
+					return findRoute( compiledTopology, entry, startNode, resolveEndNode( entry ) );
+				} );
+			}
+			if ( capacityRouting ) {
+				return performCapacitySearch();
+			}
+			if ( batchRouting && profileStrategy == null ) {
+				return performBatchSearch();
+			}
+
+			GraphSearchStrategy<TerminalGate, WeightedGraph<TerminalGate>> strategy = profileStrategy == null ? getSearchStrategy() : profileStrategy;
+			if ( conveyorBuffer != null && ! ( strategy instanceof CompactSearchStrategy ) ) {
+				throw new RoutingException( "Cannot prepare search strategy. An off-heap graph needs a compact search strategy." );
+			}
+
+			SearchableGraph<TerminalGate> searchableGraph = newSearchableGraph();
+			searchableGraph.setSearchStrategy( strategy );
+			searchableGraph.setRouteCache( getRouteCache() );
+			try {
+				searchableGraph.prepareSearch();
+			}
+			catch ( IllegalArgumentException e ) {
+				throw new RoutingException( "Cannot prepare search strategy. " + e.getMessage(), e );
+			}
+
+			return routeBags( entry -> {
+				Node<TerminalGate> startNode = gateNode( entry.getEntryPoint() );
+				return findRoute( searchableGraph, entry, startNode, resolveEndNode( entry ) );
+			} );
+		}
+
+
+		/**
+		 * Search one bag's route. A bag whose nodes the graph knows are disconnected
+		 * is reported as unroutable instead of searched.
+		 */
+		protected BagRoute findRoute( Searchable<TerminalGate> graph, BagEntry entry, Node<TerminalGate> startNode, Node<TerminalGate> endNode ) {
+			try {
+				return new BagRoute( entry.getBag(), graph.findOptimalPath( startNode, endNode ) );
+			}
+			catch ( SearchRouteException e ) {
+				BagRoute route = new BagRoute( entry.getBag(), NodePath.unreachable( startNode, endNode ) );
+				route.setUnroutable( true );
+				return route;
+			}
+		}
+
+
+		//	searchable conveyors, from direct memory in off-heap mode
+		private SearchableGraph<TerminalGate> newSearchableGraph() {
+			return conveyorBuffer != null ? new SearchableGraph<>( conveyorBuffer ) : new SearchableGraph<>( conveyorRoutes );
+		}
+
+
+		//	the parsed gate for a buffer node id; lookups only, since the symbol table
+		//	isn't safe to add to from routing threads
+		private TerminalGate bufferGate( String id ) {
+			int symbol = symbols.symbolOf( id );
+			TerminalGate gate = symbol == SymbolTable.NO_SYMBOL ? null : symbols.gate( symbol );
+			return gate != null ? gate : new TerminalGate( id );
+		}
+
+
+		/**
+		 * Search for the routes grouped by destination. The graph is bi-directional, so a
+		 * tree rooted at the destination holds the route for every bag headed there.
+		 * Trees are grown on the first bag for each destination, and bags keep their order.
+		 */
+		protected List<BagRoute> performBatchSearch() {
+			SearchableGraph<TerminalGate> searchableGraph = newSearchableGraph();
+			Map<Object, ShortestPathTree<TerminalGate>> trees = new ConcurrentHashMap<>( defaultCollectionSize );
+
+			return routeBags( entry -> {
+				Node<TerminalGate> endNode = resolveEndNode( entry );
+				ShortestPathTree<TerminalGate> tree = trees.computeIfAbsent( endNode.getNodeId(),
+						id -> new ShortestPathTree<>( searchableGraph.snapshot(), endNode ) );
+				return new BagRoute( entry.getBag(), tree.pathFrom( gateNode( entry.getEntryPoint() ) ) );
+			} );
+		}
+
+
+		/**
+		 * Search for the routes one bag at a time, in schedule order, with each route taking
+		 * up conveyor capacity. This is sequential by nature, and uncached, since a bag's
+		 * route depends on every bag routed before it.
+		 */
+		protected List<BagRoute> performCapacitySearch() {
+			CapacityAwareSearchStrategy<TerminalGate> strategy = new CapacityAwareSearchStrategy<>();
+			for ( ConveyorCapacity capacity : conveyorCapacities ) {
+				strategy.setCapacity( new Node<>( capacity.getFirstTerminal() ), new Node<>( capacity.getSecondTerminal() ), capacity.getBagsPerMinute() );
+			}
+
+			SearchableGraph<TerminalGate> searchableGraph = newSearchableGraph();
+			searchableGraph.setSearchStrategy( strategy );
+
+			return routeBags( entry -> {
+				Node<TerminalGate> startNode = gateNode( entry.getEntryPoint() );
+				return findRoute( searchableGraph, entry, startNode, resolveEndNode( entry ) );
+			}, 1 );
+		}
+
+
+		/**
+		 * Route every bag, returning the routes in input order. Bags are routed in
+		 * schedule order, and only the routing function runs in parallel; each route
+		 * goes in its bag's slot, so the list matches a sequential run.
+		 */
+		protected List<BagRoute> routeBags( Function<BagEntry, BagRoute> routeBag ) {
+			return routeBags( routeBag, parallelism );
+		}
+
+
+		private List<BagRoute> routeBags( Function<BagEntry, BagRoute> routeBag, int threads ) {
+			List<BagEntry> entries = new ArrayList<>( passengerBags.values() );
+			int[] schedule = schedule( entries );
+			BagRoute[] routes = new BagRoute[entries.size()];
+
+			Function<BagEntry, BagRoute> scheduledRoute = entry -> {
+				BagRoute route = routeBag.apply( entry );
+				//	searches that came up empty, like nodes cut off by closed conveyors
+				if ( route.getBagPath().getTotalDistance() == Integer.MAX_VALUE ) {
+					route.setUnroutable( true );
 				}
-				else {
-					endNode = baggageClaim;
+				if ( deadlineRouting && ! route.isUnroutable() ) {
+					route.setLate( isLate( entry, route ) );
 				}
-				Node<TerminalGate> startNode = new Node<>( entry.getEntryPoint() );
-				NodePath<TerminalGate> path = searchableGraph.findOptimalPath( startNode, endNode );
-				bagRoutes.add( new BagRoute( bag, path ) );
-			} );
+				if ( routeListener != null ) {
+					synchronized ( listenerLock ) {
+						routeListener.accept( route );
+					}
+				}
+				return route;
+			};
+
+			if ( threads == 1 || entries.size() <= chunkSize ) {
+				for ( int bag : schedule ) {
+					routes[bag] = scheduledRoute.apply( entries.get( bag ) );
+				}
+			}
+			else {
+				AtomicInteger cursor = new AtomicInteger();
+				List<RouteTask> workers = new ArrayList<>( threads );
+				for ( int i = 0; i < threads; i++ ) {
+					workers.add( new RouteTask( entries, schedule, routes, scheduledRoute, cursor ) );
+				}
+				ForkJoinPool pool = new ForkJoinPool( threads );
+				try {
+					pool.invoke( ForkJoinTask.adapt( () -> ForkJoinTask.invokeAll( workers ) ) );
+				}
+				finally {
+					pool.shutdown();
+				}
+			}
+
+			return new ArrayList<>( Arrays.asList( routes ) );
+		}
+
+
+		//	one routing thread, taking the next chunk of the schedule off the shared cursor
+		//	until none are left, so chunks start in schedule order
+		private final class RouteTask extends RecursiveAction {
+			private final static long serialVersionUID = 1l;
+
+			private final List<BagEntry> entries;
+			private final int[] schedule;
+			private final BagRoute[] routes;
+			private final Function<BagEntry, BagRoute> routeBag;
+			private final AtomicInteger cursor;
+
+			RouteTask( List<BagEntry> entries, int[] schedule, BagRoute[] routes, Function<BagEntry, BagRoute> routeBag, AtomicInteger cursor ) {
+				this.entries = entries;
+				this.schedule = schedule;
+				this.routes = routes;
+				this.routeBag = routeBag;
+				this.cursor = cursor;
+			}
+
+			@Override
+			protected void compute() {
+				for ( long from = (long) cursor.getAndIncrement() * chunkSize; from < schedule.length;
+						from = (long) cursor.getAndIncrement() * chunkSize ) {
+					int to = (int) Math.min( schedule.length, from + chunkSize );
+					for ( int i = (int) from; i < to; i++ ) {
+						routes[schedule[i]] = routeBag.apply( entries.get( schedule[i] ) );
+					}
+				}
+			}
+		}
+
+
+		/**
+		 * Order to route the bags in, as indices into the bag list. That's input order,
+		 * or earliest deadline first when routing by deadline, with ties in input order.
+		 * This runs before any routing, so the entry time is read before going parallel.
+		 */
+		protected int[] schedule( List<BagEntry> entries ) {
+			int[] schedule = new int[entries.size()];
+			if ( ! deadlineRouting ) {
+				for ( int i = 0; i < schedule.length; i++ ) {
+					schedule[i] = i;
+				}
+				return schedule;
+			}
+
+			//	deadline in the high bits and input position in the low bits, so one sort is stable
+			long[] keys = new long[entries.size()];
+			for ( int i = 0; i < keys.length; i++ ) {
+				keys[i] = ( (long) deadline( entries.get( i ) ) << 32 ) | i;
+			}
+			Arrays.sort( keys );
+			for ( int i = 0; i < schedule.length; i++ ) {
+				schedule[i] = (int) keys[i];
+			}
+			return schedule;
+		}
+
+
+		/**
+		 * Departure time of a bag's flight in minutes since midnight of the entry day, or
+		 * {@code Integer.MAX_VALUE} for arriving bags and flights without a time. Flights
+		 * only carry a time of day, so one more than half a day before the entry time is
+		 * taken to leave the next day, like a 00:30 flight for bags entering at 23:50.
+		 */
+		protected int deadline( BagEntry entry ) {
+			if ( entry.getBag().getBagState().equals( PassengerBag.BagState.ARRIVAL ) ) {
+				return Integer.MAX_VALUE;
+			}
 
-			return bagRoutes;
+			int symbol = entry.getFlight().getFlightId().getSymbol();
+			if ( departureOf( entry ) == null || departureMinutes[symbol] < 0 ) {
+				return Integer.MAX_VALUE;
+			}
+
+			int minute = departureMinutes[symbol];
+			return minute + minutesPerDay / 2 < entryTime() ? minute + minutesPerDay : minute;
+		}
+
+
+		//	minute of day worked out once per departure, so deadlines don't need a calendar
+		private void setDepartureMinute( int symbol, Date flightTime ) {
+			if ( symbol >= departureMinutes.length ) {
+				departureMinutes = Arrays.copyOf( departureMinutes, Math.max( symbol + 1, departureMinutes.length * 2 ) );
+			}
+			if ( flightTime == null ) {
+				departureMinutes[symbol] = -1;
+				return;
+			}
+			calendar.setTime( flightTime );
+			departureMinutes[symbol] = calendar.get( Calendar.HOUR_OF_DAY ) * 60 + calendar.get( Calendar.MINUTE );
+		}
+
+
+		//	late if the bag can't get to the gate by departure, leaving at the entry time
+		private boolean isLate( BagEntry entry, BagRoute route ) {
+			int deadline = deadline( entry );
+			if ( deadline == Integer.MAX_VALUE ) {
+				return false;
+			}
+
+			long travelTime = route.getBagPath().getTotalDistance();
+			return travelTime == Integer.MAX_VALUE || entryTime() + travelTime > deadline;
+		}
+
+
+		/**
+		 * Find where a bag is headed. Departing bags go to their flight's gate, and
+		 * arriving bags go to baggage claim.
+		 */
+		protected Node<TerminalGate> resolveEndNode( BagEntry entry ) {
+			if ( entry.getBag().getBagState().equals( PassengerBag.BagState.ARRIVAL ) ) {
+				return baggageClaim;
+			}
+
+			return gateNode( departureOf( entry ).getFlightGate() );
+		}
+
+
+		//	departure of a bag's flight, or null if it isn't listed
+		private Departure departureOf( BagEntry entry ) {
+			int symbol = entry.getFlight().getFlightId().getSymbol();
+			return symbol >= 0 && symbol < departures.size() ? departures.get( symbol ) : null;
+		}
+
+
+		//	the graph's node for a gate, only allocating for gates the parser didn't see
+		private Node<TerminalGate> gateNode( TerminalGate gate ) {
+			int symbol = gate.getSymbol();
+			Node<TerminalGate> node = symbol >= 0 && symbol < gateNodes.size() ? gateNodes.get( symbol ) : null;
+			return node != null ? node : new Node<>( gate );
+		}
+
+
+		/**
+		 * Look up the graph node of every parsed gate once, so routing a bag only
+		 * indexes by the gate's symbol.
+		 */
+		protected void indexGateNodes() {
+			gateNodes.clear();
+			for ( int symbol = 0; symbol < symbols.size(); symbol++ ) {
+				TerminalGate gate = symbols.gate( symbol );
+				Node<TerminalGate> node = null;
+				if ( gate != null && compiledTopology != null ) {
+					int index = compiledTopology.getGraph().indexOf( gate.getId() );
+					node = index >= 0 ? compiledTopology.getGraph().getNode( index ) : new Node<>( gate );
+				}
+				else if ( gate != null && conveyorBuffer != null ) {
+					int index = conveyorBuffer.indexOf( gate.getId() );
+					node = index >= 0 ? conveyorBuffer.getNode( index ) : new Node<>( gate );
+				}
+				else if ( gate != null ) {
+					node = conveyorRoutes.getNode( gate.getId() );
+					node = node != null ? node : new Node<>( gate );
+				}
+				gateNodes.add( node );
+			}
 		}
 
 
@@ -191,9 +748,14 @@ public class RoutingEngine {
 		 */
 		protected void cleanup() {
 			baggageClaim = null;
+			symbols.clear();
 			departures.clear();
+			gateNodes.clear();
 			passengerBags.clear();
+			profileStrategy = null;
+			conveyorCapacities.clear();
 			conveyorRoutes.cleanup();
+			conveyorBuffer = null;
 		}
 
 		/**
@@ -210,34 +772,102 @@ public class RoutingEngine {
 		protected void parseInput() throws ParseException {
 			SectionParser parser = RoutingEvaluator.multiSectionParser( routingInput );
 
-			parser.addSectionConsumer( SectionType.BAGS, new BagRowParser(), entry -> {
+			parser.addSectionConsumer( SectionType.BAGS, new BagRowParser( symbols ), entry -> {
 				passengerBags.put( ((BagEntry) entry).getBag().getId(), ((BagEntry) entry) );
 			});
 
-			parser.addSectionConsumer( SectionType.DEPARTURES, new DepartureRowParser(), entry -> {
-				departures.put( ((Departure) entry).getFlight().getFlightId().getId(), ((Departure) entry) );
+			parser.addSectionConsumer( SectionType.DEPARTURES, new DepartureRowParser( symbols ), entry -> {
+				int symbol = ((Departure) entry).getFlight().getFlightId().getSymbol();
+				while ( departures.size() <= symbol ) {
+					departures.add( null );
+				}
+				departures.set( symbol, (Departure) entry );
+				setDepartureMinute( symbol, ((Departure) entry).getFlightTime() );
 			});
 
-			parser.addSectionConsumer( SectionType.CONVEYOR_SYSTEM, new ConveyorRowParser(), entry -> {
-				ConveyorRoute conveyor = (ConveyorRoute) entry;
-				Node<TerminalGate> node1 = new Node<>( conveyor.getFirstTerminal() );
-				Node<TerminalGate> node2 = new Node<>( conveyor.getSecondTerminal() );
-				conveyorRoutes.addEdge( node1, node2, conveyor.getTravelTime() );
+			GraphBuilder<TerminalGate> conveyors = new GraphBuilder<>();
+			if ( compiledTopology == null ) {
+				parser.addSectionConsumer( SectionType.CONVEYOR_SYSTEM, new ConveyorRowParser( symbols ), entry -> {
+					ConveyorRoute conveyor = (ConveyorRoute) entry;
+					conveyors.add( conveyor.getFirstTerminal(), conveyor.getSecondTerminal(), conveyor.getTravelTime() );
+
+					if (conveyor.getFirstTerminal().getId().equalsIgnoreCase( baggageClaimId )) {
+						baggageClaim = new Node<>( conveyor.getFirstTerminal() );
+					}
+					if (conveyor.getSecondTerminal().getId().equalsIgnoreCase( baggageClaimId )) {
+						baggageClaim = new Node<>( conveyor.getSecondTerminal() );
+					}
+				});
+			}
 
-				if (node1.getNodeId().toString().equalsIgnoreCase( baggageClaimId )) {
-					baggageClaim = node1;
+			//	any profile switches routing to travel times by time of day, from the entry time
+			parser.addSectionConsumer( SectionType.CONVEYOR_PROFILES, new ConveyorProfileRowParser( symbols ), entry -> {
+				ConveyorProfile profile = (ConveyorProfile) entry;
+				if ( profileStrategy == null ) {
+					profileStrategy = new TimeDependentSearchStrategy<>();
+					profileStrategy.setEntryTime( entryTime() );
 				}
-				if (node2.getNodeId().toString().equalsIgnoreCase( baggageClaimId )) {
-					baggageClaim = node2;
+
+				try {
+					profileStrategy.addProfile( new Node<>( profile.getFirstTerminal() ), new Node<>( profile.getSecondTerminal() ),
+							profile.getMinutes(), profile.getTravelTimes() );
+				}
+				catch ( IllegalArgumentException e ) {
+					throw new ParseException( e.getMessage() );
 				}
 			});
 
+			parser.addSectionConsumer( SectionType.CONVEYOR_CAPACITY, new ConveyorCapacityRowParser( symbols ), entry -> {
+				conveyorCapacities.add( (ConveyorCapacity) entry );
+			});
+
 			parser.parseSections();
+			if ( offHeapGraph && compiledTopology == null ) {
+				conveyorBuffer = BufferGraph.allocateDirect( conveyors.buildSnapshot(), this::bufferGate );
+			}
+			else {
+				conveyors.addTo( conveyorRoutes );
+			}
+
+			if ( compiledTopology != null ) {
+				if ( capacityRouting || profileStrategy != null ) {
+					throw new ParseException( "Conveyor profiles and capacity routing need the conveyor section, not a compiled topology." );
+				}
+				baggageClaim = findBaggageClaim( compiledTopology.getGraph() );
+			}
 
 			if ( baggageClaim == null ) {
 				throw new ParseException( "Baggage claim node was not found." );
 			}
 
+			indexGateNodes();
+		}
+
+
+		//	the id is matched ignoring case, like the conveyor section
+		private Node<TerminalGate> findBaggageClaim( CompactGraph<TerminalGate> graph ) {
+			int index = graph.indexOf( baggageClaimId );
+			if ( index >= 0 ) {
+				return graph.getNode( index );
+			}
+			for ( index = 0; index < graph.nodeCount(); index++ ) {
+				if ( graph.getNode( index ).getNodeId().toString().equalsIgnoreCase( baggageClaimId ) ) {
+					return graph.getNode( index );
+				}
+			}
+			return null;
+		}
+
+
+		/**
+		 * Route cache shared by every search of this router, null if caching is off.
+		 * Entries are tied to the graph version, so reparsing the input invalidates them.
+		 */
+		protected RouteCache<TerminalGate> getRouteCache() {
+			if ( routeCache == null && routeCacheSize > 0 ) {
+				routeCache = new RouteCache<>( routeCacheSize );
+			}
+			return routeCache;
 		}
 
 
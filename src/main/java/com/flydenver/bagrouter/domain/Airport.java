@@ -32,11 +32,20 @@ package com.flydenver.bagrouter.domain;
 public class Airport implements Identifiable<String> {
 
 	private String airportId;
+	private final int symbol;
 	//private List<TerminalGate> gates = new ArrayList<>( 20 );;
 
 	//public Airport() {}
 	public Airport(String airportId) {
-		setAirportId(airportId);
+		this( airportId, SymbolTable.NO_SYMBOL );
+	}
+
+	/**
+	 * Build an airport with its symbol. Use {@link SymbolTable#airport(String)} instead.
+	 */
+	Airport( String airportId, int symbol ) {
+		setAirportId( airportId );
+		this.symbol = symbol;
 	}
 
 	/**
@@ -53,6 +62,13 @@ public class Airport implements Identifiable<String> {
 		return airportId;
 	}
 
+	/**
+	 * Dense symbol from the {@link SymbolTable} that made this, or {@link SymbolTable#NO_SYMBOL}.
+	 */
+	public int getSymbol() {
+		return symbol;
+	}
+
 	@Override
 	public String getId() {
 		return getAirportId();
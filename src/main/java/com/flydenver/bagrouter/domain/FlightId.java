@@ -31,12 +31,21 @@ package com.flydenver.bagrouter.domain;
 public class FlightId implements Identifiable<String> {
 
 	private final String id;
+	private final int symbol;
 
 	/**
 	 * Build a flight ID with the given ID.
 	 */
 	public FlightId(String id) {
+		this( id, SymbolTable.NO_SYMBOL );
+	}
+
+	/**
+	 * Build a flight ID with its symbol. Use {@link SymbolTable#flight(String)} instead.
+	 */
+	FlightId( String id, int symbol ) {
 		this.id = id;
+		this.symbol = symbol;
 	}
 
 	/**
@@ -46,6 +55,13 @@ public class FlightId implements Identifiable<String> {
 		return id;
 	}
 
+	/**
+	 * Dense symbol from the {@link SymbolTable} that made this, or {@link SymbolTable#NO_SYMBOL}.
+	 */
+	public int getSymbol() {
+		return symbol;
+	}
+
 	@Override
 	public String toString() {
 		return getId() == null ? super.toString() : getId();
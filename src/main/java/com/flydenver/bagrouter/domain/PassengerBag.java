@@ -32,9 +32,18 @@ public class PassengerBag implements Identifiable<String> {
 
 	private String bagNumber;
 	private BagState state = BagState.UNKNOWN;
+	private final int symbol;
 
 	public PassengerBag(String bagNumber) {
-		setBagNumber(bagNumber);
+		this( bagNumber, SymbolTable.NO_SYMBOL );
+	}
+
+	/**
+	 * Build a bag with its number in reading order. Use {@link SymbolTable#bag(String)} instead.
+	 */
+	PassengerBag( String bagNumber, int symbol ) {
+		setBagNumber( bagNumber );
+		this.symbol = symbol;
 	}
 
 	/**
@@ -44,6 +53,13 @@ public class PassengerBag implements Identifiable<String> {
 		return this.bagNumber;
 	}
 
+	/**
+	 * Reading order from the {@link SymbolTable} that made this, or {@link SymbolTable#NO_SYMBOL}.
+	 */
+	public int getSymbol() {
+		return symbol;
+	}
+
 	/**
 	 * Set the bag ID
 	 */
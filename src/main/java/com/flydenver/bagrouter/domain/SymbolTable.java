@@ -0,0 +1,201 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+
+/**
+ * Interns gate, flight and airport names into dense int symbols while parsing.
+ * Each name is kept once, and each symbol has a single shared domain object, so
+ * the conveyors, departures and millions of bag rows all point at the same
+ * {@link TerminalGate} and {@link FlightId} instead of copies of their strings.
+ * Symbols count up from zero, so lookups keyed by them can be plain arrays.
+ *
+ * This isn't synchronized. Fill it on the parsing thread, and only read it after.
+ */
+public class SymbolTable {
+
+	/**
+	 * Symbol of domain objects made outside of a table.
+	 */
+	public static final int NO_SYMBOL = -1;
+
+	private final Map<String, Integer> symbols;
+	private final List<String> names;
+	private final List<TerminalGate> gates = new ArrayList<>();
+	private final List<FlightId> flights = new ArrayList<>();
+	private final List<Airport> airports = new ArrayList<>();
+	private int bagCount;
+
+
+	/**
+	 * Create an empty table.
+	 */
+	public SymbolTable() {
+		this( 100 );
+	}
+
+
+	/**
+	 * Create an empty table sized for the expected number of names.
+	 */
+	public SymbolTable( int expectedSize ) {
+		if ( expectedSize < 0 ) {
+			throw new IllegalArgumentException( "Expected size must not be negative." );
+		}
+		symbols = new HashMap<>( expectedSize );
+		names = new ArrayList<>( expectedSize );
+	}
+
+
+	/**
+	 * Get the symbol for a name, adding it if it's new.
+	 */
+	public int intern( String name ) {
+		if ( name == null ) {
+			throw new IllegalArgumentException( "Null name." );
+		}
+
+		Integer symbol = symbols.get( name );
+		if ( symbol == null ) {
+			symbol = names.size();
+			symbols.put( name, symbol );
+			names.add( name );
+		}
+		return symbol;
+	}
+
+
+	/**
+	 * Get the symbol for a name, or {@link #NO_SYMBOL} if it was never interned.
+	 */
+	public int symbolOf( String name ) {
+		Integer symbol = name == null ? null : symbols.get( name );
+		return symbol == null ? NO_SYMBOL : symbol;
+	}
+
+
+	/**
+	 * Get the name of a symbol.
+	 */
+	public String name( int symbol ) {
+		return names.get( symbol );
+	}
+
+
+	/**
+	 * Number of symbols, one more than the largest.
+	 */
+	public int size() {
+		return names.size();
+	}
+
+
+	/**
+	 * Number of bags handed out by {@link #bag(String)}.
+	 */
+	public int bagCount() {
+		return bagCount;
+	}
+
+
+	/**
+	 * Get the shared gate for a gate number.
+	 */
+	public TerminalGate gate( String gateNumber ) {
+		return shared( gates, intern( gateNumber ), symbol -> new TerminalGate( name( symbol ), symbol ) );
+	}
+
+
+	/**
+	 * Get the gate for a symbol if {@link #gate(String)} made one, otherwise null.
+	 */
+	public TerminalGate gate( int symbol ) {
+		return symbol < gates.size() ? gates.get( symbol ) : null;
+	}
+
+
+	/**
+	 * Get the shared flight id for a flight.
+	 */
+	public FlightId flight( String flightId ) {
+		return shared( flights, intern( flightId ), symbol -> new FlightId( name( symbol ), symbol ) );
+	}
+
+
+	/**
+	 * Get the shared airport for an airport code.
+	 */
+	public Airport airport( String airportId ) {
+		return shared( airports, intern( airportId ), symbol -> new Airport( name( symbol ), symbol ) );
+	}
+
+
+	/**
+	 * Make a bag. Bags carry state and their numbers don't repeat, so they aren't
+	 * shared or interned; the symbol is just the order they were made in.
+	 */
+	public PassengerBag bag( String bagNumber ) {
+		if ( bagNumber == null ) {
+			throw new IllegalArgumentException( "Null name." );
+		}
+		return new PassengerBag( bagNumber, bagCount++ );
+	}
+
+
+	/**
+	 * Forget every symbol.
+	 */
+	public void clear() {
+		symbols.clear();
+		names.clear();
+		gates.clear();
+		flights.clear();
+		airports.clear();
+		bagCount = 0;
+	}
+
+
+	//	one object per symbol and kind, so a gate and an airport can share a name
+	private <I> I shared( List<I> list, int symbol, IntFunction<I> factory ) {
+		while ( list.size() <= symbol ) {
+			list.add( null );
+		}
+
+		I item = list.get( symbol );
+		if ( item == null ) {
+			item = factory.apply( symbol );
+			list.set( symbol, item );
+		}
+		return item;
+	}
+
+}
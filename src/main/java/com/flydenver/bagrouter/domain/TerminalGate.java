@@ -30,12 +30,21 @@ package com.flydenver.bagrouter.domain;
  */
 public class TerminalGate implements Identifiable<String> {
 	private final String gateNumber;
+	private final int symbol;
 
 	/**
 	 * Create a gate given the gate number.
 	 */
 	public TerminalGate(String gateNumber) {
+		this( gateNumber, SymbolTable.NO_SYMBOL );
+	}
+
+	/**
+	 * Create a gate with its symbol. Use {@link SymbolTable#gate(String)} instead.
+	 */
+	TerminalGate( String gateNumber, int symbol ) {
 		this.gateNumber = gateNumber;
+		this.symbol = symbol;
 	}
 
 	/**
@@ -45,6 +54,13 @@ public class TerminalGate implements Identifiable<String> {
 		return gateNumber;
 	}
 
+	/**
+	 * Dense symbol from the {@link SymbolTable} that made this, or {@link SymbolTable#NO_SYMBOL}.
+	 */
+	public int getSymbol() {
+		return symbol;
+	}
+
 	@Override
 	public boolean equals( Object obj ) {
 		return ( ! (obj instanceof TerminalGate) ) ?
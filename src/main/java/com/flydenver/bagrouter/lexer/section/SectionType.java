@@ -45,6 +45,16 @@ public enum SectionType {
 	 */
 	BAGS( "Bags" ),
 
+	/**
+	 * Section marker for the optional time of day conveyor travel times.
+	 */
+	CONVEYOR_PROFILES( "Conveyor Profiles" ),
+
+	/**
+	 * Section marker for the optional conveyor capacities.
+	 */
+	CONVEYOR_CAPACITY( "Conveyor Capacity" ),
+
 	/**
 	 * Invalid token.
 	 */
@@ -26,9 +26,8 @@
 package com.flydenver.bagrouter.lexer.section.bag;
 
 import com.flydenver.bagrouter.domain.Flight;
-import com.flydenver.bagrouter.domain.FlightId;
 import com.flydenver.bagrouter.domain.PassengerBag;
-import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.domain.SymbolTable;
 import com.flydenver.bagrouter.lexer.ParseException;
 import com.flydenver.bagrouter.lexer.section.RowParsingDelegate;
 import com.flydenver.bagrouter.lexer.section.SectionRowWrapper;
@@ -54,6 +53,29 @@ public class BagRowParser implements RowParsingDelegate<BagEntry> {
 	private final static Pattern bagRowPattern = Pattern.compile( "^(\\d+\\s+)(\\w+\\s+)(\\w+)$" );
 
 
+	//	names are interned here, so rows share their gates and flights
+	private final SymbolTable symbols;
+
+
+	/**
+	 * Create a parser with a symbol table of its own.
+	 */
+	public BagRowParser() {
+		this( new SymbolTable() );
+	}
+
+
+	/**
+	 * Create a parser that interns names into a shared symbol table.
+	 */
+	public BagRowParser( SymbolTable symbols ) {
+		if ( symbols == null ) {
+			throw new IllegalArgumentException( "Null symbol table." );
+		}
+		this.symbols = symbols;
+	}
+
+
 	@Override
 	public SectionRowWrapper<BagEntry> parseSectionRow( String sectionLine ) throws ParseException {
 		if ( sectionLine == null ) {
@@ -72,8 +94,8 @@ public class BagRowParser implements RowParsingDelegate<BagEntry> {
 		}
 
 		BagEntry route = new BagEntry();
-		route.setBag( new PassengerBag( matcher.group( 1 ).trim() ) );
-		route.setEntryPoint( new TerminalGate( matcher.group( 2 ).trim() ) );
+		route.setBag( symbols.bag( matcher.group( 1 ).trim() ) );
+		route.setEntryPoint( symbols.gate( matcher.group( 2 ).trim() ) );
 
 		String flightId = matcher.group( 3 ).trim();
 		if ( "ARRIVAL".equalsIgnoreCase( flightId ) ) {
@@ -84,7 +106,7 @@ public class BagRowParser implements RowParsingDelegate<BagEntry> {
 
 			route.setFlight( new Flight() );
 			route.getFlight().setGate( route.getEntryPoint() );
-			route.getFlight().setFlightId( new FlightId( matcher.group( 3 ).trim() ) );
+			route.getFlight().setFlightId( symbols.flight( matcher.group( 3 ).trim() ) );
 		}
 
 		return new SectionRowWrapper<>( route );
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.lexer.section.capacity;
+
+import com.flydenver.bagrouter.domain.SymbolTable;
+import com.flydenver.bagrouter.lexer.ParseException;
+import com.flydenver.bagrouter.lexer.section.RowParsingDelegate;
+import com.flydenver.bagrouter.lexer.section.SectionRowWrapper;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * {@link RowParsingDelegate} implementation for parsing the Conveyor Capacity section rows.
+ * Capacities are given by the rules:
+ * <pre>
+ * Section 5 (optional): Bags per minute each conveyor can carry.
+ *     Format: &lt;Node 1&gt; &lt;Node 2&gt; &lt;bags_per_minute&gt;
+ * </pre><pre>
+ * Example:
+ *    A5 A10 20
+ * </pre>
+ */
+public class ConveyorCapacityRowParser implements RowParsingDelegate<ConveyorCapacity> {
+
+	//	capacity row should match this format
+	private final static Pattern capacityRowPattern = Pattern.compile( "^(\\w+\\s+)(\\w+\\s+)(\\d+)$" );
+
+
+	//	names are interned here, so rows share their gates
+	private final SymbolTable symbols;
+
+
+	/**
+	 * Create a parser with a symbol table of its own.
+	 */
+	public ConveyorCapacityRowParser() {
+		this( new SymbolTable() );
+	}
+
+
+	/**
+	 * Create a parser that interns names into a shared symbol table.
+	 */
+	public ConveyorCapacityRowParser( SymbolTable symbols ) {
+		if ( symbols == null ) {
+			throw new IllegalArgumentException( "Null symbol table." );
+		}
+		this.symbols = symbols;
+	}
+
+
+	@Override
+	public SectionRowWrapper<ConveyorCapacity> parseSectionRow( String sectionLine ) throws ParseException {
+		if ( sectionLine == null ) {
+			throw new IllegalArgumentException( "Invalid line (null)." );
+		}
+
+		sectionLine = sectionLine.trim();
+
+		if ( sectionLine.contains( "\n" ) || sectionLine.contains( "\r\n" ) ) {
+			throw new IllegalArgumentException( "Too many lines." );
+		}
+
+		Matcher matcher = capacityRowPattern.matcher( sectionLine );
+		if ( !matcher.find() ) {
+			throw new ParseException( "Conveyor capacity line doesn't match pattern " + capacityRowPattern.toString() );
+		}
+
+		int bagsPerMinute;
+		try {
+			bagsPerMinute = Integer.parseInt( matcher.group( 3 ).trim() );
+		}
+		catch ( NumberFormatException e ) {
+			throw new ParseException( "Conveyor capacity is too large." );
+		}
+		if ( bagsPerMinute == 0 ) {
+			throw new ParseException( "Conveyor capacity must be positive." );
+		}
+
+		ConveyorCapacity capacity = new ConveyorCapacity();
+		capacity.setFirstTerminal( symbols.gate( matcher.group( 1 ).trim() ) );
+		capacity.setSecondTerminal( symbols.gate( matcher.group( 2 ).trim() ) );
+		capacity.setBagsPerMinute( bagsPerMinute );
+
+		return new SectionRowWrapper<>( capacity );
+	}
+
+}
@@ -25,7 +25,7 @@
 
 package com.flydenver.bagrouter.lexer.section.conveyor;
 
-import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.domain.SymbolTable;
 import com.flydenver.bagrouter.lexer.ParseException;
 import com.flydenver.bagrouter.lexer.section.RowParsingDelegate;
 import com.flydenver.bagrouter.lexer.section.SectionRowWrapper;
@@ -52,6 +52,29 @@ public class ConveyorRowParser implements RowParsingDelegate<ConveyorRoute> {
 	private final static Pattern conveyorRowPattern = Pattern.compile( "^(\\w+\\s+)(\\w+\\s+)(\\d+)$" );
 
 
+	//	names are interned here, so rows share their gates
+	private final SymbolTable symbols;
+
+
+	/**
+	 * Create a parser with a symbol table of its own.
+	 */
+	public ConveyorRowParser() {
+		this( new SymbolTable() );
+	}
+
+
+	/**
+	 * Create a parser that interns names into a shared symbol table.
+	 */
+	public ConveyorRowParser( SymbolTable symbols ) {
+		if ( symbols == null ) {
+			throw new IllegalArgumentException( "Null symbol table." );
+		}
+		this.symbols = symbols;
+	}
+
+
 	@Override
 	public SectionRowWrapper<ConveyorRoute> parseSectionRow( String sectionLine ) throws ParseException {
 		if ( sectionLine == null ) {
@@ -70,8 +93,8 @@ public class ConveyorRowParser implements RowParsingDelegate<ConveyorRoute> {
 		}
 
 		ConveyorRoute route = new ConveyorRoute();
-		route.setFirstTerminal( new TerminalGate( matcher.group( 1 ).trim() ) );
-		route.setSecondTerminal( new TerminalGate( matcher.group( 2 ).trim() ) );
+		route.setFirstTerminal( symbols.gate( matcher.group( 1 ).trim() ) );
+		route.setSecondTerminal( symbols.gate( matcher.group( 2 ).trim() ) );
 		route.setTravelTime( Integer.parseInt( matcher.group( 3 ).trim() ) );
 
 		return new SectionRowWrapper<>( route );
@@ -25,10 +25,8 @@
 
 package com.flydenver.bagrouter.lexer.section.departure;
 
-import com.flydenver.bagrouter.domain.Airport;
 import com.flydenver.bagrouter.domain.Flight;
-import com.flydenver.bagrouter.domain.FlightId;
-import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.domain.SymbolTable;
 import com.flydenver.bagrouter.lexer.ParseException;
 import com.flydenver.bagrouter.lexer.section.RowParsingDelegate;
 import com.flydenver.bagrouter.lexer.section.SectionRowWrapper;
@@ -57,6 +55,29 @@ public class DepartureRowParser implements RowParsingDelegate<Departure> {
 	//	string to extract flight time
 	private final static SimpleDateFormat dateFormat = new SimpleDateFormat( "HH:mm" );
 
+	//	names are interned here, so rows share their gates and flights
+	private final SymbolTable symbols;
+
+
+	/**
+	 * Create a parser with a symbol table of its own.
+	 */
+	public DepartureRowParser() {
+		this( new SymbolTable() );
+	}
+
+
+	/**
+	 * Create a parser that interns names into a shared symbol table.
+	 */
+	public DepartureRowParser( SymbolTable symbols ) {
+		if ( symbols == null ) {
+			throw new IllegalArgumentException( "Null symbol table." );
+		}
+		this.symbols = symbols;
+	}
+
+
 	@Override
 	public SectionRowWrapper<Departure> parseSectionRow( String sectionLine ) throws ParseException {
 		if ( sectionLine == null ) {
@@ -75,9 +96,9 @@ public class DepartureRowParser implements RowParsingDelegate<Departure> {
 		}
 
 		Flight flight = new Flight();
-		flight.setGate( new TerminalGate( matcher.group( 2 ).trim() ) );
-		flight.setFlightId( new FlightId( matcher.group( 1 ).trim() ) );
-		flight.setDestination( new Airport( matcher.group( 3 ).trim() ) );
+		flight.setGate( symbols.gate( matcher.group( 2 ).trim() ) );
+		flight.setFlightId( symbols.flight( matcher.group( 1 ).trim() ) );
+		flight.setDestination( symbols.airport( matcher.group( 3 ).trim() ) );
 
 		try {
 			flight.setFlightTime( dateFormat.parse( matcher.group( 4 ).trim() ) );
@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.lexer.section.profile;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.lexer.section.SectionEntry;
+
+
+/**
+ * Travel times of one conveyor over the day, as described by the optional
+ * conveyor profiles section of the routing files. Each breakpoint gives the
+ * travel time for a bag getting on at that minute of the day, and times in
+ * between are interpolated.
+ */
+public class ConveyorProfile implements SectionEntry {
+
+	private TerminalGate firstNode;
+	private TerminalGate secondNode;
+	private int[] minutes;
+	private int[] travelTimes;
+
+	/**
+	 * Get the first gate node.
+	 */
+	public TerminalGate getFirstTerminal() {
+		return firstNode;
+	}
+
+	/**
+	 * Set the first gate node.
+	 */
+	public void setFirstTerminal( TerminalGate firstNode ) {
+		this.firstNode = firstNode;
+	}
+
+	/**
+	 * Get the second gate node.
+	 */
+	public TerminalGate getSecondTerminal() {
+		return secondNode;
+	}
+
+	/**
+	 * Set the second gate node.
+	 */
+	public void setSecondTerminal( TerminalGate secondNode ) {
+		this.secondNode = secondNode;
+	}
+
+	/**
+	 * Get the breakpoint times, in minutes since midnight, in increasing order.
+	 */
+	public int[] getMinutes() {
+		return minutes;
+	}
+
+	/**
+	 * Set the breakpoint times, in minutes since midnight, in increasing order.
+	 */
+	public void setMinutes( int[] minutes ) {
+		this.minutes = minutes;
+	}
+
+	/**
+	 * Get the travel time at each breakpoint.
+	 */
+	public int[] getTravelTimes() {
+		return travelTimes;
+	}
+
+	/**
+	 * Set the travel time at each breakpoint.
+	 */
+	public void setTravelTimes( int[] travelTimes ) {
+		this.travelTimes = travelTimes;
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.lexer.section.profile;
+
+import com.flydenver.bagrouter.domain.SymbolTable;
+import com.flydenver.bagrouter.lexer.ParseException;
+import com.flydenver.bagrouter.lexer.section.RowParsingDelegate;
+import com.flydenver.bagrouter.lexer.section.SectionRowWrapper;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * {@link RowParsingDelegate} implementation for parsing the Conveyor Profiles section rows.
+ * Profiles are given by the rules:
+ * <pre>
+ * Section 4 (optional): Travel times of a conveyor over the day.
+ *     Format: &lt;Node 1&gt; &lt;Node 2&gt; &lt;HH:mm&gt;=&lt;travel_time&gt; [&lt;HH:mm&gt;=&lt;travel_time&gt; ...]
+ * </pre><pre>
+ * Example:
+ *    A5 A10 00:00=4 07:30=4 08:00=9 09:30=4
+ * </pre>
+ */
+public class ConveyorProfileRowParser implements RowParsingDelegate<ConveyorProfile> {
+
+	//	profile row should match this format
+	private final static Pattern profileRowPattern = Pattern.compile( "^(\\w+\\s+)(\\w+)((\\s+\\d{2}:\\d{2}=\\d+)+)$" );
+
+	//	one breakpoint of the profile
+	private final static Pattern breakpointPattern = Pattern.compile( "(\\d{2}):(\\d{2})=(\\d+)" );
+
+
+	//	names are interned here, so rows share their gates
+	private final SymbolTable symbols;
+
+
+	/**
+	 * Create a parser with a symbol table of its own.
+	 */
+	public ConveyorProfileRowParser() {
+		this( new SymbolTable() );
+	}
+
+
+	/**
+	 * Create a parser that interns names into a shared symbol table.
+	 */
+	public ConveyorProfileRowParser( SymbolTable symbols ) {
+		if ( symbols == null ) {
+			throw new IllegalArgumentException( "Null symbol table." );
+		}
+		this.symbols = symbols;
+	}
+
+
+	@Override
+	public SectionRowWrapper<ConveyorProfile> parseSectionRow( String sectionLine ) throws ParseException {
+		if ( sectionLine == null ) {
+			throw new IllegalArgumentException( "Invalid line (null)." );
+		}
+
+		sectionLine = sectionLine.trim();
+
+		if ( sectionLine.contains( "\n" ) || sectionLine.contains( "\r\n" ) ) {
+			throw new IllegalArgumentException( "Too many lines." );
+		}
+
+		Matcher matcher = profileRowPattern.matcher( sectionLine );
+		if ( !matcher.find() ) {
+			throw new ParseException( "Conveyor profile line doesn't match pattern " + profileRowPattern.toString() );
+		}
+
+		String[] breakpoints = matcher.group( 3 ).trim().split( "\\s+" );
+		int[] minutes = new int[breakpoints.length];
+		int[] travelTimes = new int[breakpoints.length];
+		for ( int i = 0; i < breakpoints.length; i++ ) {
+			Matcher point = breakpointPattern.matcher( breakpoints[i] );
+			if ( !point.matches() ) {
+				throw new ParseException( "Invalid profile breakpoint. " + breakpoints[i] );
+			}
+
+			int hours = Integer.parseInt( point.group( 1 ) );
+			int mins = Integer.parseInt( point.group( 2 ) );
+			if ( hours > 23 || mins > 59 ) {
+				throw new ParseException( "Invalid profile time. " + breakpoints[i] );
+			}
+
+			minutes[i] = hours * 60 + mins;
+			travelTimes[i] = Integer.parseInt( point.group( 3 ) );
+			if ( i > 0 && minutes[i] <= minutes[i - 1] ) {
+				throw new ParseException( "Profile times must increase. " + breakpoints[i] );
+			}
+		}
+
+		ConveyorProfile profile = new ConveyorProfile();
+		profile.setFirstTerminal( symbols.gate( matcher.group( 1 ).trim() ) );
+		profile.setSecondTerminal( symbols.gate( matcher.group( 2 ).trim() ) );
+		profile.setMinutes( minutes );
+		profile.setTravelTimes( travelTimes );
+
+		return new SectionRowWrapper<>( profile );
+	}
+
+}
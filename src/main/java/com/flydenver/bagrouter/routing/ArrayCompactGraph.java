@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * {@link CompactGraph} keeping its layout in heap arrays, built straight from a
+ * {@link WeightedGraph} or from the rows of a {@link GraphBuilder}.
+ */
+final class ArrayCompactGraph<T> extends CompactGraph<T> {
+
+	private final Node<T>[] nodes;
+	private final Map<Object, Integer> nodeIndex;
+	private final int[] edgeOffsets;
+	private final int[] edgeTargets;
+	private final int[] edgeWeights;
+	private final int maxWeight;
+
+
+	@SuppressWarnings( "unchecked" )
+	static <T> ArrayCompactGraph<T> of( WeightedGraph<T> graph ) {
+		long version = graph.getVersion();
+		int sourceNodeCount = graph.nodes().size();
+		int sourceEdgeCount = graph.edges().size();
+
+		//	dense node indices, in the graph's own iteration order
+		Node<T>[] nodes = (Node<T>[]) new Node<?>[sourceNodeCount];
+		Map<Object, Integer> nodeIndex = new HashMap<>( sourceNodeCount * 2 );
+		int index = 0;
+		for ( Node<T> node : graph.nodes().values() ) {
+			nodes[index] = node;
+			nodeIndex.put( node.getNodeId(), index++ );
+		}
+
+		//	resolve the end points once; closed edges are left out
+		int[] firstIndex = new int[sourceEdgeCount];
+		int[] secondIndex = new int[sourceEdgeCount];
+		int[] weights = new int[sourceEdgeCount];
+		int edge = 0;
+		for ( WeightedEdge<T> we : graph.edges() ) {
+			if ( ! we.isEnabled() ) { continue; }
+			firstIndex[edge] = nodeIndex.get( we.getFirstNode().getNodeId() );
+			secondIndex[edge] = nodeIndex.get( we.getSecondNode().getNodeId() );
+			weights[edge] = we.getWeight();
+			edge++;
+		}
+
+		return new ArrayCompactGraph<>( graph, version, nodes, nodeIndex, firstIndex, secondIndex, weights, edge );
+	}
+
+
+	/**
+	 * Lay out builder rows, with the items in the order they were first seen. The
+	 * snapshot has no source graph.
+	 * @param pairs node pairs packed high and low into longs
+	 */
+	@SuppressWarnings( "unchecked" )
+	static <T> ArrayCompactGraph<T> of( List<T> items, Map<Object, Integer> itemIndex, long[] pairs, int[] weights, int edgeCount ) {
+		Node<T>[] nodes = (Node<T>[]) new Node<?>[items.size()];
+		for ( int index = 0; index < nodes.length; index++ ) {
+			nodes[index] = new Node<>( items.get( index ) );
+		}
+
+		int[] firstIndex = new int[edgeCount];
+		int[] secondIndex = new int[edgeCount];
+		for ( int edge = 0; edge < edgeCount; edge++ ) {
+			firstIndex[edge] = (int) ( pairs[edge] >>> 32 );
+			secondIndex[edge] = (int) pairs[edge];
+		}
+
+		return new ArrayCompactGraph<>( null, 0, nodes, new HashMap<>( itemIndex ), firstIndex, secondIndex, weights, edgeCount );
+	}
+
+
+	private ArrayCompactGraph( WeightedGraph<T> source, long version, Node<T>[] nodes, Map<Object, Integer> nodeIndex,
+			int[] firstIndex, int[] secondIndex, int[] weights, int edgeCount ) {
+		super( source, version );
+		this.nodes = nodes;
+		this.nodeIndex = nodeIndex;
+
+		//	count the degree of each node
+		int nodeCount = nodes.length;
+		edgeOffsets = new int[nodeCount + 1];
+		for ( int i = 0; i < edgeCount; i++ ) {
+			edgeOffsets[firstIndex[i] + 1]++;
+			edgeOffsets[secondIndex[i] + 1]++;
+		}
+		for ( int i = 0; i < nodeCount; i++ ) {
+			edgeOffsets[i + 1] += edgeOffsets[i];
+		}
+
+		//	scatter both directions of each edge into the flat arrays
+		edgeTargets = new int[edgeOffsets[nodeCount]];
+		edgeWeights = new int[edgeOffsets[nodeCount]];
+		int[] fill = new int[nodeCount];
+		System.arraycopy( edgeOffsets, 0, fill, 0, nodeCount );
+
+		int heaviest = 0;
+		for ( int i = 0; i < edgeCount; i++ ) {
+			heaviest = Math.max( heaviest, weights[i] );
+			int slot = fill[firstIndex[i]]++;
+			edgeTargets[slot] = secondIndex[i];
+			edgeWeights[slot] = weights[i];
+
+			slot = fill[secondIndex[i]]++;
+			edgeTargets[slot] = firstIndex[i];
+			edgeWeights[slot] = weights[i];
+		}
+		maxWeight = heaviest;
+	}
+
+
+	@Override
+	public int nodeCount() {
+		return nodes.length;
+	}
+
+
+	@Override
+	public int edgeCount() {
+		return edgeTargets.length;
+	}
+
+
+	@Override
+	public int maxWeight() {
+		return maxWeight;
+	}
+
+
+	@Override
+	public int indexOf( Object nodeId ) {
+		Integer index = nodeId == null ? null : nodeIndex.get( nodeId );
+		return index == null ? -1 : index;
+	}
+
+
+	@Override
+	public Node<T> getNode( int index ) {
+		return nodes[index];
+	}
+
+
+	@Override
+	public int edgeStart( int index ) {
+		return edgeOffsets[index];
+	}
+
+
+	@Override
+	public int edgeEnd( int index ) {
+		return edgeOffsets[index + 1];
+	}
+
+
+	@Override
+	public int edgeTarget( int slot ) {
+		return edgeTargets[slot];
+	}
+
+
+	@Override
+	public int edgeWeight( int slot ) {
+		return edgeWeights[slot];
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import java.util.Arrays;
+
+
+/**
+ * Frozen snapshot of a {@link WeightedGraph} laid out in compressed sparse row
+ * form. Every {@link Node} gets a dense index, and the adjacency of node {@code u}
+ * is the slice {@code [edgeStart(u), edgeEnd(u))} of the flat target and weight
+ * arrays. Since the conveyor graph is bi-directional, each {@link WeightedEdge}
+ * is stored once in each direction.
+ *
+ * The snapshot does not follow changes made to the source graph afterwards, so
+ * use {@link #isSnapshotOf(WeightedGraph)} to decide when to rebuild it.
+ * {@link #fromGraph(WeightedGraph)} keeps the layout in heap arrays; subclasses
+ * can keep the same layout elsewhere, such as in a mapped file.
+ *
+ * @param <T> Type of the node data
+ */
+public abstract class CompactGraph<T> {
+
+	private final WeightedGraph<T> sourceGraph;
+	private final long sourceVersion;
+	private volatile int[] components;
+
+
+	/**
+	 * Build a snapshot from the current state of the given graph.
+	 * @param graph graph to freeze
+	 * @return compact copy of the graph
+	 */
+	public static <T> CompactGraph<T> fromGraph( WeightedGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+		return ArrayCompactGraph.of( graph );
+	}
+
+
+	/**
+	 * @param sourceGraph graph the snapshot was taken of, null if there isn't one
+	 * @param sourceVersion version of the graph when the snapshot was taken
+	 */
+	protected CompactGraph( WeightedGraph<T> sourceGraph, long sourceVersion ) {
+		this.sourceGraph = sourceGraph;
+		this.sourceVersion = sourceVersion;
+	}
+
+
+	/**
+	 * Check if this is an up to date snapshot of the given graph, meaning the graph
+	 * hasn't changed version since the snapshot was taken.
+	 */
+	public boolean isSnapshotOf( WeightedGraph<T> graph ) {
+		return graph != null && graph == sourceGraph && graph.getVersion() == sourceVersion;
+	}
+
+
+	/**
+	 * Check if two nodes are in different connected components, so no search can
+	 * join them. Closed conveyors aren't in the snapshot, so this is exact. The
+	 * components are labeled on the first call.
+	 */
+	public boolean isDisconnected( int first, int second ) {
+		int[] labels = components();
+		return labels[first] != labels[second];
+	}
+
+
+	//	flood fill over the adjacency; racing threads just label the same components
+	private int[] components() {
+		int[] labels = components;
+		if ( labels == null ) {
+			labels = new int[nodeCount()];
+			Arrays.fill( labels, -1 );
+			int[] stack = new int[labels.length];
+			for ( int root = 0; root < labels.length; root++ ) {
+				if ( labels[root] >= 0 ) { continue; }
+				labels[root] = root;
+				int top = 0;
+				stack[top++] = root;
+				while ( top > 0 ) {
+					int u = stack[--top];
+					for ( int slot = edgeStart( u ), last = edgeEnd( u ); slot < last; slot++ ) {
+						int v = edgeTarget( slot );
+						if ( labels[v] < 0 ) {
+							labels[v] = root;
+							stack[top++] = v;
+						}
+					}
+				}
+			}
+			components = labels;
+		}
+		return labels;
+	}
+
+
+	/**
+	 * Number of nodes in the snapshot.
+	 */
+	public abstract int nodeCount();
+
+
+	/**
+	 * Number of directed adjacency entries (twice the number of edges).
+	 */
+	public abstract int edgeCount();
+
+
+	/**
+	 * Largest edge weight in the snapshot, 0 for a graph without edges.
+	 */
+	public abstract int maxWeight();
+
+
+	/**
+	 * Get the dense index of a node id, or -1 if the node isn't in the snapshot.
+	 */
+	public abstract int indexOf( Object nodeId );
+
+
+	/**
+	 * Get the dense index of a node, or -1 if the node isn't in the snapshot.
+	 */
+	public int indexOf( Node<T> node ) {
+		return node == null ? -1 : indexOf( node.getNodeId() );
+	}
+
+
+	/**
+	 * Get the graph node for a dense index.
+	 */
+	public abstract Node<T> getNode( int index );
+
+
+	/**
+	 * First adjacency slot of the given node.
+	 */
+	public abstract int edgeStart( int index );
+
+
+	/**
+	 * One past the last adjacency slot of the given node.
+	 */
+	public abstract int edgeEnd( int index );
+
+
+	/**
+	 * Dense index of the node on the far side of an adjacency slot.
+	 */
+	public abstract int edgeTarget( int slot );
+
+
+	/**
+	 * Weight of an adjacency slot.
+	 */
+	public abstract int edgeWeight( int slot );
+
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Connected components of a graph as it grows, kept in a union-find forest. Each
+ * added edge unions the sets of its two nodes, with the smaller set hung under the
+ * larger one, so trees stay logarithmically shallow and lookups don't need to
+ * write. Unions halve the paths they walk.
+ *
+ * A union can't be undone, so closing a conveyor never splits a component. The
+ * index only catches pairs that were never connected by any edge; nodes in the
+ * same component may still be cut off by closed conveyors.
+ */
+public class ComponentIndex {
+
+	private final Map<Object, Integer> elements = new HashMap<>();
+	private int[] parent = new int[16];
+	private int[] size = new int[16];
+	private int count;
+	private int componentCount;
+
+
+	/**
+	 * Put two node ids in the same component.
+	 */
+	public void union( Object firstId, Object secondId ) {
+		int first = compressingFind( elementOf( firstId ) );
+		int second = compressingFind( elementOf( secondId ) );
+		if ( first == second ) {
+			return;
+		}
+
+		if ( size[first] < size[second] ) {
+			int swap = first;
+			first = second;
+			second = swap;
+		}
+		parent[second] = first;
+		size[first] += size[second];
+		componentCount--;
+	}
+
+
+	/**
+	 * Check if both node ids are known and in the same component.
+	 */
+	public boolean isConnected( Object firstId, Object secondId ) {
+		Integer first = elements.get( firstId );
+		Integer second = elements.get( secondId );
+		return first != null && second != null && find( first ) == find( second );
+	}
+
+
+	/**
+	 * Check if the node id has been seen on an edge.
+	 */
+	public boolean contains( Object nodeId ) {
+		return elements.containsKey( nodeId );
+	}
+
+
+	/**
+	 * Number of components.
+	 */
+	public int componentCount() {
+		return componentCount;
+	}
+
+
+	/**
+	 * Forget every node.
+	 */
+	public void clear() {
+		elements.clear();
+		count = 0;
+		componentCount = 0;
+	}
+
+
+	private int elementOf( Object nodeId ) {
+		Integer element = elements.get( nodeId );
+		if ( element != null ) {
+			return element;
+		}
+
+		if ( count == parent.length ) {
+			parent = Arrays.copyOf( parent, count * 2 );
+			size = Arrays.copyOf( size, count * 2 );
+		}
+		parent[count] = count;
+		size[count] = 1;
+		elements.put( nodeId, count );
+		componentCount++;
+		return count++;
+	}
+
+	//	read only, so concurrent searches can look up components
+	private int find( int element ) {
+		while ( parent[element] != element ) {
+			element = parent[element];
+		}
+		return element;
+	}
+
+	private int compressingFind( int element ) {
+		while ( parent[element] != element ) {
+			parent[element] = parent[parent[element]];
+			element = parent[element];
+		}
+		return element;
+	}
+
+}
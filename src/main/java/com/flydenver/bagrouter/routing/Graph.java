@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 
@@ -40,6 +41,8 @@ public abstract class Graph<T, E extends Edge<T>>  {
 	private int defaultCollectionSize = 100;
 	private final Set<E> graphEdges = new java.util.LinkedHashSet<>( defaultCollectionSize );
 	private final Map<Object, Node<T>> graphNodes = new HashMap<>( defaultCollectionSize );
+	private final AtomicLong version = new AtomicLong();
+	private final ComponentIndex components = new ComponentIndex();
 
 
 	/**
@@ -57,6 +60,7 @@ public abstract class Graph<T, E extends Edge<T>>  {
 		}
 
 		addNodesFromEdge( edge );
+		bumpVersion();
 	}
 
 	/**
@@ -65,6 +69,20 @@ public abstract class Graph<T, E extends Edge<T>>  {
 	abstract public void addEdge( Node<T> firstNode, Node<T> secondNode, int weight );
 
 
+	//	take the node as the graph's own, or get the one it already has with that id
+	protected Node<T> addNode( Node<T> node ) {
+		Node<T> existing = graphNodes.putIfAbsent( node.getNodeId(), node );
+		return existing == null ? node : existing;
+	}
+
+
+	//	record a new edge between two of the graph's own nodes, which the edge already knows about
+	protected void addNodeEdge( E edge ) {
+		graphEdges.add( edge );
+		components.union( edge.getFirstNode().getNodeId(), edge.getSecondNode().getNodeId() );
+	}
+
+
 	//	Extract the nodes from the edge and add them
 	//	It's not really necessary to keep the nodes since they can
 	//	be derived from the edges, but this make them easier to get
@@ -79,6 +97,7 @@ public abstract class Graph<T, E extends Edge<T>>  {
 
 		graphNodes.get( edge.getFirstNode().getNodeId() ).addEdge( edge );
 		graphNodes.get( edge.getSecondNode().getNodeId() ).addEdge( edge );
+		components.union( edge.getFirstNode().getNodeId(), edge.getSecondNode().getNodeId() );
 	}
 
 
@@ -114,12 +133,51 @@ public abstract class Graph<T, E extends Edge<T>>  {
 	}
 
 
+	/**
+	 * Check if two nodes are in the graph and joined by edges. Closed edges still
+	 * count, so a route between connected nodes may not be open.
+	 */
+	public boolean isConnected( Node<T> firstNode, Node<T> secondNode ) {
+		return firstNode != null && secondNode != null &&
+				components.isConnected( firstNode.getNodeId(), secondNode.getNodeId() );
+	}
+
+
+	/**
+	 * Check if two different nodes are in the graph, but in different components,
+	 * so no search between them can succeed. Only pairs that no edge ever joined
+	 * are caught; closed conveyors don't split components.
+	 */
+	public boolean isDisconnected( Node<T> firstNode, Node<T> secondNode ) {
+		return firstNode != null && secondNode != null && ! firstNode.equals( secondNode ) &&
+				getNode( firstNode.getNodeId() ) != null && getNode( secondNode.getNodeId() ) != null &&
+				! isConnected( firstNode, secondNode );
+	}
+
+
+	/**
+	 * Topology version. It goes up on every change to the graph, so anything derived
+	 * from the graph can tell whether it is still current.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+
+	//	mark the graph as changed
+	protected void bumpVersion() {
+		version.incrementAndGet();
+	}
+
+
 	/**
 	 * Cleanup after use.
 	 */
 	public void cleanup() {
 		edges().clear();
 		nodes().clear();
+		components.clear();
+		bumpVersion();
 	}
 
 }
@@ -0,0 +1,234 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+
+/**
+ * Collects conveyor rows and builds a {@link WeightedGraph} from them in one pass.
+ * Node items are numbered by id as they come in, and each row is stored as a pair
+ * of those numbers packed into one long, in an open addressing table. A belt that
+ * shows up more than once, either way round, keeps its lowest travel time. Nothing
+ * is allocated per row beyond table growth, and the graph's nodes and edges are
+ * only made once every row is in.
+ *
+ * @param <T> Type of the node data
+ */
+public class GraphBuilder<T> {
+
+	private final Map<Object, Integer> indices = new HashMap<>();
+	private final List<T> items = new ArrayList<>();
+
+	//	rows in the order they were first seen, keyed by packed node pair
+	private long[] keys = new long[16];
+	private int[] weights = new int[16];
+	private int[] table = new int[32];
+	private int edgeCount;
+	private int rowCount;
+
+
+	/**
+	 * Add one conveyor between two node items. Items are told apart by their
+	 * {@link Node} id.
+	 */
+	public GraphBuilder<T> add( T first, T second, int weight ) {
+		if ( first == null || second == null ) {
+			throw new IllegalArgumentException( "Null nodes." );
+		}
+		if ( weight < 0 ) {
+			throw new IllegalArgumentException( "Weight must not be negative" );
+		}
+
+		int a = indexOf( first );
+		int b = indexOf( second );
+		if ( a == b ) {
+			throw new IllegalArgumentException( "Nodes must not be null or equal" );
+		}
+
+		rowCount++;
+		long key = a < b ? pack( a, b ) : pack( b, a );
+
+		//	keep the table at most half full
+		if ( ( edgeCount + 1 ) * 2 > table.length ) {
+			rehash( table.length * 2 );
+		}
+
+		int mask = table.length - 1;
+		for ( int bucket = hash( key ) & mask; ; bucket = ( bucket + 1 ) & mask ) {
+			int edge = table[bucket] - 1;
+			if ( edge < 0 ) {
+				table[bucket] = append( key, weight ) + 1;
+				return this;
+			}
+			if ( keys[edge] == key ) {
+				weights[edge] = Math.min( weights[edge], weight );
+				return this;
+			}
+		}
+	}
+
+
+	/**
+	 * Add every row of a stream, in order.
+	 * @param first first node item of a row
+	 * @param second second node item of a row
+	 * @param weight travel time of a row
+	 */
+	public <R> GraphBuilder<T> addAll( Stream<R> rows, Function<R, T> first, Function<R, T> second, ToIntFunction<R> weight ) {
+		if ( rows == null || first == null || second == null || weight == null ) {
+			throw new IllegalArgumentException( "Null rows or row mapping." );
+		}
+		rows.sequential().forEachOrdered( row -> add( first.apply( row ), second.apply( row ), weight.applyAsInt( row ) ) );
+		return this;
+	}
+
+
+	/**
+	 * Number of distinct node items.
+	 */
+	public int nodeCount() {
+		return items.size();
+	}
+
+
+	/**
+	 * Number of distinct conveyors, with parallel belts counted once.
+	 */
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+
+	/**
+	 * Number of rows added.
+	 */
+	public int rowCount() {
+		return rowCount;
+	}
+
+
+	/**
+	 * Build a new graph of the rows.
+	 */
+	public WeightedGraph<T> build() {
+		WeightedGraph<T> graph = new WeightedGraph<>();
+		addTo( graph );
+		return graph;
+	}
+
+
+	/**
+	 * Build a snapshot of the rows directly, without a {@link WeightedGraph} in
+	 * between. Nodes are indexed in the order they first came in, and the snapshot
+	 * has no source graph.
+	 */
+	public CompactGraph<T> buildSnapshot() {
+		return ArrayCompactGraph.of( items, indices, keys, weights, edgeCount );
+	}
+
+
+	/**
+	 * Add the rows to a graph, as if by {@link WeightedGraph#addEdge(Node, Node, int)}
+	 * for each one, but bumping the version once. Conveyors the graph already has are
+	 * merged the same way.
+	 */
+	public void addTo( WeightedGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+
+		boolean empty = graph.nodes().isEmpty();
+		List<Node<T>> nodes = new ArrayList<>( items.size() );
+		for ( T item : items ) {
+			nodes.add( graph.addNode( new Node<>( item ) ) );
+		}
+
+		for ( int edge = 0; edge < edgeCount; edge++ ) {
+			Node<T> first = nodes.get( (int) ( keys[edge] >>> 32 ) );
+			Node<T> second = nodes.get( (int) keys[edge] );
+			if ( empty ) {
+				graph.addNodeEdge( new WeightedEdge<>( first, second, weights[edge] ) );
+			}
+			else {
+				graph.addEdge( first, second, weights[edge] );
+			}
+		}
+		graph.bumpVersion();
+	}
+
+
+	private int indexOf( T item ) {
+		Object id = Node.idOf( item );
+		Integer index = indices.get( id );
+		if ( index == null ) {
+			index = items.size();
+			indices.put( id, index );
+			items.add( item );
+		}
+		return index;
+	}
+
+	private int append( long key, int weight ) {
+		if ( edgeCount == keys.length ) {
+			keys = Arrays.copyOf( keys, edgeCount * 2 );
+			weights = Arrays.copyOf( weights, edgeCount * 2 );
+		}
+		keys[edgeCount] = key;
+		weights[edgeCount] = weight;
+		return edgeCount++;
+	}
+
+	private void rehash( int size ) {
+		table = new int[size];
+		int mask = size - 1;
+		for ( int edge = 0; edge < edgeCount; edge++ ) {
+			int bucket = hash( keys[edge] ) & mask;
+			while ( table[bucket] != 0 ) {
+				bucket = ( bucket + 1 ) & mask;
+			}
+			table[bucket] = edge + 1;
+		}
+	}
+
+	private static long pack( int low, int high ) {
+		return ( (long) low << 32 ) | ( high & 0xffffffffL );
+	}
+
+	//	mix both halves, node numbers are small and sequential
+	private static int hash( long key ) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) ( h ^ ( h >>> 32 ) );
+	}
+
+}
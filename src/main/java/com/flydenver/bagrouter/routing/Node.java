@@ -28,7 +28,9 @@ package com.flydenver.bagrouter.routing;
 import com.flydenver.bagrouter.domain.Identifiable;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 
@@ -40,7 +42,8 @@ import java.util.Set;
  */
 public class Node<T> {
 
-	private final Set<Edge<T>> edges = new HashSet<>( 10 );
+	//	created with the first edge, so decorators and lookup keys don't carry an empty set
+	private Set<Edge<T>> edges;
 	private final Object nodeId;
 	private final T nodeItem;
 
@@ -54,16 +57,23 @@ public class Node<T> {
 		}
 
 		this.nodeItem = nodeItem;
-		nodeId = nodeItem instanceof Identifiable ? ((Identifiable<?>) nodeItem).getId() : nodeItem.toString();
+		nodeId = idOf( nodeItem );
+	}
+
+
+	//	the id a node for this item gets
+	static Object idOf( Object nodeItem ) {
+		return nodeItem instanceof Identifiable ? ((Identifiable<?>) nodeItem).getId() : nodeItem.toString();
 	}
 
 	/**
 	 * Add an edge connected to this node.
 	 */
 	public <E extends Edge<T>> void addEdge( E edge ) {
-		if ( ! edges.contains( edge ) ) {
-			edges.add( edge );
+		if ( edges == null ) {
+			edges = new HashSet<>( 10 );
 		}
+		edges.add( edge );
 	}
 
 
@@ -71,7 +81,7 @@ public class Node<T> {
 	 * Get the attached edges.
 	 */
 	public Collection<Edge<T>> getEdges() {
-		return edges;
+		return edges == null ? Collections.emptySet() : edges;
 	}
 
 
@@ -107,4 +117,10 @@ public class Node<T> {
 				getNodeId().equals( ((Node)o).getNodeId() );
 	}
 
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode( getNodeId() );
+	}
+
 }
@@ -32,7 +32,8 @@ package com.flydenver.bagrouter.routing;
 public class WeightedEdge<T> implements Edge<T>, Comparable<WeightedEdge<T>> {
 	private final Node<T> firstNode;
 	private final Node<T> secondNode;
-	private final int weight;
+	private volatile int weight;
+	private volatile boolean enabled = true;
 
 
 	/**
@@ -47,11 +48,11 @@ public class WeightedEdge<T> implements Edge<T>, Comparable<WeightedEdge<T>> {
 		}
 
 		this.weight = weight;
-		
 		this.firstNode = firstNode;
-		this.firstNode.addEdge( this );
-
 		this.secondNode = secondNode;
+
+		//	both nodes set first, they're part of the hash
+		this.firstNode.addEdge( this );
 		this.secondNode.addEdge( this );
 	}
 
@@ -62,6 +63,25 @@ public class WeightedEdge<T> implements Edge<T>, Comparable<WeightedEdge<T>> {
 	}
 
 
+	//	changed through the graph, so the graph version follows
+	void setWeight( int weight ) {
+		if ( weight < 0 ) { throw new IllegalArgumentException( "Weight must not be negative" ); }
+		this.weight = weight;
+	}
+
+
+	/** Disabled edges stay in the graph, but searches don't travel them. */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+
+	//	changed through the graph, so the graph version follows
+	void setEnabled( boolean enabled ) {
+		this.enabled = enabled;
+	}
+
+
 	@Override
 	public Node<T> getFirstNode() {
 		return firstNode;
@@ -100,6 +120,13 @@ public class WeightedEdge<T> implements Edge<T>, Comparable<WeightedEdge<T>> {
 	}
 
 
+	//	either way round, like equals
+	@Override
+	public int hashCode() {
+		return getFirstNode().hashCode() + getSecondNode().hashCode();
+	}
+
+
 	@Override
 	public int compareTo( WeightedEdge<T> o ) {
 		return Integer.compare( getWeight(), o.getWeight() );
@@ -25,6 +25,8 @@
 
 package com.flydenver.bagrouter.routing;
 
+import java.util.function.Predicate;
+
 
 /**
  * Implementation of {@link Graph} that uses weighted {@link Edge}s.
@@ -33,33 +35,145 @@ public class WeightedGraph<T> extends Graph<T, WeightedEdge<T>> {
 
 	/**
 	 * Add an edge to the graph derived from the two nodes, and the assigned weight.
+	 * If the nodes are already connected, the existing edge is kept, and takes the
+	 * weight if it's lower; bags only ever ride the faster of parallel belts.
 	 */
 	public void addEdge( Node<T> firstNode, Node<T> secondNode, int weight ) {
 		if ( firstNode == null || secondNode == null ) {
 			throw new IllegalArgumentException( "Null nodes." );
 		}
 
-		if ( ! nodes().containsKey( firstNode.getNodeId() ) ) {
-			nodes().put( firstNode.getNodeId(), firstNode );
+		Node<T> first  = addNode( firstNode );
+		Node<T> second = addNode( secondNode );
+		if ( ! mergeEdge( findEdge( first, second ), weight ) ) {
+			addNodeEdge( new WeightedEdge<>( first, second, weight ) );
+			bumpVersion();
 		}
+	}
+
 
-		if ( ! nodes().containsKey( secondNode.getNodeId() ) ) {
-			nodes().put( secondNode.getNodeId(), secondNode );
+	/**
+	 * Add an edge to the graph. An edge between nodes that are already connected is
+	 * merged into the existing edge, like {@link #addEdge(Node, Node, int)}.
+	 */
+	@Override
+	public void addEdge( WeightedEdge<T> edge ) {
+		//	an edge made on the graph's own nodes already knows about itself
+		Node<T> first = getNode( edge.getFirstNode().getNodeId() );
+		WeightedEdge<T> existing = first == null ? null : findEdge( first, edge.getSecondNode() );
+		if ( ! mergeEdge( existing == edge ? null : existing, edge.getWeight() ) ) {
+			super.addEdge( edge );
 		}
+	}
 
-		Node<T> first  = nodes().get( firstNode.getNodeId() );
-		Node<T> second = nodes().get( secondNode.getNodeId() );
-		WeightedEdge<T> edge = new WeightedEdge<>( first, second, weight );
 
-		first.addEdge( edge );
-		second.addEdge( edge );
+	//	lower an existing edge to the new weight, false if there's no edge
+	private boolean mergeEdge( WeightedEdge<T> existing, int weight ) {
+		if ( existing == null ) {
+			return false;
+		}
+		if ( weight < 0 ) {
+			throw new IllegalArgumentException( "Weight must not be negative" );
+		}
+		if ( weight < existing.getWeight() ) {
+			existing.setWeight( weight );
+			bumpVersion();
+		}
+		return true;
+	}
+
 
-		if ( ! edges().contains( edge ) ) {
-			edges().add( edge );
+	//	edge between one of the graph's nodes and another node, or null
+	private WeightedEdge<T> findEdge( Node<T> first, Node<T> second ) {
+		for ( Edge<T> edge : first.getEdges() ) {
+			if ( edge.getOtherNode( first ).equals( second ) ) {
+				return (WeightedEdge<T>) edge;
+			}
 		}
+		return null;
+	}
 
-		addNodesFromEdge( edge );
 
+	/**
+	 * Close the conveyor between two nodes. The edge stays in the graph and can be
+	 * enabled again, but searches won't travel it.
+	 */
+	public void disableEdge( Node<T> firstNode, Node<T> secondNode ) {
+		updateEdges( firstNode, secondNode, edge -> {
+			if ( ! edge.isEnabled() ) { return false; }
+			edge.setEnabled( false );
+			return true;
+		} );
+	}
+
+
+	/**
+	 * Reopen a closed conveyor between two nodes.
+	 */
+	public void enableEdge( Node<T> firstNode, Node<T> secondNode ) {
+		updateEdges( firstNode, secondNode, edge -> {
+			if ( edge.isEnabled() ) { return false; }
+			edge.setEnabled( true );
+			return true;
+		} );
+	}
+
+
+	/**
+	 * Change the travel time of the conveyor between two nodes.
+	 */
+	public void setEdgeWeight( Node<T> firstNode, Node<T> secondNode, int weight ) {
+		if ( weight < 0 ) {
+			throw new IllegalArgumentException( "Weight must not be negative" );
+		}
+		updateEdges( firstNode, secondNode, edge -> {
+			if ( edge.getWeight() == weight ) { return false; }
+			edge.setWeight( weight );
+			return true;
+		} );
+	}
+
+
+	/**
+	 * Find the edge between two nodes.
+	 * @return the edge, or null if the nodes aren't connected
+	 */
+	public WeightedEdge<T> getEdge( Node<T> firstNode, Node<T> secondNode ) {
+		if ( firstNode == null || secondNode == null ) {
+			throw new IllegalArgumentException( "Null nodes." );
+		}
+
+		Node<T> first = getNode( firstNode.getNodeId() );
+		return first == null ? null : findEdge( first, secondNode );
+	}
+
+
+	//	apply a change to every edge between the nodes, bumping the version once if any changed
+	private void updateEdges( Node<T> firstNode, Node<T> secondNode, Predicate<WeightedEdge<T>> change ) {
+		if ( firstNode == null || secondNode == null ) {
+			throw new IllegalArgumentException( "Null nodes." );
+		}
+
+		Node<T> first = getNode( firstNode.getNodeId() );
+		if ( first == null || getNode( secondNode.getNodeId() ) == null ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+
+		boolean found = false;
+		boolean changed = false;
+		for ( Edge<T> edge : first.getEdges() ) {
+			if ( edge.getOtherNode( first ).equals( secondNode ) ) {
+				found = true;
+				changed |= change.test( (WeightedEdge<T>) edge );
+			}
+		}
+
+		if ( ! found ) {
+			throw new IllegalArgumentException( "Nodes are not connected." );
+		}
+		if ( changed ) {
+			bumpVersion();
+		}
 	}
 
 }
@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Base for search strategies that work on a {@link CompactGraph} snapshot rather
+ * than walking the {@link Node} and edge objects. Searching a {@link WeightedGraph}
+ * directly freezes it for that search, unless state the strategy prepared is on a
+ * snapshot that is still current. The strategy doesn't keep snapshots of its own;
+ * repeated searches should go through {@link SearchableGraph}, which owns one.
+ * Nodes the graph knows are in different components are rejected before searching.
+ *
+ * Per search state lives in a {@link SearchContext} held per thread, so strategies
+ * are safe to share between threads and don't allocate per search beyond the path.
+ */
+public abstract class CompactSearchStrategy<T> implements GraphSearchStrategy<T, WeightedGraph<T>> {
+
+	//	scratch space for searches on the calling thread
+	private final ThreadLocal<SearchContext> contexts = ThreadLocal.withInitial( SearchContext::new );
+
+
+	@Override
+	public NodePath<T> findPath( WeightedGraph<T> graph, Node<T> startNode, Node<T> endNode ) throws SearchRouteException {
+		if ( graph == null || startNode == null || endNode == null ) {
+			throw new IllegalArgumentException( "Cannot search null graph or null nodes." );
+		}
+		if ( graph.isDisconnected( startNode, endNode ) ) {
+			throw SearchRouteException.notConnected( startNode, endNode );
+		}
+		return findPath( snapshotOf( graph ), startNode, endNode );
+	}
+
+
+	/**
+	 * Same as {@link #findPath(WeightedGraph, Node, Node)}, but against an
+	 * already frozen graph.
+	 */
+	public NodePath<T> findPath( CompactGraph<T> graph, Node<T> startNode, Node<T> endNode ) {
+		if ( graph == null || startNode == null || endNode == null ) {
+			throw new IllegalArgumentException( "Cannot search null graph or null nodes." );
+		}
+
+		int start = graph.indexOf( startNode );
+		int end = graph.indexOf( endNode );
+		if ( start < 0 || end < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+		if ( start == end ) {
+			return NodePath.toSelf( graph.getNode( start ) );
+		}
+
+		return findPath( graph, start, end );
+	}
+
+
+	/**
+	 * Search between two dense node indices of the snapshot.
+	 */
+	protected abstract NodePath<T> findPath( CompactGraph<T> graph, int start, int end );
+
+
+	/**
+	 * Get a snapshot for the graph: the prepared one if it is still current, or a new one.
+	 */
+	protected CompactGraph<T> snapshotOf( WeightedGraph<T> graph ) {
+		CompactGraph<T> prepared = preparedSnapshot();
+		return prepared != null && prepared.isSnapshotOf( graph ) ? prepared : CompactGraph.fromGraph( graph );
+	}
+
+
+	/**
+	 * Build whatever the strategy precomputes for the snapshot, so the first search
+	 * doesn't pay for it. Strategies that keep nothing between searches do nothing.
+	 * @throws IllegalArgumentException if the strategy refuses the snapshot
+	 */
+	public void prepare( CompactGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+	}
+
+
+	/**
+	 * Snapshot that the strategy's preprocessed state was built on, or null for
+	 * strategies that keep nothing between searches.
+	 */
+	protected CompactGraph<T> preparedSnapshot() {
+		return null;
+	}
+
+
+	/**
+	 * Get the calling thread's context, reset for a search of the snapshot.
+	 */
+	protected SearchContext searchContext( CompactGraph<T> graph ) {
+		return contexts.get().reset( graph.nodeCount() );
+	}
+
+
+	/**
+	 * Walk the predecessor links back from the end node to build the path. An
+	 * unreachable end node gives the start and end nodes with an infinite distance,
+	 * and a search from a node to itself gives the node twice.
+	 */
+	protected NodePath<T> collectPathNodes( CompactGraph<T> graph, SearchContext context, int start, int end ) {
+		if ( start == end ) {
+			return NodePath.toSelf( graph.getNode( start ) );
+		}
+
+		List<Node<T>> path = new ArrayList<>();
+		int distance = context.distance( end );
+		if ( distance == Integer.MAX_VALUE ) {
+			path.add( graph.getNode( start ) );
+			path.add( graph.getNode( end ) );
+			return new NodePath<>( path, distance );
+		}
+
+		for ( int node = end; node != start; node = context.previous( node ) ) {
+			path.add( graph.getNode( node ) );
+		}
+		path.add( graph.getNode( start ) );
+
+		Collections.reverse( path );
+		return new NodePath<>( path, distance );
+	}
+
+}
@@ -44,7 +44,8 @@ public interface GraphSearchStrategy<T, G extends Graph<T, ? extends Edge<T>>> {
 	 * @param startNode starting {@link Node}
 	 * @param endNode   {@link Node} to search for
 	 * @return the node path starting with startNode, and ending with endNode.
+	 * @throws SearchRouteException if the graph knows the nodes aren't connected
 	 */
-	NodePath<T> findPath( G graph, Node<T> startNode, Node<T> endNode );
+	NodePath<T> findPath( G graph, Node<T> startNode, Node<T> endNode ) throws SearchRouteException;
 
 }
@@ -0,0 +1,195 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search;
+
+import java.util.Arrays;
+
+
+/**
+ * Binary min-heap of dense node indices keyed by an int priority. Every node has
+ * a fixed slot in a position table, so checking membership and decreasing a key
+ * are O(1) and O(log n), instead of the O(n) remove that {@link java.util.PriorityQueue}
+ * needs to re-prioritize an entry.
+ */
+public class IndexedMinHeap {
+
+	private final int[] heap;
+	private final int[] position;
+	private final int[] keys;
+	private int size;
+
+
+	/**
+	 * Create a heap for node indices {@code 0 .. capacity - 1}.
+	 */
+	public IndexedMinHeap( int capacity ) {
+		if ( capacity < 0 ) {
+			throw new IllegalArgumentException( "Capacity must not be negative" );
+		}
+		heap = new int[capacity];
+		keys = new int[capacity];
+		position = new int[capacity];
+		Arrays.fill( position, -1 );
+	}
+
+
+	/**
+	 * Number of node indices the heap can hold.
+	 */
+	public int capacity() {
+		return heap.length;
+	}
+
+
+	/**
+	 * Number of queued nodes.
+	 */
+	public int size() {
+		return size;
+	}
+
+
+	/**
+	 * Check if nothing is queued.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	/**
+	 * Check if the node is currently queued.
+	 */
+	public boolean contains( int node ) {
+		return position[node] >= 0;
+	}
+
+
+	/**
+	 * Key of a queued node.
+	 */
+	public int key( int node ) {
+		return keys[node];
+	}
+
+
+	/**
+	 * Smallest key in the heap. The heap must not be empty.
+	 */
+	public int minKey() {
+		return keys[heap[0]];
+	}
+
+
+	/**
+	 * Node with the smallest key. The heap must not be empty.
+	 */
+	public int peek() {
+		return heap[0];
+	}
+
+
+	/**
+	 * Queue a node, or lower its key if it is already queued with a larger one.
+	 * @return true if the heap changed
+	 */
+	public boolean insertOrDecrease( int node, int key ) {
+		if ( position[node] < 0 ) {
+			keys[node] = key;
+			position[node] = size;
+			heap[size] = node;
+			siftUp( size++ );
+			return true;
+		}
+		if ( key < keys[node] ) {
+			keys[node] = key;
+			siftUp( position[node] );
+			return true;
+		}
+		return false;
+	}
+
+
+	/**
+	 * Remove and return the node with the smallest key.
+	 */
+	public int poll() {
+		int top = heap[0];
+		position[top] = -1;
+		if ( --size > 0 ) {
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown( 0 );
+		}
+		return top;
+	}
+
+
+	/**
+	 * Empty the heap. This costs the number of nodes still queued, not the capacity.
+	 */
+	public void clear() {
+		for ( int i = 0; i < size; i++ ) {
+			position[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+
+	private void siftUp( int at ) {
+		int node = heap[at];
+		int key = keys[node];
+		while ( at > 0 ) {
+			int parent = ( at - 1 ) >>> 1;
+			if ( keys[heap[parent]] <= key ) { break; }
+			heap[at] = heap[parent];
+			position[heap[at]] = at;
+			at = parent;
+		}
+		heap[at] = node;
+		position[node] = at;
+	}
+
+
+	private void siftDown( int at ) {
+		int node = heap[at];
+		int key = keys[node];
+		int half = size >>> 1;
+		while ( at < half ) {
+			int child = ( at << 1 ) + 1;
+			if ( child + 1 < size && keys[heap[child + 1]] < keys[heap[child]] ) {
+				child++;
+			}
+			if ( key <= keys[heap[child]] ) { break; }
+			heap[at] = heap[child];
+			position[heap[at]] = at;
+			at = child;
+		}
+		heap[at] = node;
+		position[node] = at;
+	}
+
+}
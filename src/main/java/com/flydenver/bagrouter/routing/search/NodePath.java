@@ -27,16 +27,23 @@ package com.flydenver.bagrouter.routing.search;
 
 import com.flydenver.bagrouter.routing.Node;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 
 /**
  * Just a container for a collection of nodes that represent
  * an optimal path.
+ *
+ * A {@link #readOnly()} path can't be added to or have its distance set, so it
+ * can be shared, such as from a cache, without copying.
  */
 public class NodePath<T> {
 
 	private final List<Node<T>> nodePath;
+	private final boolean readOnly;
 	private int totalDistance;
 
 
@@ -46,53 +53,161 @@ public class NodePath<T> {
 	 * @param totalDistance total distance of all nodes
 	 */
 	public NodePath( List<Node<T>> nodes, int totalDistance ) {
+		this( nodes, totalDistance, false );
+	}
+
+
+	//	read only paths wrap their own unmodifiable list
+	private NodePath( List<Node<T>> nodes, int totalDistance, boolean readOnly ) {
 		if ( nodes == null ) {
 			throw new IllegalArgumentException( "Null nodes" );
 		}
 		this.nodePath = nodes;
-		setTotalDistance( totalDistance );
+		this.readOnly = readOnly;
+		this.totalDistance = totalDistance;
+	}
+
+
+	/**
+	 * Create a path that keeps its nodes some other way, and overrides
+	 * {@link #nodes()} and the other node accessors.
+	 */
+	protected NodePath( int totalDistance ) {
+		this.nodePath = null;
+		this.readOnly = false;
+		this.totalDistance = totalDistance;
+	}
+
+
+	/**
+	 * Path for an end node that can't be reached: just the two nodes, with an
+	 * infinite distance.
+	 */
+	public static <T> NodePath<T> unreachable( Node<T> startNode, Node<T> endNode ) {
+		List<Node<T>> nodes = new ArrayList<>( 2 );
+		nodes.add( startNode );
+		nodes.add( endNode );
+		return new NodePath<>( nodes, Integer.MAX_VALUE );
+	}
+
+
+	/**
+	 * Path from a node to itself: the node twice, with no distance, the shape
+	 * searches have always given it.
+	 */
+	public static <T> NodePath<T> toSelf( Node<T> node ) {
+		List<Node<T>> nodes = new ArrayList<>( 2 );
+		nodes.add( node );
+		nodes.add( node );
+		return new NodePath<>( nodes, 0 );
 	}
 
 
 	/**
-	 * Add a node to the path.
+	 * Add a node to the path. Read only paths, such as a {@link TreeNodePath}, can't
+	 * be added to; add to a {@link #copy()} of them instead.
 	 * @param node node to put on the path
+	 * @throws UnsupportedOperationException if the path is read only
 	 */
 	public void add( Node<T> node ) {
 		if ( node == null ) {
 			throw new IllegalArgumentException( "Null node" );
 		}
+		checkWritable();
 
 		nodes().add( node );
 	}
 
 
 	/**
-	 * Iterate over each node in the path.
+	 * Copy of the path with its own node list, so changing one doesn't change the other.
+	 */
+	public NodePath<T> copy() {
+		return new NodePath<>( new ArrayList<>( nodes() ), getTotalDistance() );
+	}
+
+
+	/**
+	 * Check if the path can't be changed.
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+
+	/**
+	 * Read only version of the path: the path itself if it's already read only,
+	 * otherwise a copy.
+	 */
+	public NodePath<T> readOnly() {
+		if ( isReadOnly() ) {
+			return this;
+		}
+		return new NodePath<>( Collections.unmodifiableList( new ArrayList<>( nodes() ) ), getTotalDistance(), true );
+	}
+
+
+	//	changes are refused on shared paths
+	private void checkWritable() {
+		if ( isReadOnly() ) {
+			throw new UnsupportedOperationException( "Read only paths can't be changed." );
+		}
+	}
+
+
+	/**
+	 * Iterate over each node in the path. Any exception from the consumer stops the
+	 * walk and comes back as a {@link SearchRouteException}.
 	 * @param consumer consumer of nodes
 	 */
-	public void forEachNode(NodeConsumer<T> consumer) throws SearchRouteException {
+	public void forEachNode( NodeConsumer<T> consumer ) throws SearchRouteException {
+		List<Node<T>> nodes = nodes();
 		try {
-			nodes().forEach( node -> {
-				try {
-					consumer.acceptNode( node.getNodeItem() );
-				}
-				catch ( Exception e ) {
-					throw new NodeConsumerException( e );
-				}
-			});
+			for ( int i = 0, size = nodes.size(); i < size; i++ ) {
+				consumer.acceptNode( nodes.get( i ).getNodeItem() );
+			}
 		}
-		catch ( NodeConsumerException e ) {
+		catch ( Exception e ) {
 			throw new SearchRouteException( e.getMessage(), e );
 		}
 	}
 
 
+	/**
+	 * Visit each node in the path with a plain loop. Nothing is wrapped or caught,
+	 * so this is the cheap walk for visitors that can't fail.
+	 * @param visitor visitor of nodes
+	 */
+	public void visitNodes( NodeVisitor<T> visitor ) {
+		List<Node<T>> nodes = nodes();
+		if ( nodes instanceof RandomAccess ) {
+			for ( int i = 0, size = nodes.size(); i < size; i++ ) {
+				visitor.visitNode( nodes.get( i ).getNodeItem() );
+			}
+		}
+		else {
+			for ( Node<T> node : nodes ) {
+				visitor.visitNode( node.getNodeItem() );
+			}
+		}
+	}
+
+
+	/**
+	 * Number of nodes on the path.
+	 */
+	public int size() {
+		return nodes().size();
+	}
+
+
 	/**
 	 * Set the total path distance.
 	 * @param totalDistance total path distance
+	 * @throws UnsupportedOperationException if the path is read only
 	 */
 	public void setTotalDistance( int totalDistance ) {
+		checkWritable();
 		this.totalDistance = totalDistance;
 	}
 
@@ -143,9 +258,11 @@ public class NodePath<T> {
 		void acceptNode( T node ) throws Exception;
 	}
 
-	//	here to help bubble exceptions from consumer
-	private static class NodeConsumerException extends RuntimeException {
-		NodeConsumerException( Throwable t ) { super(t); }
+	/**
+	 * Visitor of nodes for iteration that doesn't throw.
+	 */
+	public interface NodeVisitor<T> {
+		void visitNode( T node );
 	}
 
 }
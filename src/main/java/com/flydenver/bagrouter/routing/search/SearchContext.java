@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search;
+
+import java.util.Arrays;
+
+
+/**
+ * Reusable scratch space for one search at a time: distance and predecessor arrays
+ * plus an {@link IndexedMinHeap}. Instead of refilling the arrays before each search,
+ * every entry carries the generation that wrote it, and {@link #reset(int)} just
+ * moves on to the next generation. Entries from older searches then read as
+ * unreached. Strategies keep one context per thread, so a single strategy instance
+ * can serve concurrent callers without allocating per search.
+ */
+public class SearchContext {
+
+	private int[] distance = new int[0];
+	private int[] previous = new int[0];
+	private int[] stamp = new int[0];
+	private int generation;
+	private IndexedMinHeap heap = new IndexedMinHeap( 0 );
+
+
+	/**
+	 * Get ready for a search over {@code nodeCount} nodes. The arrays only grow when
+	 * a larger graph comes along, so this is O(1) for a graph that has been seen.
+	 */
+	public SearchContext reset( int nodeCount ) {
+		if ( stamp.length < nodeCount ) {
+			distance = new int[nodeCount];
+			previous = new int[nodeCount];
+			stamp = new int[nodeCount];
+			heap = new IndexedMinHeap( nodeCount );
+			generation = 0;
+		}
+		heap.clear();
+
+		//	on wrap-around, old stamps could look current again
+		if ( ++generation == 0 ) {
+			Arrays.fill( stamp, 0 );
+			generation = 1;
+		}
+		return this;
+	}
+
+
+	/**
+	 * Check if the node has a distance in the current search.
+	 */
+	public boolean isReached( int node ) {
+		return stamp[node] == generation;
+	}
+
+
+	/**
+	 * Distance of the node, {@code Integer.MAX_VALUE} if it hasn't been reached.
+	 */
+	public int distance( int node ) {
+		return stamp[node] == generation ? distance[node] : Integer.MAX_VALUE;
+	}
+
+
+	/**
+	 * Predecessor of the node, -1 if there isn't one.
+	 */
+	public int previous( int node ) {
+		return stamp[node] == generation ? previous[node] : -1;
+	}
+
+
+	/**
+	 * Record a distance and predecessor for the node.
+	 */
+	public void update( int node, int nodeDistance, int nodePrevious ) {
+		distance[node] = nodeDistance;
+		previous[node] = nodePrevious;
+		stamp[node] = generation;
+	}
+
+
+	/**
+	 * Heap for the current search, emptied by {@link #reset(int)}.
+	 */
+	public IndexedMinHeap heap() {
+		return heap;
+	}
+
+}
@@ -25,6 +25,7 @@
 
 package com.flydenver.bagrouter.routing.search;
 
+import com.flydenver.bagrouter.routing.Node;
 import com.flydenver.bagrouter.routing.RoutingException;
 
 
@@ -36,4 +37,9 @@ public class SearchRouteException extends RoutingException {
 
 	public SearchRouteException( String message ) { super(message); }
 	public SearchRouteException( String message, Throwable t ) { super(message, t); }
+
+	/** Rejection of a search between nodes in different components. */
+	public static SearchRouteException notConnected( Node<?> startNode, Node<?> endNode ) {
+		return new SearchRouteException( "No route from " + startNode.getNodeId() + " to " + endNode.getNodeId() + ", they are not connected." );
+	}
 }
@@ -27,6 +27,8 @@ package com.flydenver.bagrouter.routing.search;
 
 import com.flydenver.bagrouter.routing.Node;
 
+import java.util.List;
+
 
 /**
  * Identify an object as being searchable. The object should be
@@ -41,7 +43,19 @@ public interface Searchable<T> {
 	 * @param startNode node from where to start the search
 	 * @param endNode destination node to search for
 	 * @return the node path starting with startNode, and ending with endNode.
+	 * @throws SearchRouteException if the graph knows the nodes aren't connected
+	 */
+	NodePath<T> findOptimalPath( Node<T> startNode, Node<T> endNode ) throws SearchRouteException;
+
+	/**
+	 * Search the graph for the {@code k} shortest paths between nodes that visit no
+	 * node twice, shortest first. There may be fewer than {@code k} of them.
+	 *
+	 * @param startNode node from where to start the search
+	 * @param endNode destination node to search for
+	 * @param k most paths to find
+	 * @return the node paths starting with startNode, and ending with endNode.
 	 */
-	NodePath<T> findOptimalPath( Node<T> startNode, Node<T> endNode );
+	List<NodePath<T>> findAlternatePaths( Node<T> startNode, Node<T> endNode, int k );
 
 }
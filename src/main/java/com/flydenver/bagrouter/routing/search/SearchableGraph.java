@@ -25,22 +25,36 @@
 
 package com.flydenver.bagrouter.routing.search;
 
+import com.flydenver.bagrouter.routing.CompactGraph;
 import com.flydenver.bagrouter.routing.Node;
 import com.flydenver.bagrouter.routing.WeightedEdge;
 import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.cache.RouteCache;
+import com.flydenver.bagrouter.routing.search.ksp.YenKShortestPaths;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 
 /**
  * Weighted graph decorator to add searching.
+ *
+ * It can also search a fixed {@link CompactGraph} with no object graph behind it,
+ * such as a {@link com.flydenver.bagrouter.routing.store.BufferGraph} built from
+ * conveyor rows. That graph can't be changed, only compact search strategies can
+ * search it, and its nodes can't be listed as a map or as edges.
  */
 public class SearchableGraph<T> extends WeightedGraph<T> implements Searchable<T> {
 
 	private final WeightedGraph<T> graph;
 	private GraphSearchStrategy<T, WeightedGraph<T>> searchDelegate;
+	private volatile CompactGraph<T> snapshot;
+	private Function<WeightedGraph<T>, CompactGraph<T>> snapshotFactory = CompactGraph::fromGraph;
+	private RouteCache<T> routeCache;
+	private final YenKShortestPaths<T> alternatePaths = new YenKShortestPaths<>();
 
 
 	/**
@@ -56,6 +70,20 @@ public class SearchableGraph<T> extends WeightedGraph<T> implements Searchable<T
 	}
 
 
+	/**
+	 * Search a fixed snapshot that has no graph behind it. {@code snapshot} must not
+	 * be null.
+	 * @param snapshot snapshot to search
+	 */
+	public SearchableGraph( CompactGraph<T> snapshot ) {
+		if ( snapshot == null ) {
+			throw new IllegalArgumentException( "Null snapshot" );
+		}
+		this.graph = null;
+		this.snapshot = snapshot;
+	}
+
+
 	/**
 	 * Set the search strategy to be used.
 	 */
@@ -72,8 +100,71 @@ public class SearchableGraph<T> extends WeightedGraph<T> implements Searchable<T
 	}
 
 
+	/**
+	 * Put a cache in front of the search strategy, or null for none. Paths are
+	 * cached against the graph version, so changing the graph invalidates them.
+	 */
+	public void setRouteCache( RouteCache<T> routeCache ) {
+		this.routeCache = routeCache;
+	}
+
+
+	/**
+	 * Getter for the route cache.
+	 */
+	public RouteCache<T> getRouteCache() {
+		return routeCache;
+	}
+
+
+	/**
+	 * Set how snapshots are taken, {@link CompactGraph#fromGraph(WeightedGraph)} by
+	 * default. Something like {@code g -> BufferGraph.allocateDirect( g, TerminalGate::new )}
+	 * keeps them off the heap.
+	 */
+	public void setSnapshotFactory( Function<WeightedGraph<T>, CompactGraph<T>> snapshotFactory ) {
+		if ( snapshotFactory == null ) {
+			throw new IllegalArgumentException( "Null snapshot factory" );
+		}
+		graph();
+		this.snapshotFactory = snapshotFactory;
+		this.snapshot = null;
+	}
+
+
+	/**
+	 * Get a frozen {@link CompactGraph} copy of the wrapped graph. The copy is
+	 * kept and shared between searches until the graph changes. A fixed snapshot
+	 * is always current.
+	 */
+	public CompactGraph<T> snapshot() {
+		CompactGraph<T> current = snapshot;
+		if ( graph != null && ( current == null || ! current.isSnapshotOf( graph ) ) ) {
+			current = snapshotFactory.apply( graph );
+			snapshot = current;
+		}
+		return current;
+	}
+
+
+	/**
+	 * Have the search strategy build what it precomputes on the current snapshot,
+	 * ahead of the first search.
+	 * @throws IllegalArgumentException if the strategy refuses the graph
+	 */
+	public void prepareSearch() {
+		if ( getSearchDelegate() instanceof CompactSearchStrategy ) {
+			((CompactSearchStrategy<T>) getSearchDelegate()).prepare( snapshot() );
+		}
+	}
+
+
+	/**
+	 * Nodes that are in different components of the graph are rejected up front,
+	 * without searching or touching the cache.
+	 */
 	@Override
-	public NodePath<T> findOptimalPath( Node<T> startNode, Node<T> endNode ) {
+	public NodePath<T> findOptimalPath( Node<T> startNode, Node<T> endNode ) throws SearchRouteException {
 		if ( getSearchDelegate() == null ) {
 			throw new IllegalArgumentException( "Search strategy not set" );
 		}
@@ -82,44 +173,151 @@ public class SearchableGraph<T> extends WeightedGraph<T> implements Searchable<T
 			throw new IllegalArgumentException( "Cannot search null nodes." );
 		}
 
-		//	now delegate the searching
+		if ( isDisconnected( startNode, endNode ) ) {
+			throw SearchRouteException.notConnected( startNode, endNode );
+		}
+
+		RouteCache<T> cache = getRouteCache();
+		if ( cache == null ) {
+			return search( startNode, endNode );
+		}
+
+		//	read the version first, so a change during the search leaves a stale entry
+		long version = getVersion();
+		NodePath<T> path = cache.get( startNode.getNodeId(), endNode.getNodeId(), version );
+		if ( path == null ) {
+			path = search( startNode, endNode );
+			cache.put( startNode.getNodeId(), endNode.getNodeId(), version, path );
+		}
+		return path;
+	}
+
+
+	/**
+	 * Find the alternates with Yen's algorithm on the snapshot. This doesn't depend on
+	 * the search strategy, and isn't cached.
+	 */
+	@Override
+	public List<NodePath<T>> findAlternatePaths( Node<T> startNode, Node<T> endNode, int k ) {
+		if ( startNode == null || endNode == null ) {
+			throw new IllegalArgumentException( "Cannot search null nodes." );
+		}
+		return alternatePaths.findPaths( snapshot(), startNode, endNode, k );
+	}
+
+
+	//	now delegate the searching, using the snapshot if the strategy can
+	private NodePath<T> search( Node<T> startNode, Node<T> endNode ) throws SearchRouteException {
+		if ( getSearchDelegate() instanceof CompactSearchStrategy ) {
+			return ((CompactSearchStrategy<T>) getSearchDelegate()).findPath( snapshot(), startNode, endNode );
+		}
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Only compact search strategies can search a fixed snapshot." );
+		}
 		return getSearchDelegate().findPath( graph, startNode, endNode );
 	}
 
 
+	//	the wrapped graph, for the operations a fixed snapshot can't do
+	private WeightedGraph<T> graph() {
+		if ( graph == null ) {
+			throw new UnsupportedOperationException( "Searching a fixed snapshot, which has no graph to change or list." );
+		}
+		return graph;
+	}
+
+
 	@Override
 	public void addEdge( WeightedEdge<T> edge ) {
-		graph.addEdge( edge );
+		graph().addEdge( edge );
 	}
 
 	@Override
 	public void addEdge( Node<T> first, Node<T> second, int weight ) {
-		graph.addEdge( first, second, weight );
+		graph().addEdge( first, second, weight );
+	}
+
+	@Override
+	public void disableEdge( Node<T> firstNode, Node<T> secondNode ) {
+		graph().disableEdge( firstNode, secondNode );
+	}
+
+	@Override
+	public void enableEdge( Node<T> firstNode, Node<T> secondNode ) {
+		graph().enableEdge( firstNode, secondNode );
+	}
+
+	@Override
+	public void setEdgeWeight( Node<T> firstNode, Node<T> secondNode, int weight ) {
+		graph().setEdgeWeight( firstNode, secondNode, weight );
+	}
+
+	@Override
+	public WeightedEdge<T> getEdge( Node<T> firstNode, Node<T> secondNode ) {
+		return graph().getEdge( firstNode, secondNode );
 	}
 
 	@Override
 	public Collection<WeightedEdge<T>> edges() {
-		return graph.edges();
+		return graph().edges();
 	}
 
 	@Override
 	public void forEachNode( Consumer<Node<T>> consumer ) {
-		graph.forEachNode( consumer );
+		if ( graph != null ) {
+			graph.forEachNode( consumer );
+			return;
+		}
+		for ( int index = 0; index < snapshot.nodeCount(); index++ ) {
+			consumer.accept( snapshot.getNode( index ) );
+		}
+	}
+
+	@Override
+	public boolean isConnected( Node<T> firstNode, Node<T> secondNode ) {
+		if ( graph != null ) {
+			return graph.isConnected( firstNode, secondNode );
+		}
+		int first = firstNode == null ? -1 : snapshot.indexOf( firstNode );
+		int second = secondNode == null ? -1 : snapshot.indexOf( secondNode );
+		return first >= 0 && second >= 0 && ! snapshot.isDisconnected( first, second );
+	}
+
+	@Override
+	public boolean isDisconnected( Node<T> firstNode, Node<T> secondNode ) {
+		if ( graph != null ) {
+			return graph.isDisconnected( firstNode, secondNode );
+		}
+		int first = firstNode == null ? -1 : snapshot.indexOf( firstNode );
+		int second = secondNode == null ? -1 : snapshot.indexOf( secondNode );
+		return first >= 0 && second >= 0 && snapshot.isDisconnected( first, second );
 	}
 
 	@Override
 	public Node<T> getNode( Object nodeId ) {
-		return graph.getNode( nodeId );
+		if ( graph != null ) {
+			return graph.getNode( nodeId );
+		}
+		int index = snapshot.indexOf( nodeId );
+		return index < 0 ? null : snapshot.getNode( index );
 	}
 
 	@Override
 	public Map<Object, Node<T>> nodes() {
-		return graph.nodes();
+		return graph().nodes();
+	}
+
+	@Override
+	public long getVersion() {
+		return graph == null ? 0 : graph.getVersion();
 	}
 
 	@Override
 	public void cleanup() {
-		graph.cleanup();
+		if ( graph != null ) {
+			snapshot = null;
+			graph.cleanup();
+		}
 	}
 
 }
@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+
+import java.util.Arrays;
+
+
+/**
+ * Shortest path tree rooted at one node of a {@link CompactGraph}. Since conveyor
+ * edges are bi-directional, following the parent links from any node walks the
+ * shortest path from that node to the root. One tree rooted at a destination
+ * gate answers every search that ends there.
+ */
+public class ShortestPathTree<T> {
+
+	private final CompactGraph<T> graph;
+	private final int root;
+	private final int[] distance;
+	private final int[] parent;
+
+
+	/**
+	 * Grow a complete tree from the root with Dijkstra's algorithm.
+	 * @param graph snapshot to search
+	 * @param rootNode node that every path in the tree leads to
+	 */
+	public ShortestPathTree( CompactGraph<T> graph, Node<T> rootNode ) {
+		if ( graph == null || rootNode == null ) {
+			throw new IllegalArgumentException( "Null graph or root node." );
+		}
+
+		this.graph = graph;
+		this.root = graph.indexOf( rootNode );
+		if ( root < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+
+		distance = new int[graph.nodeCount()];
+		parent = new int[graph.nodeCount()];
+		Arrays.fill( distance, Integer.MAX_VALUE );
+		Arrays.fill( parent, -1 );
+		grow();
+	}
+
+
+	//	plain Dijkstra without a target, settling every reachable node
+	private void grow() {
+		IndexedMinHeap heap = new IndexedMinHeap( graph.nodeCount() );
+		distance[root] = 0;
+		heap.insertOrDecrease( root, 0 );
+
+		while ( ! heap.isEmpty() ) {
+			int u = heap.poll();
+			int du = distance[u];
+			for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+				int v = graph.edgeTarget( slot );
+				int alt = du + graph.edgeWeight( slot );
+				if ( alt < distance[v] ) {
+					distance[v] = alt;
+					parent[v] = u;
+					heap.insertOrDecrease( v, alt );
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * The snapshot the tree was grown on.
+	 */
+	public CompactGraph<T> getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Dense index of the root node.
+	 */
+	public int getRoot() {
+		return root;
+	}
+
+
+	/**
+	 * Distance from a node to the root, {@code Integer.MAX_VALUE} if unreachable.
+	 */
+	public int distance( int index ) {
+		return distance[index];
+	}
+
+
+	/**
+	 * Next node towards the root, or -1 for the root and unreachable nodes.
+	 */
+	public int parent( int index ) {
+		return parent[index];
+	}
+
+
+	/**
+	 * Get the path from the given node to the root. An unreachable node gives the
+	 * node and the root with an infinite distance, and the root gives itself twice,
+	 * like the other strategies. The path reads its nodes from this tree rather than
+	 * copying them.
+	 */
+	public NodePath<T> pathFrom( Node<T> startNode ) {
+		int start = graph.indexOf( startNode );
+		if ( start < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+		if ( start == root ) {
+			return NodePath.toSelf( graph.getNode( start ) );
+		}
+		return new TreeNodePath<>( this, start );
+	}
+
+}
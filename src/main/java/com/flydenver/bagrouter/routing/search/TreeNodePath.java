@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search;
+
+import com.flydenver.bagrouter.routing.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * {@link NodePath} that is just a start node in a {@link ShortestPathTree}. The
+ * nodes are found by following the tree's parent links when they're asked for,
+ * and not kept, so every route into a destination shares that one tree. Keeping
+ * a route costs a few words instead of a list of its nodes.
+ *
+ * The path is read only.
+ */
+public class TreeNodePath<T> extends NodePath<T> {
+
+	private final ShortestPathTree<T> tree;
+	private final int start;
+
+
+	/**
+	 * Path from a node of the tree to its root.
+	 * @param tree tree the path is in
+	 * @param start dense index of the first node
+	 */
+	public TreeNodePath( ShortestPathTree<T> tree, int start ) {
+		super( distance( tree, start ) );
+		this.tree = tree;
+		this.start = start;
+	}
+
+
+	//	checked before the path is made
+	private static int distance( ShortestPathTree<?> tree, int start ) {
+		if ( tree == null || start < 0 || start >= tree.getGraph().nodeCount() ) {
+			throw new IllegalArgumentException( "Null tree, or start is not in the tree." );
+		}
+		return tree.distance( start );
+	}
+
+
+	/**
+	 * The tree the path is in.
+	 */
+	public ShortestPathTree<T> getTree() {
+		return tree;
+	}
+
+
+	/**
+	 * Dense index of the first node.
+	 */
+	public int getStart() {
+		return start;
+	}
+
+
+	//	dense index of the node after this one, -1 past the end
+	private int next( int node ) {
+		if ( node == tree.getRoot() ) {
+			return -1;
+		}
+		return tree.distance( start ) == Integer.MAX_VALUE ? tree.getRoot() : tree.parent( node );
+	}
+
+
+	@Override
+	public boolean isReadOnly() {
+		return true;
+	}
+
+
+	@Override
+	public void forEachNode( NodeConsumer<T> consumer ) throws SearchRouteException {
+		try {
+			for ( int node = start; node != -1; node = next( node ) ) {
+				consumer.acceptNode( tree.getGraph().getNode( node ).getNodeItem() );
+			}
+		}
+		catch ( Exception e ) {
+			throw new SearchRouteException( e.getMessage(), e );
+		}
+	}
+
+
+	@Override
+	public void visitNodes( NodeVisitor<T> visitor ) {
+		for ( int node = start; node != -1; node = next( node ) ) {
+			visitor.visitNode( tree.getGraph().getNode( node ).getNodeItem() );
+		}
+	}
+
+
+	@Override
+	public int size() {
+		int size = 0;
+		for ( int node = start; node != -1; node = next( node ) ) {
+			size++;
+		}
+		return size;
+	}
+
+
+	/**
+	 * A new list of the path's nodes, built from the tree on every call.
+	 */
+	@Override
+	public List<Node<T>> nodes() {
+		List<Node<T>> nodes = new ArrayList<>();
+		for ( int node = start; node != -1; node = next( node ) ) {
+			nodes.add( tree.getGraph().getNode( node ) );
+		}
+		return nodes;
+	}
+
+
+	/**
+	 * A list path with the same nodes, which can be added to.
+	 */
+	@Override
+	public NodePath<T> copy() {
+		return new NodePath<>( nodes(), getTotalDistance() );
+	}
+
+
+	@Override
+	public Node<T> lastNode() {
+		return tree.getGraph().getNode( tree.getRoot() );
+	}
+
+
+	@Override
+	public Node<T> getNode( int i ) {
+		int node = start;
+		for ( int at = 0; at < i && node != -1; at++ ) {
+			node = next( node );
+		}
+		if ( i < 0 || node == -1 ) {
+			throw new IndexOutOfBoundsException( "Index " + i + " is past the end of the path." );
+		}
+		return tree.getGraph().getNode( node );
+	}
+
+}
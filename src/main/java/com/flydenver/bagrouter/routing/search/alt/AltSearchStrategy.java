@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.alt;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchContext;
+
+
+/**
+ * A* search using landmarks and the triangle inequality (ALT). The heuristic is the
+ * {@link LandmarkIndex} lower bound, which is consistent, so the first time the end
+ * node comes off the heap its distance is exact and the route costs the same as
+ * Dijkstra's. The search is pulled towards the end node and only settles a corridor
+ * of the graph. Landmarks are picked on the first search or with {@link #load(WeightedGraph)}.
+ */
+public class AltSearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	public final static int defaultLandmarkCount = Integer.getInteger( "router.search.alt.landmarks", 8 );
+
+	private final int landmarkCount;
+	private volatile LandmarkIndex<T> landmarks;
+
+
+	public AltSearchStrategy() {
+		this( defaultLandmarkCount );
+	}
+
+	/**
+	 * Create the strategy with a given number of landmarks.
+	 */
+	public AltSearchStrategy( int landmarkCount ) {
+		if ( landmarkCount < 1 ) {
+			throw new IllegalArgumentException( "Need at least one landmark" );
+		}
+		this.landmarkCount = landmarkCount;
+	}
+
+
+	/**
+	 * Pick the landmarks for the graph ahead of the first search.
+	 */
+	public LandmarkIndex<T> load( WeightedGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+		return landmarksFor( snapshotOf( graph ) );
+	}
+
+
+	@Override
+	public void prepare( CompactGraph<T> graph ) {
+		super.prepare( graph );
+		landmarksFor( graph );
+	}
+
+
+	@Override
+	protected CompactGraph<T> preparedSnapshot() {
+		LandmarkIndex<T> current = landmarks;
+		return current == null ? null : current.getGraph();
+	}
+
+
+	@Override
+	protected NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		LandmarkIndex<T> index = landmarksFor( graph );
+		SearchContext context = searchContext( graph );
+		IndexedMinHeap heap = context.heap();
+		context.update( start, 0, -1 );
+		heap.insertOrDecrease( start, index.lowerBound( start, end ) );
+
+		while ( ! heap.isEmpty() ) {
+			int u = heap.poll();
+			if ( u == end ) { break; }
+
+			int du = context.distance( u );
+			for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+				int v = graph.edgeTarget( slot );
+				int uToV = du + graph.edgeWeight( slot );
+				if ( uToV < context.distance( v ) ) {
+					context.update( v, uToV, u );
+					heap.insertOrDecrease( v, uToV + index.lowerBound( v, end ) );
+				}
+			}
+		}
+
+		return collectPathNodes( graph, context, start, end );
+	}
+
+
+	//	only one thread picks landmarks for a new snapshot
+	private LandmarkIndex<T> landmarksFor( CompactGraph<T> graph ) {
+		LandmarkIndex<T> current = landmarks;
+		if ( current == null || current.getGraph() != graph ) {
+			synchronized ( this ) {
+				current = landmarks;
+				if ( current == null || current.getGraph() != graph ) {
+					current = new LandmarkIndex<>( graph, landmarkCount );
+					landmarks = current;
+				}
+			}
+		}
+		return current;
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.alt;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+
+import java.util.Arrays;
+
+
+/**
+ * Distances from a handful of landmark nodes to every node of a {@link CompactGraph}.
+ * By the triangle inequality, {@code |d(L,t) - d(L,v)|} never overestimates the
+ * distance from {@code v} to {@code t}, which gives A* a lower bound without any
+ * coordinates on the gates.
+ *
+ * Landmarks are picked by farthest-point selection. Each new landmark is the node
+ * farthest from all the landmarks picked so far, which spreads them around the
+ * edges of the conveyor system where the bounds are tightest.
+ */
+public class LandmarkIndex<T> {
+
+	private final CompactGraph<T> graph;
+	private final int[] landmarks;
+	private final int[][] distances;
+
+
+	/**
+	 * Pick the landmarks and store their distances.
+	 * @param graph snapshot to index
+	 * @param landmarkCount number of landmarks, capped at the node count
+	 */
+	public LandmarkIndex( CompactGraph<T> graph, int landmarkCount ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+		if ( landmarkCount < 1 ) {
+			throw new IllegalArgumentException( "Need at least one landmark" );
+		}
+
+		this.graph = graph;
+		int count = Math.min( landmarkCount, graph.nodeCount() );
+		landmarks = new int[count];
+		distances = new int[count][];
+
+		//	closest landmark distance for each node, unreachable counts as farthest
+		long[] nearest = new long[graph.nodeCount()];
+		Arrays.fill( nearest, Long.MAX_VALUE );
+
+		//	start from the node farthest from an arbitrary one
+		int next = farthest( distancesFrom( 0 ), null );
+		for ( int i = 0; i < count; i++ ) {
+			landmarks[i] = next;
+			distances[i] = distancesFrom( next );
+			for ( int v = 0; v < nearest.length; v++ ) {
+				nearest[v] = Math.min( nearest[v], distances[i][v] );
+			}
+			next = farthest( null, nearest );
+		}
+	}
+
+
+	//	full tree from one node, keeping only the distances
+	private int[] distancesFrom( int node ) {
+		ShortestPathTree<T> tree = new ShortestPathTree<>( graph, graph.getNode( node ) );
+		int[] dist = new int[graph.nodeCount()];
+		for ( int v = 0; v < dist.length; v++ ) {
+			dist[v] = tree.distance( v );
+		}
+		return dist;
+	}
+
+	//	index of the largest distance in whichever array is given
+	private static int farthest( int[] dist, long[] nearest ) {
+		int best = 0;
+		long bestValue = -1;
+		int length = dist != null ? dist.length : nearest.length;
+		for ( int v = 0; v < length; v++ ) {
+			long value = dist != null ? dist[v] : nearest[v];
+			if ( value > bestValue ) {
+				best = v;
+				bestValue = value;
+			}
+		}
+		return best;
+	}
+
+
+	/**
+	 * The snapshot the landmarks were picked on.
+	 */
+	public CompactGraph<T> getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Number of landmarks.
+	 */
+	public int landmarkCount() {
+		return landmarks.length;
+	}
+
+
+	/**
+	 * Dense index of a landmark node.
+	 */
+	public int landmark( int i ) {
+		return landmarks[i];
+	}
+
+
+	/**
+	 * Lower bound on the distance between two nodes.
+	 */
+	public int lowerBound( int from, int to ) {
+		int bound = 0;
+		for ( int[] dist : distances ) {
+			int dFrom = dist[from];
+			int dTo = dist[to];
+			//	a landmark that can't reach both nodes says nothing
+			if ( dFrom != Integer.MAX_VALUE && dTo != Integer.MAX_VALUE ) {
+				bound = Math.max( bound, Math.abs( dTo - dFrom ) );
+			}
+		}
+		return bound;
+	}
+
+}
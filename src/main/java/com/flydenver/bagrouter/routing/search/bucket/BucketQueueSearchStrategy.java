@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.bucket;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchContext;
+
+
+/**
+ * Dijkstra's algorithm on a monotone bucket queue instead of a comparison heap.
+ * Conveyor travel times are small non-negative ints, so when the largest edge weight
+ * of the snapshot is at most {@link #defaultMaxDialWeight} the search uses Dial's
+ * buckets, and otherwise it falls back to a radix heap. The choice comes from the
+ * weight statistics the {@link CompactGraph} gathers when it is built, and is made
+ * once per snapshot. Each thread keeps its queues and reuses them between searches.
+ */
+public class BucketQueueSearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	public final static int defaultMaxDialWeight = Integer.getInteger( "router.search.bucket.maxDialWeight", 256 );
+
+	private final int maxDialWeight;
+	private final ThreadLocal<Queues> queues = ThreadLocal.withInitial( Queues::new );
+
+
+	public BucketQueueSearchStrategy() {
+		this( defaultMaxDialWeight );
+	}
+
+	/**
+	 * Create the strategy with the largest edge weight that still uses Dial's buckets.
+	 */
+	public BucketQueueSearchStrategy( int maxDialWeight ) {
+		this.maxDialWeight = maxDialWeight;
+	}
+
+
+	/**
+	 * Check if searches on the snapshot would use Dial's buckets.
+	 */
+	public boolean usesDialQueue( CompactGraph<T> graph ) {
+		return graph.maxWeight() <= maxDialWeight;
+	}
+
+
+	@Override
+	protected NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		SearchContext context = searchContext( graph );
+		MonotoneQueue queue = queues.get().queueFor( graph );
+		context.update( start, 0, -1 );
+		queue.add( 0, start );
+
+		while ( ! queue.isEmpty() ) {
+			long entry = queue.poll();
+			int u = (int) entry;
+			int du = (int) ( entry >>> 32 );
+			if ( du > context.distance( u ) ) { continue; }
+			if ( u == end ) { break; }
+
+			for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+				int v = graph.edgeTarget( slot );
+				int uToV = du + graph.edgeWeight( slot );
+				if ( uToV < context.distance( v ) ) {
+					context.update( v, uToV, u );
+					queue.add( uToV, v );
+				}
+			}
+		}
+
+		return collectPathNodes( graph, context, start, end );
+	}
+
+
+
+	//	a thread's queues, and the one picked for the last snapshot it searched
+	private final class Queues {
+
+		private final RadixHeap radixHeap = new RadixHeap();
+		private DialQueue dialQueue;
+		private CompactGraph<?> graph;
+		private MonotoneQueue queue;
+
+		MonotoneQueue queueFor( CompactGraph<T> snapshot ) {
+			if ( snapshot != graph ) {
+				graph = snapshot;
+				queue = radixHeap;
+				if ( usesDialQueue( snapshot ) ) {
+					//	a ring longer than the largest weight still works, so it only grows
+					if ( dialQueue == null || dialQueue.maxWeight() < snapshot.maxWeight() ) {
+						dialQueue = new DialQueue( snapshot.maxWeight() );
+					}
+					queue = dialQueue;
+				}
+			}
+			queue.clear();
+			return queue;
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.bucket;
+
+import java.util.Arrays;
+
+
+/**
+ * Dial's bucket queue. With edge weights of at most {@code C}, every queued key lies
+ * within {@code C} of the last one polled, so {@code C + 1} buckets used as a ring
+ * hold everything and both operations are O(1) amortized.
+ */
+class DialQueue implements MonotoneQueue {
+
+	private final int[][] buckets;
+	private final int[] sizes;
+	private int cursor;
+	private int count;
+
+
+	DialQueue( int maxWeight ) {
+		buckets = new int[maxWeight + 1][4];
+		sizes = new int[maxWeight + 1];
+	}
+
+
+	@Override
+	public void add( int key, int node ) {
+		int bucket = key % buckets.length;
+		if ( sizes[bucket] == buckets[bucket].length ) {
+			buckets[bucket] = Arrays.copyOf( buckets[bucket], sizes[bucket] * 2 );
+		}
+		buckets[bucket][sizes[bucket]++] = node;
+		count++;
+	}
+
+
+	/**
+	 * Largest edge weight the buckets can hold.
+	 */
+	int maxWeight() {
+		return buckets.length - 1;
+	}
+
+
+	@Override
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+
+	@Override
+	public long poll() {
+		while ( sizes[cursor % buckets.length] == 0 ) {
+			cursor++;
+		}
+		int bucket = cursor % buckets.length;
+		count--;
+		return ( (long) cursor << 32 ) | buckets[bucket][--sizes[bucket]];
+	}
+
+
+	@Override
+	public void clear() {
+		Arrays.fill( sizes, 0 );
+		cursor = 0;
+		count = 0;
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.bucket;
+
+/**
+ * Priority queue for searches where keys never drop below the last key taken out,
+ * which holds for Dijkstra's algorithm with non-negative weights. Entries are not
+ * updated in place, so a node can be queued more than once and callers skip the
+ * stale copies.
+ */
+interface MonotoneQueue {
+
+	/**
+	 * Queue a node. The key must not be less than the last key polled.
+	 */
+	void add( int key, int node );
+
+	/**
+	 * Check if nothing is queued.
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Remove the entry with the smallest key, packed as {@code key << 32 | node}.
+	 */
+	long poll();
+
+	/**
+	 * Empty the queue so it can be used for another search.
+	 */
+	void clear();
+
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.bucket;
+
+import java.util.Arrays;
+
+
+/**
+ * Radix heap for monotone int keys. An entry sits in the bucket numbered by the
+ * highest bit where its key differs from the last key polled. When the low buckets
+ * run dry, the smallest key of the first non-empty bucket becomes the new base and
+ * that bucket is spread over the lower ones. Every entry only moves down, at most
+ * 32 times, so the cost doesn't depend on the size of the weights.
+ */
+class RadixHeap implements MonotoneQueue {
+
+	private final long[][] buckets = new long[33][];
+	private final int[] sizes = new int[33];
+	private int last;
+	private int count;
+
+
+	RadixHeap() {
+		for ( int i = 0; i < buckets.length; i++ ) {
+			buckets[i] = new long[4];
+		}
+	}
+
+
+	@Override
+	public void add( int key, int node ) {
+		push( bucketOf( key ), ( (long) key << 32 ) | node );
+		count++;
+	}
+
+
+	@Override
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+
+	@Override
+	public long poll() {
+		if ( sizes[0] == 0 ) {
+			int i = 1;
+			while ( sizes[i] == 0 ) { i++; }
+
+			//	new base is the smallest key in the bucket
+			long[] entries = buckets[i];
+			int size = sizes[i];
+			int min = Integer.MAX_VALUE;
+			for ( int j = 0; j < size; j++ ) {
+				min = Math.min( min, (int) ( entries[j] >>> 32 ) );
+			}
+			last = min;
+
+			sizes[i] = 0;
+			for ( int j = 0; j < size; j++ ) {
+				push( bucketOf( (int) ( entries[j] >>> 32 ) ), entries[j] );
+			}
+		}
+		count--;
+		return buckets[0][--sizes[0]];
+	}
+
+
+	@Override
+	public void clear() {
+		Arrays.fill( sizes, 0 );
+		last = 0;
+		count = 0;
+	}
+
+
+	private int bucketOf( int key ) {
+		return key == last ? 0 : 32 - Integer.numberOfLeadingZeros( key ^ last );
+	}
+
+	private void push( int bucket, long entry ) {
+		if ( sizes[bucket] == buckets[bucket].length ) {
+			buckets[bucket] = Arrays.copyOf( buckets[bucket], sizes[bucket] * 2 );
+		}
+		buckets[bucket][sizes[bucket]++] = entry;
+	}
+
+}
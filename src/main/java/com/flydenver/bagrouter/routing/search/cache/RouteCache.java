@@ -0,0 +1,238 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.cache;
+
+import com.flydenver.bagrouter.routing.search.NodePath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Size bounded cache of found paths, keyed by the start and end node ids. Each
+ * entry is stamped with the graph version it was found on, and an entry from an
+ * older version reads as a miss. The cache is split into segments that each keep
+ * their own least recently used order under their own lock, so concurrent callers
+ * rarely wait on each other.
+ *
+ * Paths are kept {@link NodePath#readOnly() read only}, so every hit hands out the
+ * cached path itself and no caller can change what later callers get.
+ */
+public class RouteCache<T> {
+
+	private final Segment[] segments;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+
+	/**
+	 * Create a cache holding at most {@code maxEntries} paths.
+	 */
+	public RouteCache( int maxEntries ) {
+		if ( maxEntries < 1 ) {
+			throw new IllegalArgumentException( "Cache size must be at least 1" );
+		}
+
+		//	power of two segments of at least 16 entries, so small caches are exact LRU
+		int segmentCount = Integer.highestOneBit( Math.max( 1, Math.min( 16, maxEntries / 16 ) ) );
+		segments = new Segment[segmentCount];
+		for ( int i = 0; i < segmentCount; i++ ) {
+			segments[i] = new Segment( maxEntries / segmentCount, evictions );
+		}
+	}
+
+
+	/**
+	 * Look up a path found on the given graph version.
+	 * @return the read only cached path, or null if there isn't a current one
+	 */
+	@SuppressWarnings( "unchecked" )
+	public NodePath<T> get( Object startId, Object endId, long version ) {
+		RouteKey key = new RouteKey( startId, endId );
+		Segment segment = segmentFor( key );
+		CachedRoute route;
+		synchronized ( segment ) {
+			route = segment.get( key );
+			if ( route != null && route.version != version ) {
+				segment.remove( key );
+				route = null;
+			}
+		}
+
+		if ( route == null ) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return (NodePath<T>) route.path;
+	}
+
+
+	/**
+	 * Store a path found on the given graph version. A path that isn't read only is
+	 * copied first.
+	 */
+	public void put( Object startId, Object endId, long version, NodePath<T> path ) {
+		if ( path == null ) {
+			throw new IllegalArgumentException( "Null path" );
+		}
+
+		RouteKey key = new RouteKey( startId, endId );
+		Segment segment = segmentFor( key );
+		CachedRoute route = new CachedRoute( version, path.readOnly() );
+		synchronized ( segment ) {
+			segment.put( key, route );
+		}
+	}
+
+
+	/**
+	 * Number of cached paths, including ones from older versions not yet dropped.
+	 */
+	public int size() {
+		int size = 0;
+		for ( Segment segment : segments ) {
+			synchronized ( segment ) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+
+	/**
+	 * Drop every cached path. The counters are kept.
+	 */
+	public void clear() {
+		for ( Segment segment : segments ) {
+			synchronized ( segment ) {
+				segment.clear();
+			}
+		}
+	}
+
+
+	/**
+	 * Number of lookups answered from the cache.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+
+	/**
+	 * Number of lookups that found nothing current.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+
+	/**
+	 * Number of paths dropped to stay within the size bound.
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+
+	//	spread the hash so the low bits pick the segment
+	private Segment segmentFor( RouteKey key ) {
+		int h = key.hashCode();
+		h ^= ( h >>> 16 );
+		return segments[h & ( segments.length - 1 )];
+	}
+
+
+	//	one slice of the cache in access order, dropping its eldest entry when full
+	private static final class Segment extends LinkedHashMap<RouteKey, CachedRoute> {
+		private final static long serialVersionUID = 1l;
+
+		private final int capacity;
+		private final LongAdder evictions;
+
+		Segment( int capacity, LongAdder evictions ) {
+			super( 16, 0.75f, true );
+			this.capacity = capacity;
+			this.evictions = evictions;
+		}
+
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<RouteKey, CachedRoute> eldest ) {
+			if ( size() > capacity ) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+
+	//	start and end node ids
+	private static final class RouteKey {
+
+		private final Object startId;
+		private final Object endId;
+		private final int hash;
+
+		RouteKey( Object startId, Object endId ) {
+			if ( startId == null || endId == null ) {
+				throw new IllegalArgumentException( "Null node id" );
+			}
+			this.startId = startId;
+			this.endId = endId;
+			this.hash = 31 * startId.hashCode() + endId.hashCode();
+		}
+
+		@Override
+		public boolean equals( Object o ) {
+			return o instanceof RouteKey &&
+					startId.equals( ((RouteKey) o).startId ) &&
+					endId.equals( ((RouteKey) o).endId );
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+
+	//	path and the graph version it was found on
+	private static final class CachedRoute {
+
+		private final long version;
+		private final NodePath<?> path;
+
+		CachedRoute( long version, NodePath<?> path ) {
+			this.version = version;
+			this.path = path;
+		}
+	}
+
+}
@@ -0,0 +1,314 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.capacity;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.NodePath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Routes bags one after another, booking each bag onto the conveyors of its route,
+ * and making loaded conveyors look slower to the bags that follow. A conveyor's
+ * cost follows the BPR (Bureau of Public Roads) curve
+ * <pre>
+ *     cost = travel_time * ( 1 + alpha * ( load / capacity ) ^ beta )
+ * </pre>
+ * where capacity is the conveyor's bags per minute over the routing horizon. Only
+ * conveyors on a booked route have their cost recomputed, so each bag costs one
+ * search plus its path length. Conveyors without a capacity are never penalized.
+ *
+ * Searches book capacity, so the order of searches matters and they are serialized.
+ * Path distances are plain travel times; the penalties only steer the route choice.
+ * Penalized costs are summed in longs, so heavily saturated conveyors keep costing
+ * more than lightly loaded ones however large the graph is.
+ * Loads start over when the graph changes.
+ */
+public class CapacityAwareSearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	public final static double defaultAlpha = 0.15;
+	public final static double defaultBeta = 4;
+	public final static int defaultHorizonMinutes = Integer.getInteger( "router.search.capacity.horizon", 60 );
+
+	//	costs are fixed point, so small penalties still change the route
+	private static final int costScale = 1000;
+
+	private final double alpha;
+	private final double beta;
+	private final int horizonMinutes;
+	private final List<Capacity> capacities = new ArrayList<>();
+	private Loads loads;
+
+
+	public CapacityAwareSearchStrategy() {
+		this( defaultAlpha, defaultBeta, defaultHorizonMinutes );
+	}
+
+	/**
+	 * Create the strategy with custom BPR parameters.
+	 * @param horizonMinutes minutes of conveyor capacity the bags of one run share
+	 */
+	public CapacityAwareSearchStrategy( double alpha, double beta, int horizonMinutes ) {
+		if ( alpha < 0 || beta < 0 || horizonMinutes < 1 ) {
+			throw new IllegalArgumentException( "BPR parameters must not be negative, and the horizon at least a minute" );
+		}
+		this.alpha = alpha;
+		this.beta = beta;
+		this.horizonMinutes = horizonMinutes;
+	}
+
+
+	/**
+	 * Set the capacity of the conveyor between two nodes. This starts the loads over.
+	 */
+	public synchronized void setCapacity( Node<T> firstNode, Node<T> secondNode, int bagsPerMinute ) {
+		if ( firstNode == null || secondNode == null ) {
+			throw new IllegalArgumentException( "Null nodes." );
+		}
+		if ( bagsPerMinute < 1 ) {
+			throw new IllegalArgumentException( "Capacity must be positive" );
+		}
+		capacities.add( new Capacity( firstNode.getNodeId(), secondNode.getNodeId(), bagsPerMinute ) );
+		loads = null;
+	}
+
+
+	/**
+	 * Number of bags booked on the conveyors between two nodes.
+	 */
+	public synchronized int getLoad( CompactGraph<T> graph, Node<T> firstNode, Node<T> secondNode ) {
+		Loads current = loadsFor( graph );
+		int u = graph.indexOf( firstNode );
+		int v = graph.indexOf( secondNode );
+		if ( u < 0 || v < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+
+		int load = 0;
+		for ( int slot = graph.edgeStart( u ); slot < graph.edgeEnd( u ); slot++ ) {
+			if ( graph.edgeTarget( slot ) == v ) {
+				load += current.load[slot];
+			}
+		}
+		return load;
+	}
+
+
+	/**
+	 * Drop every booking.
+	 */
+	public synchronized void resetLoads() {
+		loads = null;
+	}
+
+
+	@Override
+	protected synchronized NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		Loads current = loadsFor( graph );
+		Search search = current.search;
+		search.reset();
+		search.update( start, 0, -1 );
+		search.heap.add( 0, start );
+
+		while ( ! search.heap.isEmpty() ) {
+			long du = search.heap.minCost();
+			int u = search.heap.poll();
+			if ( du > search.cost( u ) ) { continue; }
+			if ( u == end ) { break; }
+
+			for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+				int v = graph.edgeTarget( slot );
+				long uToV = du + current.cost[slot];
+				if ( uToV < search.cost( v ) ) {
+					search.update( v, uToV, u );
+					search.heap.add( uToV, v );
+				}
+			}
+		}
+
+		List<Node<T>> path = new ArrayList<>();
+		if ( ! search.isReached( end ) ) {
+			path.add( graph.getNode( start ) );
+			path.add( graph.getNode( end ) );
+			return new NodePath<>( path, Integer.MAX_VALUE );
+		}
+
+		//	book the bag on each conveyor, and report the unpenalized travel time
+		int travelTime = 0;
+		for ( int node = end; node != start; node = search.previous[node] ) {
+			int from = search.previous[node];
+			int slot = cheapestSlot( graph, current, from, node );
+			travelTime += graph.edgeWeight( slot );
+			current.book( slot );
+			current.book( cheapestSlot( graph, current, node, from ) );
+			path.add( graph.getNode( node ) );
+		}
+		path.add( graph.getNode( start ) );
+		Collections.reverse( path );
+		return new NodePath<>( path, travelTime );
+	}
+
+
+	//	the slot a search would have taken between two neighbors
+	private int cheapestSlot( CompactGraph<T> graph, Loads current, int u, int v ) {
+		int best = -1;
+		for ( int slot = graph.edgeStart( u ); slot < graph.edgeEnd( u ); slot++ ) {
+			if ( graph.edgeTarget( slot ) == v && ( best < 0 || current.cost[slot] < current.cost[best] ) ) {
+				best = slot;
+			}
+		}
+		return best;
+	}
+
+
+	//	loads belong to one snapshot
+	private Loads loadsFor( CompactGraph<T> graph ) {
+		if ( loads == null || loads.graph != graph ) {
+			loads = new Loads( graph );
+		}
+		return loads;
+	}
+
+
+	//	capacity, load and current cost of every adjacency slot
+	private final class Loads {
+
+		private final CompactGraph<T> graph;
+		private final double[] capacity;
+		private final int[] load;
+		private final long[] cost;
+		private final long maxCost;
+		private final Search search;
+
+		Loads( CompactGraph<T> graph ) {
+			this.graph = graph;
+			capacity = new double[graph.edgeCount()];
+			load = new int[graph.edgeCount()];
+			cost = new long[graph.edgeCount()];
+			search = new Search( graph.nodeCount() );
+
+			//	keep any simple path's cost within a long
+			maxCost = Long.MAX_VALUE / Math.max( 1, graph.nodeCount() );
+
+			Map<Long, Integer> byPair = new HashMap<>( capacities.size() * 2 );
+			for ( Capacity c : capacities ) {
+				int first = graph.indexOf( c.firstId );
+				int second = graph.indexOf( c.secondId );
+				if ( first >= 0 && second >= 0 ) {
+					byPair.put( pairKey( first, second ), c.bagsPerMinute );
+				}
+			}
+
+			for ( int u = 0; u < graph.nodeCount(); u++ ) {
+				for ( int slot = graph.edgeStart( u ); slot < graph.edgeEnd( u ); slot++ ) {
+					Integer bagsPerMinute = byPair.get( pairKey( u, graph.edgeTarget( slot ) ) );
+					capacity[slot] = bagsPerMinute == null ? 0 : (double) bagsPerMinute * horizonMinutes;
+					updateCost( slot );
+				}
+			}
+		}
+
+		void book( int slot ) {
+			load[slot]++;
+			updateCost( slot );
+		}
+
+		private void updateCost( int slot ) {
+			double base = (double) graph.edgeWeight( slot ) * costScale;
+			double penalty = capacity[slot] > 0 ? 1 + alpha * Math.pow( load[slot] / capacity[slot], beta ) : 1;
+			cost[slot] = Math.min( Math.round( base * penalty ), maxCost );
+		}
+	}
+
+
+	//	search state for one snapshot, reused since searches are serialized
+	private static final class Search {
+
+		private final long[] cost;
+		private final int[] previous;
+		private final int[] stamp;
+		private int generation;
+		private final CostHeap heap = new CostHeap();
+
+		Search( int nodeCount ) {
+			cost = new long[nodeCount];
+			previous = new int[nodeCount];
+			stamp = new int[nodeCount];
+		}
+
+		void reset() {
+			heap.clear();
+			if ( ++generation == 0 ) {
+				Arrays.fill( stamp, 0 );
+				generation = 1;
+			}
+		}
+
+		boolean isReached( int node ) {
+			return stamp[node] == generation;
+		}
+
+		long cost( int node ) {
+			return stamp[node] == generation ? cost[node] : Long.MAX_VALUE;
+		}
+
+		void update( int node, long nodeCost, int nodePrevious ) {
+			cost[node] = nodeCost;
+			previous[node] = nodePrevious;
+			stamp[node] = generation;
+		}
+	}
+
+
+	//	same key for both directions
+	private static long pairKey( int u, int v ) {
+		return ( (long) Math.min( u, v ) << 32 ) | Math.max( u, v );
+	}
+
+
+	//	conveyor capacity by node ids
+	private static final class Capacity {
+
+		private final Object firstId;
+		private final Object secondId;
+		private final int bagsPerMinute;
+
+		Capacity( Object firstId, Object secondId, int bagsPerMinute ) {
+			this.firstId = firstId;
+			this.secondId = secondId;
+			this.bagsPerMinute = bagsPerMinute;
+		}
+	}
+
+}
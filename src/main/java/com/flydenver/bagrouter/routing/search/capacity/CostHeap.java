@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.capacity;
+
+import java.util.Arrays;
+
+
+/**
+ * Binary min-heap of nodes keyed by a long cost, for penalized path costs that can
+ * outgrow an int. Entries are not updated in place, so a node can be queued more
+ * than once and callers skip the stale copies. The arrays are kept between searches.
+ */
+final class CostHeap {
+
+	private long[] costs = new long[16];
+	private int[] nodes = new int[16];
+	private int size;
+
+
+	void add( long cost, int node ) {
+		if ( size == costs.length ) {
+			costs = Arrays.copyOf( costs, size * 2 );
+			nodes = Arrays.copyOf( nodes, size * 2 );
+		}
+
+		int at = size++;
+		while ( at > 0 ) {
+			int parent = ( at - 1 ) >>> 1;
+			if ( costs[parent] <= cost ) { break; }
+			costs[at] = costs[parent];
+			nodes[at] = nodes[parent];
+			at = parent;
+		}
+		costs[at] = cost;
+		nodes[at] = node;
+	}
+
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	/**
+	 * Cost of the smallest entry. The heap must not be empty.
+	 */
+	long minCost() {
+		return costs[0];
+	}
+
+
+	/**
+	 * Remove the smallest entry and return its node.
+	 */
+	int poll() {
+		int top = nodes[0];
+		if ( --size > 0 ) {
+			long cost = costs[size];
+			int node = nodes[size];
+			int at = 0;
+			int half = size >>> 1;
+			while ( at < half ) {
+				int child = ( at << 1 ) + 1;
+				if ( child + 1 < size && costs[child + 1] < costs[child] ) {
+					child++;
+				}
+				if ( cost <= costs[child] ) { break; }
+				costs[at] = costs[child];
+				nodes[at] = nodes[child];
+				at = child;
+			}
+			costs[at] = cost;
+			nodes[at] = node;
+		}
+		return top;
+	}
+
+
+	void clear() {
+		size = 0;
+	}
+
+}
@@ -0,0 +1,465 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.ch;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Contraction hierarchy over a {@link CompactGraph}. Preprocessing contracts the
+ * nodes one at a time, least important first, and adds a shortcut edge between two
+ * neighbors whenever the only shortest path between them ran through the contracted
+ * node. A query then only has to search upwards in the hierarchy from both ends,
+ * which touches a few dozen nodes instead of the whole graph. Shortcuts remember the
+ * node they skip, so a route can be unpacked back into the original gates.
+ *
+ * Node importance is the edge difference (shortcuts added less edges removed) plus
+ * the number of contracted neighbors, with lazy updates. Witness searches are
+ * capped at {@link #witnessSettleLimit} settled nodes, which may add a few
+ * unnecessary shortcuts but never loses a shortest path.
+ */
+public class ContractionHierarchy<T> {
+
+	public final static int witnessSettleLimit = 500;
+
+	private final CompactGraph<T> graph;
+	private final int[] rank;
+
+	//	upward edges, each stored at its lower ranked end
+	private final int[] upOffsets;
+	private final int[] upTargets;
+	private final int[] upWeights;
+	private final int[] upMiddles;
+
+	private final int shortcutCount;
+	private final long preprocessMillis;
+	private final LongAdder queryCount = new LongAdder();
+	private final LongAdder settledCount = new LongAdder();
+	private final ThreadLocal<Query> queries = ThreadLocal.withInitial( Query::new );
+
+
+	/**
+	 * Contract the whole graph. This is the offline preprocessing step.
+	 */
+	public ContractionHierarchy( CompactGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+
+		long started = System.currentTimeMillis();
+		this.graph = graph;
+
+		Contractor contractor = new Contractor( graph.nodeCount() );
+		contractor.contractAll();
+
+		this.rank = contractor.rank;
+		this.shortcutCount = contractor.shortcuts;
+
+		int n = graph.nodeCount();
+		upOffsets = new int[n + 1];
+		for ( int u = 0; u < n; u++ ) {
+			upOffsets[u + 1] = upOffsets[u] + contractor.upward[u].length / 3;
+		}
+		upTargets = new int[upOffsets[n]];
+		upWeights = new int[upOffsets[n]];
+		upMiddles = new int[upOffsets[n]];
+		for ( int u = 0; u < n; u++ ) {
+			int[] edges = contractor.upward[u];
+			for ( int i = 0, slot = upOffsets[u]; i < edges.length; i += 3, slot++ ) {
+				upTargets[slot] = edges[i];
+				upWeights[slot] = edges[i + 1];
+				upMiddles[slot] = edges[i + 2];
+			}
+		}
+
+		this.preprocessMillis = System.currentTimeMillis() - started;
+	}
+
+
+	/**
+	 * The snapshot the hierarchy was built on.
+	 */
+	public CompactGraph<T> getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Number of shortcut edges added while contracting.
+	 */
+	public int getShortcutCount() {
+		return shortcutCount;
+	}
+
+
+	/**
+	 * Time taken by preprocessing.
+	 */
+	public long getPreprocessMillis() {
+		return preprocessMillis;
+	}
+
+
+	/**
+	 * Number of queries answered.
+	 */
+	public long getQueryCount() {
+		return queryCount.sum();
+	}
+
+
+	/**
+	 * Average number of nodes settled per query, both directions together.
+	 */
+	public double getAverageSearchSpace() {
+		long queries = queryCount.sum();
+		return queries == 0 ? 0 : (double) settledCount.sum() / queries;
+	}
+
+
+	/**
+	 * Position of a node in the contraction order.
+	 */
+	public int rank( int index ) {
+		return rank[index];
+	}
+
+
+	/**
+	 * Find the shortest path with a bidirectional upward search. The graph is
+	 * bi-directional, so both directions use the same upward edges. The search state
+	 * is reused per thread, so a query only touches the nodes it reaches.
+	 */
+	public NodePath<T> path( int start, int end ) {
+		List<Node<T>> path = new ArrayList<>();
+		path.add( graph.getNode( start ) );
+		if ( start == end ) {
+			queryCount.increment();
+			return new NodePath<>( path, 0 );
+		}
+
+		Query query = queries.get().reset( graph.nodeCount() );
+		SearchContext forward = query.forward;
+		SearchContext backward = query.backward;
+		forward.update( start, 0, -1 );
+		backward.update( end, 0, -1 );
+		forward.heap().insertOrDecrease( start, 0 );
+		backward.heap().insertOrDecrease( end, 0 );
+
+		int best = Integer.MAX_VALUE;
+		int meet = -1;
+		int settled = 0;
+
+		while ( ! forward.heap().isEmpty() || ! backward.heap().isEmpty() ) {
+			int minForward = forward.heap().isEmpty() ? Integer.MAX_VALUE : forward.heap().minKey();
+			int minBackward = backward.heap().isEmpty() ? Integer.MAX_VALUE : backward.heap().minKey();
+			if ( Math.min( minForward, minBackward ) >= best ) { break; }
+
+			boolean isForward = minForward <= minBackward;
+			SearchContext context = isForward ? forward : backward;
+			SearchContext other = isForward ? backward : forward;
+			int[] slots = isForward ? query.forwardSlot : query.backwardSlot;
+
+			int u = context.heap().poll();
+			int du = context.distance( u );
+			settled++;
+			if ( other.isReached( u ) && du + other.distance( u ) < best ) {
+				best = du + other.distance( u );
+				meet = u;
+			}
+
+			for ( int slot = upOffsets[u]; slot < upOffsets[u + 1]; slot++ ) {
+				int v = upTargets[slot];
+				int alt = du + upWeights[slot];
+				if ( alt < context.distance( v ) ) {
+					context.update( v, alt, u );
+					slots[v] = slot;
+					context.heap().insertOrDecrease( v, alt );
+				}
+			}
+		}
+
+		queryCount.increment();
+		settledCount.add( settled );
+
+		if ( meet < 0 ) {
+			path.add( graph.getNode( end ) );
+			return new NodePath<>( path, Integer.MAX_VALUE );
+		}
+
+		//	up from the start to the meeting node, then down to the end
+		int hops = 0;
+		for ( int v = meet; v != start; v = forward.previous( v ) ) {
+			hops++;
+		}
+		int[] chain = new int[hops];
+		for ( int v = meet, i = 0; v != start; v = forward.previous( v ) ) {
+			chain[i++] = v;
+		}
+		for ( int i = hops - 1, from = start; i >= 0; from = chain[i--] ) {
+			unpack( from, chain[i], upMiddles[query.forwardSlot[chain[i]]], path );
+		}
+		for ( int v = meet; v != end; v = backward.previous( v ) ) {
+			unpack( v, backward.previous( v ), upMiddles[query.backwardSlot[v]], path );
+		}
+
+		return new NodePath<>( path, best );
+	}
+
+
+	//	per thread query state: a context for each direction, plus the hierarchy edge
+	//	each node was reached by. Slots are only read for nodes the current query
+	//	reached, so they are never cleared.
+	private static final class Query {
+
+		private final SearchContext forward = new SearchContext();
+		private final SearchContext backward = new SearchContext();
+		private int[] forwardSlot = new int[0];
+		private int[] backwardSlot = new int[0];
+
+		Query reset( int nodeCount ) {
+			forward.reset( nodeCount );
+			backward.reset( nodeCount );
+			if ( forwardSlot.length < nodeCount ) {
+				forwardSlot = new int[nodeCount];
+				backwardSlot = new int[nodeCount];
+			}
+			return this;
+		}
+	}
+
+
+	//	add the nodes after 'from' up to and including 'to' for one hierarchy edge
+	private void unpack( int from, int to, int middle, List<Node<T>> path ) {
+		if ( middle < 0 ) {
+			path.add( graph.getNode( to ) );
+			return;
+		}
+		unpack( from, middle, middleOf( middle, from ), path );
+		unpack( middle, to, middleOf( middle, to ), path );
+	}
+
+	//	the skipped node is always lower ranked than both ends of a shortcut
+	private int middleOf( int lower, int higher ) {
+		for ( int slot = upOffsets[lower]; slot < upOffsets[lower + 1]; slot++ ) {
+			if ( upTargets[slot] == higher ) {
+				return upMiddles[slot];
+			}
+		}
+		throw new IllegalStateException( "Missing hierarchy edge " + lower + "-" + higher );
+	}
+
+
+	@Override
+	public String toString() {
+		return "ContractionHierarchy[nodes=" + graph.nodeCount() +
+				", shortcuts=" + shortcutCount +
+				", preprocessMillis=" + preprocessMillis +
+				", queries=" + getQueryCount() +
+				", avgSearchSpace=" + getAverageSearchSpace() + "]";
+	}
+
+
+	//	working state that is only needed while contracting
+	private final class Contractor {
+
+		private final List<Map<Integer, int[]>> adjacency;
+		private final int[] contractedNeighbors;
+		private final int[] rank;
+		private final int[][] upward;
+		private int shortcuts;
+
+		//	witness search state, reset through the touched list
+		private final int[] witness;
+		private final int[] touched;
+		private int touchedCount;
+		private final IndexedMinHeap witnessHeap;
+
+
+		Contractor( int n ) {
+			adjacency = new ArrayList<>( n );
+			contractedNeighbors = new int[n];
+			rank = new int[n];
+			upward = new int[n][];
+			witness = new int[n];
+			touched = new int[n];
+			witnessHeap = new IndexedMinHeap( n );
+			Arrays.fill( witness, Integer.MAX_VALUE );
+
+			//	parallel belts collapse to the shortest one; each entry is { weight, middle }
+			for ( int u = 0; u < n; u++ ) {
+				Map<Integer, int[]> edges = new HashMap<>();
+				for ( int slot = graph.edgeStart( u ); slot < graph.edgeEnd( u ); slot++ ) {
+					int[] existing = edges.get( graph.edgeTarget( slot ) );
+					if ( existing == null || graph.edgeWeight( slot ) < existing[0] ) {
+						edges.put( graph.edgeTarget( slot ), new int[]{ graph.edgeWeight( slot ), -1 } );
+					}
+				}
+				adjacency.add( edges );
+			}
+		}
+
+
+		void contractAll() {
+			int n = adjacency.size();
+			IndexedMinHeap queue = new IndexedMinHeap( n );
+			for ( int u = 0; u < n; u++ ) {
+				queue.insertOrDecrease( u, priority( u ) );
+			}
+
+			int order = 0;
+			while ( ! queue.isEmpty() ) {
+				int u = queue.poll();
+				int priority = priority( u );
+				if ( ! queue.isEmpty() && priority > queue.minKey() ) {
+					queue.insertOrDecrease( u, priority );
+					continue;
+				}
+				rank[u] = order++;
+				contract( u );
+			}
+		}
+
+
+		private int priority( int u ) {
+			return shortcutsFor( u, false ) - adjacency.get( u ).size() + contractedNeighbors[u];
+		}
+
+
+		private void contract( int u ) {
+			Map<Integer, int[]> edges = adjacency.get( u );
+
+			//	whatever is still attached is higher in the hierarchy
+			int[] up = new int[edges.size() * 3];
+			int i = 0;
+			for ( Map.Entry<Integer, int[]> edge : edges.entrySet() ) {
+				up[i++] = edge.getKey();
+				up[i++] = edge.getValue()[0];
+				up[i++] = edge.getValue()[1];
+			}
+			upward[u] = up;
+
+			shortcuts += shortcutsFor( u, true );
+
+			for ( Integer v : edges.keySet() ) {
+				adjacency.get( v ).remove( u );
+				contractedNeighbors[v]++;
+			}
+			adjacency.set( u, null );
+		}
+
+
+		//	count, and optionally add, the shortcuts needed to remove u
+		private int shortcutsFor( int u, boolean add ) {
+			Map<Integer, int[]> edges = adjacency.get( u );
+			int size = edges.size();
+			int[] neighbors = new int[size];
+			int[] weights = new int[size];
+			int k = 0;
+			for ( Map.Entry<Integer, int[]> edge : edges.entrySet() ) {
+				neighbors[k] = edge.getKey();
+				weights[k++] = edge.getValue()[0];
+			}
+
+			int count = 0;
+			for ( int i = 0; i < size - 1; i++ ) {
+				int limit = 0;
+				for ( int j = i + 1; j < size; j++ ) {
+					limit = Math.max( limit, weights[i] + weights[j] );
+				}
+
+				witnessSearch( neighbors[i], u, limit );
+				for ( int j = i + 1; j < size; j++ ) {
+					int via = weights[i] + weights[j];
+					if ( witness[neighbors[j]] > via ) {
+						count++;
+						if ( add ) {
+							addShortcut( neighbors[i], neighbors[j], via, u );
+						}
+					}
+				}
+				resetWitness();
+			}
+			return count;
+		}
+
+
+		private void addShortcut( int v, int w, int weight, int middle ) {
+			int[] existing = adjacency.get( v ).get( w );
+			if ( existing == null || weight < existing[0] ) {
+				int[] edge = { weight, middle };
+				adjacency.get( v ).put( w, edge );
+				adjacency.get( w ).put( v, edge );
+			}
+		}
+
+
+		//	bounded Dijkstra from source that avoids the node being contracted
+		private void witnessSearch( int source, int avoid, int limit ) {
+			witness[source] = 0;
+			touched[touchedCount++] = source;
+			witnessHeap.insertOrDecrease( source, 0 );
+
+			int settled = 0;
+			while ( ! witnessHeap.isEmpty() && witnessHeap.minKey() <= limit && settled++ < witnessSettleLimit ) {
+				int x = witnessHeap.poll();
+				for ( Map.Entry<Integer, int[]> edge : adjacency.get( x ).entrySet() ) {
+					int y = edge.getKey();
+					if ( y == avoid ) { continue; }
+					int alt = witness[x] + edge.getValue()[0];
+					if ( alt < witness[y] ) {
+						if ( witness[y] == Integer.MAX_VALUE ) {
+							touched[touchedCount++] = y;
+						}
+						witness[y] = alt;
+						witnessHeap.insertOrDecrease( y, alt );
+					}
+				}
+			}
+		}
+
+		private void resetWitness() {
+			for ( int i = 0; i < touchedCount; i++ ) {
+				witness[touched[i]] = Integer.MAX_VALUE;
+			}
+			touchedCount = 0;
+			witnessHeap.clear();
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.ch;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.NodePath;
+
+
+/**
+ * Search strategy backed by a {@link ContractionHierarchy}. The hierarchy is built
+ * on the first search, or ahead of time with {@link #load(WeightedGraph)}, and
+ * rebuilt whenever the graph changes.
+ */
+public class ContractionHierarchySearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	private volatile ContractionHierarchy<T> hierarchy;
+
+
+	/**
+	 * Run the preprocessing for the graph ahead of the first search.
+	 * @return the hierarchy, which also carries the preprocessing stats
+	 */
+	public ContractionHierarchy<T> load( WeightedGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+		return hierarchyFor( snapshotOf( graph ) );
+	}
+
+
+	/**
+	 * The hierarchy in use, or null before the first search.
+	 */
+	public ContractionHierarchy<T> getHierarchy() {
+		return hierarchy;
+	}
+
+
+	@Override
+	public void prepare( CompactGraph<T> graph ) {
+		super.prepare( graph );
+		hierarchyFor( graph );
+	}
+
+
+	@Override
+	protected CompactGraph<T> preparedSnapshot() {
+		ContractionHierarchy<T> current = hierarchy;
+		return current == null ? null : current.getGraph();
+	}
+
+
+	@Override
+	protected NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		return hierarchyFor( graph ).path( start, end );
+	}
+
+
+	//	only one thread contracts a new snapshot
+	private ContractionHierarchy<T> hierarchyFor( CompactGraph<T> graph ) {
+		ContractionHierarchy<T> current = hierarchy;
+		if ( current == null || current.getGraph() != graph ) {
+			synchronized ( this ) {
+				current = hierarchy;
+				if ( current == null || current.getGraph() != graph ) {
+					current = new ContractionHierarchy<>( graph );
+					hierarchy = current;
+				}
+			}
+		}
+		return current;
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.dijkstra;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Dijkstra's algorithm grown from both ends at once. Conveyor edges are the same in
+ * both directions, so the backward search reads the same adjacency as the forward
+ * one. Each step advances whichever side has the smaller queue head, and the search
+ * stops once the two queue heads add up to at least the best meeting distance seen.
+ * Two balls of half the radius settle roughly half the nodes of one full ball.
+ */
+public class BidirectionalDijkstraSearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	//	the forward side uses the inherited context, this one is for the backward side
+	private final ThreadLocal<SearchContext> backwardContexts = ThreadLocal.withInitial( SearchContext::new );
+
+
+	@Override
+	protected NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		SearchContext forward = searchContext( graph );
+		SearchContext backward = backwardContexts.get().reset( graph.nodeCount() );
+		forward.update( start, 0, -1 );
+		backward.update( end, 0, -1 );
+		forward.heap().insertOrDecrease( start, 0 );
+		backward.heap().insertOrDecrease( end, 0 );
+
+		int best = start == end ? 0 : Integer.MAX_VALUE;
+		int meet = start == end ? start : -1;
+
+		while ( ! forward.heap().isEmpty() && ! backward.heap().isEmpty() ) {
+			//	no path through an unsettled node can beat the best meeting
+			if ( (long) forward.heap().minKey() + backward.heap().minKey() >= best ) { break; }
+
+			boolean isForward = forward.heap().minKey() <= backward.heap().minKey();
+			SearchContext side = isForward ? forward : backward;
+			SearchContext other = isForward ? backward : forward;
+			IndexedMinHeap heap = side.heap();
+
+			int u = heap.poll();
+			int du = side.distance( u );
+			for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+				int v = graph.edgeTarget( slot );
+				int alt = du + graph.edgeWeight( slot );
+				if ( alt < side.distance( v ) ) {
+					side.update( v, alt, u );
+					heap.insertOrDecrease( v, alt );
+				}
+				int dv = side.distance( v );
+				int ov = other.distance( v );
+				if ( ov != Integer.MAX_VALUE && dv + ov < best ) {
+					best = dv + ov;
+					meet = v;
+				}
+			}
+		}
+
+		if ( meet < 0 ) {
+			return collectPathNodes( graph, forward, start, end );
+		}
+
+		//	start half walks back to the start, end half walks on to the end
+		List<Node<T>> path = new ArrayList<>();
+		for ( int v = meet; v != -1; v = forward.previous( v ) ) {
+			path.add( graph.getNode( v ) );
+		}
+		Collections.reverse( path );
+		for ( int v = backward.previous( meet ); v != -1; v = backward.previous( v ) ) {
+			path.add( graph.getNode( v ) );
+		}
+		return new NodePath<>( path, best );
+	}
+
+}
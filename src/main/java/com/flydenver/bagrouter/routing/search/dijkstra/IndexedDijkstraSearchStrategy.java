@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.dijkstra;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchContext;
+
+
+/**
+ * Dijkstra's algorithm using an {@link IndexedMinHeap}, so an improved distance is
+ * a real decrease-key rather than a remove and re-add. Only discovered nodes are
+ * put on the heap, and the search stops as soon as the end node is settled instead
+ * of settling the whole graph.
+ */
+public class IndexedDijkstraSearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	@Override
+	protected NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		SearchContext context = searchContext( graph );
+		IndexedMinHeap heap = context.heap();
+		context.update( start, 0, -1 );
+		heap.insertOrDecrease( start, 0 );
+
+		while ( ! heap.isEmpty() ) {
+			int u = heap.poll();
+			if ( u == end ) { break; }
+
+			int du = context.distance( u );
+			for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+				int v = graph.edgeTarget( slot );
+				int uToV = du + graph.edgeWeight( slot );
+				if ( uToV < context.distance( v ) ) {
+					context.update( v, uToV, u );
+					heap.insertOrDecrease( v, uToV );
+				}
+			}
+		}
+
+		return collectPathNodes( graph, context, start, end );
+	}
+
+}
@@ -0,0 +1,427 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.dynamic;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Edge;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.WeightedEdge;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Shortest path trees for a set of destination nodes, kept up to date as conveyor
+ * weights change, in the style of Ramalingam and Reps. Edge changes go through
+ * this class, which applies them to the {@link WeightedGraph} and then repairs
+ * each tree:
+ * <ul>
+ *     <li>a cheaper edge only pushes improvements outward from its end points;</li>
+ *     <li>a dearer or closed edge only matters if it is a tree edge, and then just
+ *     the subtree hanging below it is cut loose and regrown from its boundary.</li>
+ * </ul>
+ * The work is proportional to the nodes whose routes are affected, which each
+ * change reports back. Changes made to the graph behind this class's back are
+ * picked up by regrowing every tree on the next change.
+ *
+ * Updates and queries are synchronized, so a single instance can be shared.
+ */
+public class DynamicShortestPathTrees<T> {
+
+	private static final int unreachable = Integer.MAX_VALUE;
+
+	private final WeightedGraph<T> graph;
+	private final Map<Integer, Tree> trees = new LinkedHashMap<>();
+
+	//	node indices come from a snapshot, but the adjacency also keeps closed edges
+	private CompactGraph<T> nodes;
+	private int[] edgeOffsets;
+	private int[] edgeTargets;
+	private int[] edgeWeights;
+	private long version;
+
+	//	scratch space for repairs
+	private IndexedMinHeap heap;
+	private boolean[] affected;
+	private int[] members;
+	private long touchedNodes;
+
+
+	/**
+	 * Start maintaining trees on the graph. Trees are added with {@link #addTree(Node)}.
+	 */
+	public DynamicShortestPathTrees( WeightedGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+		this.graph = graph;
+		load();
+	}
+
+
+	/**
+	 * Grow and start maintaining the tree rooted at a node. Adding a tree twice is a no-op.
+	 */
+	public synchronized void addTree( Node<T> rootNode ) {
+		refresh();
+		int root = indexOf( rootNode );
+		if ( ! trees.containsKey( root ) ) {
+			Tree tree = new Tree( root, nodes.nodeCount() );
+			grow( tree );
+			trees.put( root, tree );
+		}
+	}
+
+
+	/**
+	 * Check if a tree is maintained for the node.
+	 */
+	public synchronized boolean hasTree( Node<T> rootNode ) {
+		return rootNode != null && trees.containsKey( nodes.indexOf( rootNode ) );
+	}
+
+
+	/**
+	 * Distance from a node to the root of one of the trees, {@code Integer.MAX_VALUE}
+	 * if it can't get there.
+	 */
+	public synchronized int distance( Node<T> startNode, Node<T> rootNode ) {
+		refresh();
+		return treeOf( rootNode ).distance[indexOf( startNode )];
+	}
+
+
+	/**
+	 * Get the path from a node to the root of one of the trees. An unreachable node
+	 * gives the node and the root with an infinite distance, and the root gives
+	 * itself twice, like the strategies.
+	 */
+	public synchronized NodePath<T> pathFrom( Node<T> startNode, Node<T> rootNode ) {
+		refresh();
+		Tree tree = treeOf( rootNode );
+		int start = indexOf( startNode );
+		if ( start == tree.root ) {
+			return NodePath.toSelf( nodes.getNode( start ) );
+		}
+
+		List<Node<T>> path = new ArrayList<>();
+		if ( tree.distance[start] == unreachable ) {
+			path.add( nodes.getNode( start ) );
+			path.add( nodes.getNode( tree.root ) );
+			return new NodePath<>( path, unreachable );
+		}
+
+		for ( int node = start; node != -1; node = tree.parent[node] ) {
+			path.add( nodes.getNode( node ) );
+		}
+		return new NodePath<>( path, tree.distance[start] );
+	}
+
+
+	/**
+	 * Change the travel time of a conveyor and repair the trees.
+	 * @return number of tree nodes touched by the repair
+	 */
+	public synchronized int setEdgeWeight( Node<T> firstNode, Node<T> secondNode, int weight ) {
+		refresh();
+		graph.setEdgeWeight( firstNode, secondNode, weight );
+		return repair( firstNode, secondNode );
+	}
+
+
+	/**
+	 * Close a conveyor and repair the trees.
+	 * @return number of tree nodes touched by the repair
+	 */
+	public synchronized int disableEdge( Node<T> firstNode, Node<T> secondNode ) {
+		refresh();
+		graph.disableEdge( firstNode, secondNode );
+		return repair( firstNode, secondNode );
+	}
+
+
+	/**
+	 * Reopen a closed conveyor and repair the trees.
+	 * @return number of tree nodes touched by the repair
+	 */
+	public synchronized int enableEdge( Node<T> firstNode, Node<T> secondNode ) {
+		refresh();
+		graph.enableEdge( firstNode, secondNode );
+		return repair( firstNode, secondNode );
+	}
+
+
+	/**
+	 * Total number of tree nodes touched by repairs and regrowth since creation.
+	 */
+	public synchronized long getTouchedNodes() {
+		return touchedNodes;
+	}
+
+
+	/**
+	 * Check if the trees reflect the graph as it is now.
+	 */
+	public synchronized boolean isCurrent() {
+		return graph.getVersion() == version;
+	}
+
+
+	//	index the graph, keeping closed edges with an infinite weight so they can reopen
+	private void load() {
+		nodes = CompactGraph.fromGraph( graph );
+		int n = nodes.nodeCount();
+
+		edgeOffsets = new int[n + 1];
+		for ( WeightedEdge<T> we : graph.edges() ) {
+			edgeOffsets[nodes.indexOf( we.getFirstNode() ) + 1]++;
+			edgeOffsets[nodes.indexOf( we.getSecondNode() ) + 1]++;
+		}
+		for ( int i = 0; i < n; i++ ) {
+			edgeOffsets[i + 1] += edgeOffsets[i];
+		}
+
+		edgeTargets = new int[edgeOffsets[n]];
+		edgeWeights = new int[edgeOffsets[n]];
+		int[] fill = Arrays.copyOf( edgeOffsets, n );
+		for ( WeightedEdge<T> we : graph.edges() ) {
+			int first = nodes.indexOf( we.getFirstNode() );
+			int second = nodes.indexOf( we.getSecondNode() );
+			int weight = we.isEnabled() ? we.getWeight() : unreachable;
+
+			int slot = fill[first]++;
+			edgeTargets[slot] = second;
+			edgeWeights[slot] = weight;
+			slot = fill[second]++;
+			edgeTargets[slot] = first;
+			edgeWeights[slot] = weight;
+		}
+
+		heap = new IndexedMinHeap( n );
+		affected = new boolean[n];
+		members = new int[n];
+		version = graph.getVersion();
+	}
+
+
+	//	the graph changed outside this class, so start over
+	private void refresh() {
+		if ( graph.getVersion() == version ) { return; }
+
+		List<Node<T>> roots = new ArrayList<>( trees.size() );
+		for ( Tree tree : trees.values() ) {
+			roots.add( nodes.getNode( tree.root ) );
+		}
+		trees.clear();
+		load();
+
+		for ( Node<T> rootNode : roots ) {
+			int root = nodes.indexOf( rootNode );
+			if ( root >= 0 ) {
+				Tree tree = new Tree( root, nodes.nodeCount() );
+				grow( tree );
+				trees.put( root, tree );
+			}
+		}
+	}
+
+
+	//	bring the adjacency in line with the graph edges, then fix each tree
+	private int repair( Node<T> firstNode, Node<T> secondNode ) {
+		int u = indexOf( firstNode );
+		int v = indexOf( secondNode );
+		int weight = currentWeight( firstNode, secondNode );
+		int previous = setWeight( u, v, weight );
+		setWeight( v, u, weight );
+		version = graph.getVersion();
+
+		int touched = 0;
+		if ( weight != previous ) {
+			for ( Tree tree : trees.values() ) {
+				touched += weight < previous ? decrease( tree, u, v, weight ) : increase( tree, u, v );
+			}
+		}
+		touchedNodes += touched;
+		return touched;
+	}
+
+
+	//	parallel belts between two nodes act as one, as fast as the fastest open one
+	private int currentWeight( Node<T> firstNode, Node<T> secondNode ) {
+		Node<T> first = graph.getNode( firstNode.getNodeId() );
+		int weight = unreachable;
+		for ( Edge<T> edge : first.getEdges() ) {
+			WeightedEdge<T> we = (WeightedEdge<T>) edge;
+			if ( we.isEnabled() && we.getOtherNode( first ).equals( secondNode ) ) {
+				weight = Math.min( weight, we.getWeight() );
+			}
+		}
+		return weight;
+	}
+
+
+	//	set the weight on every slot from u to v, returning the old (smallest) weight
+	private int setWeight( int u, int v, int weight ) {
+		int previous = unreachable;
+		for ( int slot = edgeOffsets[u]; slot < edgeOffsets[u + 1]; slot++ ) {
+			if ( edgeTargets[slot] == v ) {
+				previous = Math.min( previous, edgeWeights[slot] );
+				edgeWeights[slot] = weight;
+			}
+		}
+		return previous;
+	}
+
+
+	//	a cheaper edge can only shorten routes through it; spread the gain outward
+	private int decrease( Tree tree, int u, int v, int weight ) {
+		offer( tree, v, u, weight );
+		offer( tree, u, v, weight );
+		return settle( tree );
+	}
+
+
+	//	queue node if going through neighbor beats its current distance
+	private void offer( Tree tree, int node, int neighbor, int weight ) {
+		int through = tree.distance[neighbor];
+		if ( through != unreachable && through + weight < tree.distance[node] ) {
+			tree.distance[node] = through + weight;
+			tree.parent[node] = neighbor;
+			heap.insertOrDecrease( node, through + weight );
+		}
+	}
+
+
+	//	a dearer edge only matters on the tree; regrow the subtree below it
+	private int increase( Tree tree, int u, int v ) {
+		int child = tree.parent[v] == u ? v : tree.parent[u] == v ? u : -1;
+		if ( child < 0 ) { return 0; }
+
+		//	collect the subtree: children are the neighbors pointing back at a node
+		int count = 0;
+		members[count++] = child;
+		affected[child] = true;
+		for ( int i = 0; i < count; i++ ) {
+			int x = members[i];
+			for ( int slot = edgeOffsets[x]; slot < edgeOffsets[x + 1]; slot++ ) {
+				int y = edgeTargets[slot];
+				if ( ! affected[y] && tree.parent[y] == x ) {
+					affected[y] = true;
+					members[count++] = y;
+				}
+			}
+		}
+
+		for ( int i = 0; i < count; i++ ) {
+			tree.distance[members[i]] = unreachable;
+			tree.parent[members[i]] = -1;
+		}
+
+		//	best way into the subtree from the nodes that kept their routes
+		for ( int i = 0; i < count; i++ ) {
+			int x = members[i];
+			for ( int slot = edgeOffsets[x]; slot < edgeOffsets[x + 1]; slot++ ) {
+				int y = edgeTargets[slot];
+				if ( ! affected[y] && edgeWeights[slot] != unreachable ) {
+					offer( tree, x, y, edgeWeights[slot] );
+				}
+			}
+		}
+
+		for ( int i = 0; i < count; i++ ) {
+			affected[members[i]] = false;
+		}
+		settle( tree );
+		return count;
+	}
+
+
+	//	Dijkstra from whatever is queued, returning the number of nodes settled
+	private int settle( Tree tree ) {
+		int settled = 0;
+		while ( ! heap.isEmpty() ) {
+			int x = heap.poll();
+			settled++;
+			for ( int slot = edgeOffsets[x]; slot < edgeOffsets[x + 1]; slot++ ) {
+				if ( edgeWeights[slot] != unreachable ) {
+					offer( tree, edgeTargets[slot], x, edgeWeights[slot] );
+				}
+			}
+		}
+		return settled;
+	}
+
+
+	//	full Dijkstra from the root
+	private void grow( Tree tree ) {
+		Arrays.fill( tree.distance, unreachable );
+		Arrays.fill( tree.parent, -1 );
+		tree.distance[tree.root] = 0;
+		heap.insertOrDecrease( tree.root, 0 );
+		touchedNodes += settle( tree );
+	}
+
+
+	private Tree treeOf( Node<T> rootNode ) {
+		Tree tree = trees.get( indexOf( rootNode ) );
+		if ( tree == null ) {
+			throw new IllegalArgumentException( "No tree for the node." );
+		}
+		return tree;
+	}
+
+
+	private int indexOf( Node<T> node ) {
+		int index = nodes.indexOf( node );
+		if ( index < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+		return index;
+	}
+
+
+	//	distances to, and next hop towards, one root
+	private static final class Tree {
+
+		private final int root;
+		private final int[] distance;
+		private final int[] parent;
+
+		Tree( int root, int nodeCount ) {
+			this.root = root;
+			this.distance = new int[nodeCount];
+			this.parent = new int[nodeCount];
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.hub;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.NodePath;
+
+
+/**
+ * Search strategy that answers from {@link HubLabels}. A search is a merge of two
+ * labels plus a walk along the path. The labels are built on the first search, or
+ * up front with {@link #load(WeightedGraph)}, and rebuilt whenever the graph changes.
+ * Labels read back from a file can be handed over with {@link #setLabels(HubLabels)}.
+ */
+public class HubLabelSearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	private volatile HubLabels<T> labels;
+
+
+	/**
+	 * Build the labels for the graph ahead of the first search.
+	 * @return the loaded labels
+	 */
+	public HubLabels<T> load( WeightedGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+		return labelsFor( snapshotOf( graph ) );
+	}
+
+
+	/**
+	 * Use labels that were already built, such as ones read from a file. They are
+	 * only used for searches on their own snapshot.
+	 */
+	public void setLabels( HubLabels<T> labels ) {
+		this.labels = labels;
+	}
+
+
+	@Override
+	public void prepare( CompactGraph<T> graph ) {
+		super.prepare( graph );
+		labelsFor( graph );
+	}
+
+
+	@Override
+	protected CompactGraph<T> preparedSnapshot() {
+		HubLabels<T> current = labels;
+		return current == null ? null : current.getGraph();
+	}
+
+
+	@Override
+	protected NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		return labelsFor( graph ).path( start, end );
+	}
+
+
+	//	only one thread builds labels for a new snapshot
+	private HubLabels<T> labelsFor( CompactGraph<T> graph ) {
+		HubLabels<T> current = labels;
+		if ( current == null || current.getGraph() != graph ) {
+			synchronized ( this ) {
+				current = labels;
+				if ( current == null || current.getGraph() != graph ) {
+					current = new HubLabels<>( graph );
+					labels = current;
+				}
+			}
+		}
+		return current;
+	}
+
+}
@@ -0,0 +1,512 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.hub;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Hub labels for a {@link CompactGraph}, built by pruned landmark labeling. Every
+ * node gets a label of (hub, distance) pairs, such that any two nodes share a hub on
+ * a shortest path between them. A distance query is then one merge of two short
+ * arrays sorted by hub rank, with no search at all.
+ *
+ * Hubs are taken in order of degree, busiest first. Each one grows a Dijkstra search
+ * that stops at any node whose distance the labels so far already cover, which keeps
+ * the labels small. Every label entry also keeps the next node towards its hub, so
+ * paths can be walked out of the labels on demand.
+ *
+ * Labels are written to a stream with {@link #write(OutputStream)}, and read back for
+ * the same conveyor system with {@link #read(InputStream, CompactGraph)}.
+ */
+public class HubLabels<T> {
+
+	private static final int magic = 0x4855424c;		//	"HUBL"
+	private static final int formatVersion = 1;
+
+	private final CompactGraph<T> graph;
+	private final int[] hubNodes;
+	private final int[] offsets;
+	private final int[] hubs;
+	private final int[] distances;
+	private final int[] nextHops;
+	private final long buildMillis;
+
+
+	/**
+	 * Build the labels for a snapshot.
+	 */
+	public HubLabels( CompactGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+
+		long started = System.currentTimeMillis();
+		this.graph = graph;
+		int nodeCount = graph.nodeCount();
+		hubNodes = rankByDegree( graph );
+
+		LabelBuilder builder = new LabelBuilder( nodeCount );
+		for ( int rank = 0; rank < nodeCount; rank++ ) {
+			builder.prunedSearch( rank, hubNodes[rank] );
+		}
+
+		offsets = new int[nodeCount + 1];
+		for ( int node = 0; node < nodeCount; node++ ) {
+			offsets[node + 1] = offsets[node] + builder.sizes[node];
+		}
+		hubs = new int[offsets[nodeCount]];
+		distances = new int[hubs.length];
+		nextHops = new int[hubs.length];
+		for ( int node = 0; node < nodeCount; node++ ) {
+			int size = builder.sizes[node];
+			System.arraycopy( builder.hubs[node], 0, hubs, offsets[node], size );
+			System.arraycopy( builder.distances[node], 0, distances, offsets[node], size );
+			System.arraycopy( builder.nextHops[node], 0, nextHops, offsets[node], size );
+		}
+
+		buildMillis = System.currentTimeMillis() - started;
+	}
+
+
+	private HubLabels( CompactGraph<T> graph, int[] hubNodes, int[] offsets, int[] hubs, int[] distances, int[] nextHops, long buildMillis ) {
+		this.graph = graph;
+		this.hubNodes = hubNodes;
+		this.offsets = offsets;
+		this.hubs = hubs;
+		this.distances = distances;
+		this.nextHops = nextHops;
+		this.buildMillis = buildMillis;
+	}
+
+
+	//	busiest nodes first, since the most shortest paths run through them
+	private static int[] rankByDegree( CompactGraph<?> graph ) {
+		long[] keys = new long[graph.nodeCount()];
+		for ( int node = 0; node < keys.length; node++ ) {
+			int degree = graph.edgeEnd( node ) - graph.edgeStart( node );
+			keys[node] = ( (long) ( Integer.MAX_VALUE - degree ) << 32 ) | node;
+		}
+		Arrays.sort( keys );
+
+		int[] order = new int[keys.length];
+		for ( int rank = 0; rank < order.length; rank++ ) {
+			order[rank] = (int) keys[rank];
+		}
+		return order;
+	}
+
+
+	/**
+	 * The snapshot the labels belong to.
+	 */
+	public CompactGraph<T> getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Travel distance between two node indices, {@code Integer.MAX_VALUE} if unreachable.
+	 */
+	public int distance( int start, int end ) {
+		int best = Integer.MAX_VALUE;
+		int i = offsets[start], iEnd = offsets[start + 1];
+		int j = offsets[end], jEnd = offsets[end + 1];
+		while ( i < iEnd && j < jEnd ) {
+			int hubI = hubs[i];
+			int hubJ = hubs[j];
+			if ( hubI == hubJ ) {
+				best = Math.min( best, distances[i++] + distances[j++] );
+			}
+			else if ( hubI < hubJ ) {
+				i++;
+			}
+			else {
+				j++;
+			}
+		}
+		return best;
+	}
+
+
+	/**
+	 * Travel distance between two nodes, {@code Integer.MAX_VALUE} if unreachable.
+	 */
+	public int distance( Node<T> startNode, Node<T> endNode ) {
+		return distance( indexOf( startNode ), indexOf( endNode ) );
+	}
+
+
+	/**
+	 * Walk a shortest path out of the labels, through the hub the two nodes share.
+	 * An unreachable end gives both nodes with an infinite distance.
+	 */
+	public NodePath<T> path( int start, int end ) {
+		List<Node<T>> path = new ArrayList<>();
+		if ( start == end ) {
+			path.add( graph.getNode( start ) );
+			return new NodePath<>( path, 0 );
+		}
+
+		int hub = -1;
+		int best = Integer.MAX_VALUE;
+		for ( int i = offsets[start], j = offsets[end]; i < offsets[start + 1] && j < offsets[end + 1]; ) {
+			if ( hubs[i] == hubs[j] ) {
+				if ( distances[i] + distances[j] < best ) {
+					best = distances[i] + distances[j];
+					hub = hubs[i];
+				}
+				i++;
+				j++;
+			}
+			else if ( hubs[i] < hubs[j] ) {
+				i++;
+			}
+			else {
+				j++;
+			}
+		}
+
+		if ( hub < 0 ) {
+			path.add( graph.getNode( start ) );
+			path.add( graph.getNode( end ) );
+			return new NodePath<>( path, Integer.MAX_VALUE );
+		}
+
+		//	start up to the hub, then the hub back down to the end
+		for ( int node = start; node != -1; node = nextHops[entry( node, hub )] ) {
+			path.add( graph.getNode( node ) );
+		}
+		int from = path.size();
+		for ( int node = end; node != hubNodes[hub]; node = nextHops[entry( node, hub )] ) {
+			path.add( from, graph.getNode( node ) );
+		}
+		return new NodePath<>( path, best );
+	}
+
+
+	//	label slot of a hub, which is there for every node on the way to the hub
+	private int entry( int node, int hub ) {
+		int slot = Arrays.binarySearch( hubs, offsets[node], offsets[node + 1], hub );
+		if ( slot < 0 ) {
+			throw new IllegalStateException( "Missing hub " + hub + " in label of node " + node );
+		}
+		return slot;
+	}
+
+
+	private int indexOf( Node<T> node ) {
+		int index = node == null ? -1 : graph.indexOf( node );
+		if ( index < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+		return index;
+	}
+
+
+	/**
+	 * Total number of label entries.
+	 */
+	public int labelEntryCount() {
+		return hubs.length;
+	}
+
+
+	/**
+	 * Average number of hubs per node.
+	 */
+	public double getAverageLabelSize() {
+		return graph.nodeCount() == 0 ? 0 : (double) hubs.length / graph.nodeCount();
+	}
+
+
+	/**
+	 * Memory taken by the labels.
+	 */
+	public long sizeInBytes() {
+		return 4L * ( hubNodes.length + offsets.length + 3L * hubs.length );
+	}
+
+
+	/**
+	 * Time taken to build the labels, or 0 for labels that were read back.
+	 */
+	public long getBuildMillis() {
+		return buildMillis;
+	}
+
+
+	/**
+	 * Write the labels, along with the node ids and a fingerprint of the conveyors,
+	 * so they can only be read back for the same conveyor system.
+	 */
+	public void write( OutputStream output ) throws IOException {
+		DataOutputStream out = new DataOutputStream( output );
+		out.writeInt( magic );
+		out.writeInt( formatVersion );
+		out.writeLong( fingerprint( graph ) );
+		out.writeInt( graph.nodeCount() );
+		for ( int node = 0; node < graph.nodeCount(); node++ ) {
+			out.writeUTF( String.valueOf( graph.getNode( node ).getNodeId() ) );
+		}
+		writeInts( out, hubNodes );
+		writeInts( out, offsets );
+		writeInts( out, hubs );
+		writeInts( out, distances );
+		writeInts( out, nextHops );
+		out.flush();
+	}
+
+
+	/**
+	 * Read labels written by {@link #write(OutputStream)} for the given snapshot.
+	 * @throws IOException if the stream isn't hub labels, or they were built for a
+	 * different conveyor system
+	 */
+	public static <T> HubLabels<T> read( InputStream input, CompactGraph<T> graph ) throws IOException {
+		if ( input == null || graph == null ) {
+			throw new IllegalArgumentException( "Null input or graph" );
+		}
+
+		DataInputStream in = new DataInputStream( input );
+		if ( in.readInt() != magic ) {
+			throw new IOException( "Not a hub label file." );
+		}
+		int version = in.readInt();
+		if ( version != formatVersion ) {
+			throw new IOException( "Unsupported hub label version " + version + "." );
+		}
+		if ( in.readLong() != fingerprint( graph ) || in.readInt() != graph.nodeCount() ) {
+			throw new IOException( "Hub labels were built for a different conveyor system." );
+		}
+
+		//	the snapshot may number the nodes differently than the one written
+		Map<String, Integer> indices = new HashMap<>( graph.nodeCount() * 2 );
+		for ( int node = 0; node < graph.nodeCount(); node++ ) {
+			indices.put( String.valueOf( graph.getNode( node ).getNodeId() ), node );
+		}
+		int[] toIndex = new int[graph.nodeCount()];
+		for ( int node = 0; node < toIndex.length; node++ ) {
+			Integer index = indices.get( in.readUTF() );
+			if ( index == null ) {
+				throw new IOException( "Hub labels were built for a different conveyor system." );
+			}
+			toIndex[node] = index;
+		}
+
+		int[] writtenHubNodes = readInts( in );
+		int[] writtenOffsets = readInts( in );
+		int[] writtenHubs = readInts( in );
+		int[] writtenDistances = readInts( in );
+		int[] writtenNextHops = readInts( in );
+
+		int[] hubNodes = new int[writtenHubNodes.length];
+		for ( int rank = 0; rank < hubNodes.length; rank++ ) {
+			hubNodes[rank] = toIndex[writtenHubNodes[rank]];
+		}
+
+		int[] offsets = new int[writtenOffsets.length];
+		int[] hubs = new int[writtenHubs.length];
+		int[] distances = new int[writtenDistances.length];
+		int[] nextHops = new int[writtenNextHops.length];
+		int[] sizes = new int[toIndex.length];
+		for ( int node = 0; node < toIndex.length; node++ ) {
+			sizes[toIndex[node]] = writtenOffsets[node + 1] - writtenOffsets[node];
+		}
+		for ( int node = 0; node < toIndex.length; node++ ) {
+			offsets[node + 1] = offsets[node] + sizes[node];
+		}
+		for ( int node = 0; node < toIndex.length; node++ ) {
+			int from = writtenOffsets[node];
+			int to = offsets[toIndex[node]];
+			for ( int i = 0; i < sizes[toIndex[node]]; i++ ) {
+				hubs[to + i] = writtenHubs[from + i];
+				distances[to + i] = writtenDistances[from + i];
+				nextHops[to + i] = writtenNextHops[from + i] < 0 ? -1 : toIndex[writtenNextHops[from + i]];
+			}
+		}
+
+		return new HubLabels<>( graph, hubNodes, offsets, hubs, distances, nextHops, 0 );
+	}
+
+
+	//	order independent hash of every conveyor, by node ids and weight
+	private static long fingerprint( CompactGraph<?> graph ) {
+		long hash = graph.nodeCount();
+		for ( int node = 0; node < graph.nodeCount(); node++ ) {
+			long id = String.valueOf( graph.getNode( node ).getNodeId() ).hashCode();
+			for ( int slot = graph.edgeStart( node ); slot < graph.edgeEnd( node ); slot++ ) {
+				long target = String.valueOf( graph.getNode( graph.edgeTarget( slot ) ).getNodeId() ).hashCode();
+				long mixed = ( id * 0x9e3779b97f4a7c15L + target ) * 0xbf58476d1ce4e5b9L + graph.edgeWeight( slot );
+				hash += mixed ^ ( mixed >>> 31 );
+			}
+		}
+		return hash;
+	}
+
+
+	private static void writeInts( DataOutputStream out, int[] values ) throws IOException {
+		out.writeInt( values.length );
+		for ( int value : values ) {
+			out.writeInt( value );
+		}
+	}
+
+	private static int[] readInts( DataInputStream in ) throws IOException {
+		int length = in.readInt();
+		if ( length < 0 ) {
+			throw new IOException( "Corrupt hub label file." );
+		}
+		int[] values = new int[length];
+		for ( int i = 0; i < length; i++ ) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+
+	@Override
+	public String toString() {
+		return "HubLabels[nodes=" + graph.nodeCount() +
+				", entries=" + labelEntryCount() +
+				", avgLabelSize=" + getAverageLabelSize() +
+				", bytes=" + sizeInBytes() +
+				", buildMillis=" + buildMillis + "]";
+	}
+
+
+	//	growable labels, only needed while building
+	private final class LabelBuilder {
+
+		private final int[][] hubs;
+		private final int[][] distances;
+		private final int[][] nextHops;
+		private final int[] sizes;
+
+		//	distances from the current hub to its own hubs, by rank
+		private final int[] hubDistance;
+		private final int[] distance;
+		private final int[] next;
+		private final int[] visited;
+		private final IndexedMinHeap heap;
+
+		LabelBuilder( int nodeCount ) {
+			hubs = new int[nodeCount][];
+			distances = new int[nodeCount][];
+			nextHops = new int[nodeCount][];
+			sizes = new int[nodeCount];
+			for ( int node = 0; node < nodeCount; node++ ) {
+				hubs[node] = new int[4];
+				distances[node] = new int[4];
+				nextHops[node] = new int[4];
+			}
+
+			hubDistance = new int[nodeCount];
+			distance = new int[nodeCount];
+			next = new int[nodeCount];
+			visited = new int[nodeCount];
+			Arrays.fill( hubDistance, Integer.MAX_VALUE );
+			Arrays.fill( distance, Integer.MAX_VALUE );
+			heap = new IndexedMinHeap( nodeCount );
+		}
+
+		//	Dijkstra from the hub, skipping nodes the labels already answer for
+		void prunedSearch( int rank, int hubNode ) {
+			for ( int i = 0; i < sizes[hubNode]; i++ ) {
+				hubDistance[hubs[hubNode][i]] = distances[hubNode][i];
+			}
+
+			int visitedCount = 0;
+			distance[hubNode] = 0;
+			next[hubNode] = -1;
+			heap.insertOrDecrease( hubNode, 0 );
+
+			while ( ! heap.isEmpty() ) {
+				int u = heap.poll();
+				int du = distance[u];
+				visited[visitedCount++] = u;
+				if ( covered( u, du ) ) { continue; }
+
+				add( u, rank, du, next[u] );
+				for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+					int v = graph.edgeTarget( slot );
+					int alt = du + graph.edgeWeight( slot );
+					if ( alt < distance[v] ) {
+						distance[v] = alt;
+						next[v] = u;
+						heap.insertOrDecrease( v, alt );
+					}
+				}
+			}
+
+			for ( int i = 0; i < visitedCount; i++ ) {
+				distance[visited[i]] = Integer.MAX_VALUE;
+			}
+			for ( int i = 0; i < sizes[hubNode]; i++ ) {
+				hubDistance[hubs[hubNode][i]] = Integer.MAX_VALUE;
+			}
+		}
+
+		//	the earlier hubs already give a path this short
+		private boolean covered( int node, int nodeDistance ) {
+			for ( int i = 0; i < sizes[node]; i++ ) {
+				int toHub = hubDistance[hubs[node][i]];
+				if ( toHub != Integer.MAX_VALUE && toHub + distances[node][i] <= nodeDistance ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void add( int node, int rank, int nodeDistance, int nextHop ) {
+			int size = sizes[node];
+			if ( size == hubs[node].length ) {
+				hubs[node] = Arrays.copyOf( hubs[node], size * 2 );
+				distances[node] = Arrays.copyOf( distances[node], size * 2 );
+				nextHops[node] = Arrays.copyOf( nextHops[node], size * 2 );
+			}
+			hubs[node][size] = rank;
+			distances[node][size] = nodeDistance;
+			nextHops[node][size] = nextHop;
+			sizes[node]++;
+		}
+	}
+
+}
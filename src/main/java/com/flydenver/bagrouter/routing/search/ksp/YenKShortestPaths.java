@@ -0,0 +1,323 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.ksp;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchContext;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+
+/**
+ * Yen's algorithm for the K shortest loopless paths between two nodes of a
+ * {@link CompactGraph}. Every spur search shares one {@link ShortestPathTree} rooted
+ * at the end node. When the tree's path from the spur node misses every banned node
+ * and conveyor, it is the spur path as is, with no search. Otherwise the spur search
+ * is an A* search using the tree distances, which stay exact lower bounds with
+ * conveyors taken away, so it mostly walks straight down the detour.
+ *
+ * Scratch space is kept per thread, so one instance can serve concurrent callers.
+ */
+public class YenKShortestPaths<T> {
+
+	private final ThreadLocal<SpurState> states = ThreadLocal.withInitial( SpurState::new );
+
+
+	/**
+	 * Find up to {@code k} shortest loopless paths, shortest first. An unreachable
+	 * end gives the node and the end with an infinite distance, like the strategies.
+	 */
+	public List<NodePath<T>> findPaths( CompactGraph<T> graph, Node<T> startNode, Node<T> endNode, int k ) {
+		if ( graph == null || startNode == null || endNode == null ) {
+			throw new IllegalArgumentException( "Null graph or nodes." );
+		}
+		return findPaths( new ShortestPathTree<>( graph, endNode ), startNode, k );
+	}
+
+
+	/**
+	 * Find up to {@code k} shortest loopless paths to the root of the tree. Bags headed
+	 * to the same node can share the tree.
+	 */
+	public List<NodePath<T>> findPaths( ShortestPathTree<T> tree, Node<T> startNode, int k ) {
+		if ( tree == null || startNode == null ) {
+			throw new IllegalArgumentException( "Null tree or start node." );
+		}
+		if ( k < 1 ) {
+			throw new IllegalArgumentException( "K must be at least 1" );
+		}
+
+		CompactGraph<T> graph = tree.getGraph();
+		int start = graph.indexOf( startNode );
+		if ( start < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+
+		List<NodePath<T>> paths = new ArrayList<>( k );
+		if ( tree.distance( start ) == Integer.MAX_VALUE || start == tree.getRoot() ) {
+			paths.add( tree.pathFrom( startNode ) );
+			return paths;
+		}
+
+		SpurState state = states.get().reset( graph.nodeCount() );
+		List<Candidate> found = new ArrayList<>( k );
+		found.add( new Candidate( treePath( tree, start ), tree.distance( start ), 0 ) );
+		Set<Candidate> seen = new HashSet<>( found );
+		PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+		int sequence = 1;
+
+		while ( found.size() < k ) {
+			Candidate last = found.get( found.size() - 1 );
+			int rootCost = 0;
+
+			for ( int i = 0; i < last.nodes.length - 1; i++ ) {
+				int spur = last.nodes[i];
+				state.nextSpur();
+				for ( int j = 0; j < i; j++ ) {
+					state.banNode( last.nodes[j] );
+				}
+				for ( Candidate path : found ) {
+					if ( path.sharesRoot( last, i ) ) {
+						state.banHop( path.nodes[i + 1] );
+					}
+				}
+
+				int[] spurPath = spurPath( tree, state, spur );
+				if ( spurPath != null ) {
+					int[] nodes = Arrays.copyOf( last.nodes, i + spurPath.length );
+					System.arraycopy( spurPath, 0, nodes, i, spurPath.length );
+					Candidate candidate = new Candidate( nodes, rootCost + state.spurCost, sequence++ );
+					if ( seen.add( candidate ) ) {
+						candidates.add( candidate );
+					}
+				}
+
+				rootCost += hopWeight( graph, spur, last.nodes[i + 1] );
+			}
+
+			if ( candidates.isEmpty() ) { break; }
+			found.add( candidates.poll() );
+		}
+
+		for ( Candidate path : found ) {
+			List<Node<T>> nodes = new ArrayList<>( path.nodes.length );
+			for ( int node : path.nodes ) {
+				nodes.add( graph.getNode( node ) );
+			}
+			paths.add( new NodePath<>( nodes, path.cost ) );
+		}
+		return paths;
+	}
+
+
+	//	best path from the spur node avoiding the bans, or null if there is none
+	private int[] spurPath( ShortestPathTree<T> tree, SpurState state, int spur ) {
+		if ( treePathAllowed( tree, state, spur ) ) {
+			state.spurCost = tree.distance( spur );
+			return treePath( tree, spur );
+		}
+
+		CompactGraph<T> graph = tree.getGraph();
+		int end = tree.getRoot();
+		SearchContext context = state.context.reset( graph.nodeCount() );
+		IndexedMinHeap heap = context.heap();
+		context.update( spur, 0, -1 );
+		heap.insertOrDecrease( spur, tree.distance( spur ) );
+
+		while ( ! heap.isEmpty() ) {
+			int u = heap.poll();
+			if ( u == end ) { break; }
+
+			int du = context.distance( u );
+			for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+				int v = graph.edgeTarget( slot );
+				int toEnd = tree.distance( v );
+				if ( toEnd == Integer.MAX_VALUE || state.isBanned( v ) || ( u == spur && state.isHopBanned( v ) ) ) {
+					continue;
+				}
+
+				int uToV = du + graph.edgeWeight( slot );
+				if ( uToV < context.distance( v ) ) {
+					context.update( v, uToV, u );
+					heap.insertOrDecrease( v, uToV + toEnd );
+				}
+			}
+		}
+
+		if ( ! context.isReached( end ) ) {
+			return null;
+		}
+
+		int length = 1;
+		for ( int node = end; node != spur; node = context.previous( node ) ) {
+			length++;
+		}
+		int[] path = new int[length];
+		for ( int node = end, i = length - 1; i >= 0; node = context.previous( node ), i-- ) {
+			path[i] = node;
+		}
+		state.spurCost = context.distance( end );
+		return path;
+	}
+
+
+	//	the tree's own path is the best possible spur when nothing on it is banned
+	private boolean treePathAllowed( ShortestPathTree<T> tree, SpurState state, int spur ) {
+		int next = tree.parent( spur );
+		if ( next == -1 || state.isHopBanned( next ) ) {
+			return false;
+		}
+		for ( int node = next; node != -1; node = tree.parent( node ) ) {
+			if ( state.isBanned( node ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private int[] treePath( ShortestPathTree<T> tree, int from ) {
+		int length = 0;
+		for ( int node = from; node != -1; node = tree.parent( node ) ) {
+			length++;
+		}
+		int[] path = new int[length];
+		for ( int node = from, i = 0; node != -1; node = tree.parent( node ), i++ ) {
+			path[i] = node;
+		}
+		return path;
+	}
+
+
+	//	parallel conveyors between two nodes count as the fastest one
+	private int hopWeight( CompactGraph<T> graph, int u, int v ) {
+		int weight = Integer.MAX_VALUE;
+		for ( int slot = graph.edgeStart( u ); slot < graph.edgeEnd( u ); slot++ ) {
+			if ( graph.edgeTarget( slot ) == v ) {
+				weight = Math.min( weight, graph.edgeWeight( slot ) );
+			}
+		}
+		return weight;
+	}
+
+
+	//	a found or candidate path, ordered by cost and then by when it was found
+	private static final class Candidate implements Comparable<Candidate> {
+
+		private final int[] nodes;
+		private final int cost;
+		private final int sequence;
+
+		Candidate( int[] nodes, int cost, int sequence ) {
+			this.nodes = nodes;
+			this.cost = cost;
+			this.sequence = sequence;
+		}
+
+		//	same first i + 1 nodes as the other path
+		boolean sharesRoot( Candidate other, int i ) {
+			if ( nodes.length <= i + 1 ) {
+				return false;
+			}
+			for ( int j = 0; j <= i; j++ ) {
+				if ( nodes[j] != other.nodes[j] ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int compareTo( Candidate other ) {
+			int byCost = Integer.compare( cost, other.cost );
+			return byCost != 0 ? byCost : Integer.compare( sequence, other.sequence );
+		}
+
+		@Override
+		public boolean equals( Object obj ) {
+			return obj instanceof Candidate && Arrays.equals( nodes, ((Candidate) obj).nodes );
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode( nodes );
+		}
+	}
+
+
+	//	per thread search context, plus generation stamped node and first hop bans
+	private static final class SpurState {
+
+		private final SearchContext context = new SearchContext();
+		private int[] bannedNode = new int[0];
+		private int[] bannedHop = new int[0];
+		private int spurStamp;
+		private int spurCost;
+
+		SpurState reset( int nodeCount ) {
+			if ( bannedNode.length < nodeCount ) {
+				bannedNode = new int[nodeCount];
+				bannedHop = new int[nodeCount];
+				spurStamp = 0;
+			}
+			return this;
+		}
+
+		void nextSpur() {
+			if ( ++spurStamp == 0 ) {
+				Arrays.fill( bannedNode, 0 );
+				Arrays.fill( bannedHop, 0 );
+				spurStamp = 1;
+			}
+		}
+
+		void banNode( int node ) {
+			bannedNode[node] = spurStamp;
+		}
+
+		void banHop( int node ) {
+			bannedHop[node] = spurStamp;
+		}
+
+		boolean isBanned( int node ) {
+			return bannedNode[node] == spurStamp;
+		}
+
+		boolean isHopBanned( int node ) {
+			return bannedHop[node] == spurStamp;
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.table;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+
+/**
+ * All-pairs distance and next-hop tables for a {@link CompactGraph}. Row {@code t}
+ * of each table comes from a {@link ShortestPathTree} rooted at node {@code t}, and
+ * the rows are built in parallel. Once built, a route is a walk of next hops.
+ */
+public class RoutingTable<T> {
+
+	//	one int of distance and one int of next hop per node pair
+	private final static int bytesPerPair = 8;
+
+	private final CompactGraph<T> graph;
+	private final int nodeCount;
+	private final int[] distances;
+	private final int[] nextHops;
+	private final long buildMillis;
+
+
+	/**
+	 * Estimate the memory the tables take for a graph with the given number of nodes.
+	 */
+	public static long estimateBytes( int nodeCount ) {
+		return (long) nodeCount * nodeCount * bytesPerPair;
+	}
+
+
+	/**
+	 * Build the tables for a snapshot.
+	 * @param graph snapshot to tabulate
+	 * @param maxBytes refuse graphs whose tables would take more than this
+	 */
+	public RoutingTable( CompactGraph<T> graph, long maxBytes ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+
+		long bytes = estimateBytes( graph.nodeCount() );
+		if ( bytes > maxBytes || (long) graph.nodeCount() * graph.nodeCount() > Integer.MAX_VALUE ) {
+			throw new IllegalArgumentException( "Graph is too large to tabulate. " + graph.nodeCount() +
+					" nodes need " + bytes + " bytes, limit is " + maxBytes + "." );
+		}
+
+		long started = System.currentTimeMillis();
+		this.graph = graph;
+		this.nodeCount = graph.nodeCount();
+		this.distances = new int[nodeCount * nodeCount];
+		this.nextHops = new int[nodeCount * nodeCount];
+
+		//	each target fills its own row, so the rows don't need locking
+		IntStream.range( 0, nodeCount ).parallel().forEach( this::fillRow );
+		this.buildMillis = System.currentTimeMillis() - started;
+	}
+
+
+	private void fillRow( int target ) {
+		ShortestPathTree<T> tree = new ShortestPathTree<>( graph, graph.getNode( target ) );
+		int row = target * nodeCount;
+		for ( int node = 0; node < nodeCount; node++ ) {
+			distances[row + node] = tree.distance( node );
+			nextHops[row + node] = tree.parent( node );
+		}
+	}
+
+
+	/**
+	 * The snapshot the tables were built for.
+	 */
+	public CompactGraph<T> getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Memory taken by the tables.
+	 */
+	public long sizeInBytes() {
+		return estimateBytes( nodeCount );
+	}
+
+
+	/**
+	 * Time taken to build the tables.
+	 */
+	public long getBuildMillis() {
+		return buildMillis;
+	}
+
+
+	/**
+	 * Travel distance between two node indices, {@code Integer.MAX_VALUE} if unreachable.
+	 */
+	public int distance( int start, int end ) {
+		return distances[end * nodeCount + start];
+	}
+
+
+	/**
+	 * Walk the next hops from the start to the end node.
+	 */
+	public NodePath<T> path( int start, int end ) {
+		int row = end * nodeCount;
+		List<Node<T>> path = new ArrayList<>();
+		if ( distances[row + start] == Integer.MAX_VALUE ) {
+			path.add( graph.getNode( start ) );
+			path.add( graph.getNode( end ) );
+			return new NodePath<>( path, Integer.MAX_VALUE );
+		}
+
+		for ( int node = start; node != -1; node = nextHops[row + node] ) {
+			path.add( graph.getNode( node ) );
+		}
+		return new NodePath<>( path, distances[row + start] );
+	}
+
+}
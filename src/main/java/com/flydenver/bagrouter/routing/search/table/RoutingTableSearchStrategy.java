@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.table;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.NodePath;
+
+
+/**
+ * Search strategy that answers from a precomputed {@link RoutingTable}. Building
+ * the table costs one full search per node, after which each search is just a
+ * walk along the path. This suits a conveyor system that rarely changes and a
+ * large number of bags. The table is built on the first search, or up front with
+ * {@link #load(WeightedGraph)}, and rebuilt whenever the graph changes.
+ */
+public class RoutingTableSearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	public final static long defaultMaxTableBytes = Long.getLong( "router.search.table.maxBytes", 512L * 1024 * 1024 );
+
+	private final long maxTableBytes;
+	private volatile RoutingTable<T> table;
+
+
+	public RoutingTableSearchStrategy() {
+		this( defaultMaxTableBytes );
+	}
+
+	/**
+	 * Create the strategy with a limit on the table memory.
+	 */
+	public RoutingTableSearchStrategy( long maxTableBytes ) {
+		this.maxTableBytes = maxTableBytes;
+	}
+
+
+	/**
+	 * Build the table for the graph ahead of the first search.
+	 * @return the loaded table
+	 */
+	public RoutingTable<T> load( WeightedGraph<T> graph ) {
+		if ( graph == null ) {
+			throw new IllegalArgumentException( "Null graph" );
+		}
+		return tableFor( snapshotOf( graph ) );
+	}
+
+
+	@Override
+	public void prepare( CompactGraph<T> graph ) {
+		super.prepare( graph );
+		tableFor( graph );
+	}
+
+
+	@Override
+	protected CompactGraph<T> preparedSnapshot() {
+		RoutingTable<T> current = table;
+		return current == null ? null : current.getGraph();
+	}
+
+
+	@Override
+	protected NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		return tableFor( graph ).path( start, end );
+	}
+
+
+	//	only one thread builds a table for a new snapshot
+	private RoutingTable<T> tableFor( CompactGraph<T> graph ) {
+		RoutingTable<T> current = table;
+		if ( current == null || current.getGraph() != graph ) {
+			synchronized ( this ) {
+				current = table;
+				if ( current == null || current.getGraph() != graph ) {
+					current = new RoutingTable<>( graph, maxTableBytes );
+					table = current;
+				}
+			}
+		}
+		return current;
+	}
+
+}
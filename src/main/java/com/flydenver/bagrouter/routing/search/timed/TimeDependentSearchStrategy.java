@@ -0,0 +1,182 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.timed;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Dijkstra's algorithm on arrival times. Each node is labelled with the earliest
+ * time a bag can be there, and an edge is crossed at the travel time its profile
+ * gives for that moment. Because profiles are FIFO, waiting never helps and the
+ * earliest label is final when it is settled, just like plain Dijkstra.
+ *
+ * The path distance is the total travel time, arrival minus entry time. Searches
+ * through the {@link com.flydenver.bagrouter.routing.search.GraphSearchStrategy}
+ * interface use the strategy's entry time.
+ */
+public class TimeDependentSearchStrategy<T> extends CompactSearchStrategy<T> {
+
+	private final List<TravelTimeProfiles.Profile> profiles = new ArrayList<>();
+	private volatile TravelTimeProfiles<T> compiled;
+	private volatile int entryTime;
+
+
+	/**
+	 * Add the travel time profile of the conveyor between two nodes.
+	 * @see TravelTimeProfiles.Profile#Profile(Object, Object, int[], int[])
+	 */
+	public synchronized void addProfile( Node<T> firstNode, Node<T> secondNode, int[] minutes, int[] travelTimes ) {
+		if ( firstNode == null || secondNode == null ) {
+			throw new IllegalArgumentException( "Null nodes." );
+		}
+		profiles.add( new TravelTimeProfiles.Profile( firstNode.getNodeId(), secondNode.getNodeId(), minutes, travelTimes ) );
+		compiled = null;
+	}
+
+
+	/**
+	 * Entry time, in minutes since midnight, for searches that don't give one.
+	 */
+	public void setEntryTime( int entryTime ) {
+		if ( entryTime < 0 ) {
+			throw new IllegalArgumentException( "Entry time must not be negative" );
+		}
+		this.entryTime = entryTime;
+	}
+
+
+	/**
+	 * Find the quickest path for a bag getting on at the start node at the given time.
+	 * @param entryTime minutes since midnight
+	 */
+	public NodePath<T> findPath( WeightedGraph<T> graph, Node<T> startNode, Node<T> endNode, int entryTime ) {
+		if ( graph == null || startNode == null || endNode == null ) {
+			throw new IllegalArgumentException( "Cannot search null graph or null nodes." );
+		}
+		return findPath( snapshotOf( graph ), startNode, endNode, entryTime );
+	}
+
+
+	/**
+	 * Find the quickest path on a snapshot for a bag getting on at the given time.
+	 * @param entryTime minutes since midnight
+	 */
+	public NodePath<T> findPath( CompactGraph<T> graph, Node<T> startNode, Node<T> endNode, int entryTime ) {
+		if ( graph == null || startNode == null || endNode == null ) {
+			throw new IllegalArgumentException( "Cannot search null graph or null nodes." );
+		}
+		if ( entryTime < 0 ) {
+			throw new IllegalArgumentException( "Entry time must not be negative" );
+		}
+
+		int start = graph.indexOf( startNode );
+		int end = graph.indexOf( endNode );
+		if ( start < 0 || end < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+		if ( start == end ) {
+			return NodePath.toSelf( graph.getNode( start ) );
+		}
+		return findPath( graph, start, end, entryTime );
+	}
+
+
+	@Override
+	public void prepare( CompactGraph<T> graph ) {
+		super.prepare( graph );
+		profilesFor( graph );
+	}
+
+
+	@Override
+	protected CompactGraph<T> preparedSnapshot() {
+		TravelTimeProfiles<T> current = compiled;
+		return current == null ? null : current.getGraph();
+	}
+
+
+	@Override
+	protected NodePath<T> findPath( CompactGraph<T> graph, int start, int end ) {
+		return findPath( graph, start, end, entryTime );
+	}
+
+
+	private NodePath<T> findPath( CompactGraph<T> graph, int start, int end, int entry ) {
+		TravelTimeProfiles<T> times = profilesFor( graph );
+		SearchContext context = searchContext( graph );
+		IndexedMinHeap heap = context.heap();
+		context.update( start, entry, -1 );
+		heap.insertOrDecrease( start, entry );
+
+		while ( ! heap.isEmpty() ) {
+			int u = heap.poll();
+			if ( u == end ) { break; }
+
+			int arriveU = context.distance( u );
+			for ( int slot = graph.edgeStart( u ), last = graph.edgeEnd( u ); slot < last; slot++ ) {
+				int v = graph.edgeTarget( slot );
+				int arriveV = arriveU + times.travelTime( slot, arriveU );
+				if ( arriveV < context.distance( v ) ) {
+					context.update( v, arriveV, u );
+					heap.insertOrDecrease( v, arriveV );
+				}
+			}
+		}
+
+		NodePath<T> path = collectPathNodes( graph, context, start, end );
+		if ( path.getTotalDistance() != Integer.MAX_VALUE ) {
+			path.setTotalDistance( path.getTotalDistance() - entry );
+		}
+		return path;
+	}
+
+
+	//	only one thread attaches the profiles to a new snapshot
+	private TravelTimeProfiles<T> profilesFor( CompactGraph<T> graph ) {
+		TravelTimeProfiles<T> current = compiled;
+		if ( current == null || current.getGraph() != graph ) {
+			synchronized ( this ) {
+				current = compiled;
+				if ( current == null || current.getGraph() != graph ) {
+					current = new TravelTimeProfiles<>( graph, profiles );
+					compiled = current;
+				}
+			}
+		}
+		return current;
+	}
+
+}
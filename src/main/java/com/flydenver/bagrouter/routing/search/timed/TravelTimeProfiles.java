@@ -0,0 +1,211 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.search.timed;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Time of day travel times for the edges of a {@link CompactGraph}. A profile is
+ * a piecewise-linear function over the day, repeating every day. Breakpoints are
+ * packed into one int each, minute of the day in the high bits and travel time in
+ * the low bits, and both directions of an edge share the same profile. Edges
+ * without a profile keep their fixed weight.
+ *
+ * Every profile must be FIFO: getting on later never means getting off earlier,
+ * so the travel time can't drop faster than the clock moves.
+ */
+public class TravelTimeProfiles<T> {
+
+	public static final int minutesPerDay = 24 * 60;
+
+	//	travel time bits; the minute of the day fits above them
+	private static final int travelBits = 20;
+	private static final int travelMask = ( 1 << travelBits ) - 1;
+
+	private final CompactGraph<T> graph;
+	private final int[] slotProfile;
+	private final int[] profileOffsets;
+	private final int[] breakpoints;
+
+
+	/**
+	 * Attach profiles to the edges of a snapshot. Profiles for node pairs that have
+	 * no edge in the snapshot are ignored.
+	 */
+	public TravelTimeProfiles( CompactGraph<T> graph, List<Profile> profiles ) {
+		if ( graph == null || profiles == null ) {
+			throw new IllegalArgumentException( "Null graph or profiles" );
+		}
+		this.graph = graph;
+
+		//	pack every profile once, and find it by its unordered pair of end points
+		Map<Long, Integer> byPair = new HashMap<>( profiles.size() * 2 );
+		profileOffsets = new int[profiles.size() + 1];
+		for ( int p = 0; p < profiles.size(); p++ ) {
+			profileOffsets[p + 1] = profileOffsets[p] + profiles.get( p ).minutes.length;
+		}
+
+		breakpoints = new int[profileOffsets[profiles.size()]];
+		for ( int p = 0; p < profiles.size(); p++ ) {
+			Profile profile = profiles.get( p );
+			for ( int i = 0; i < profile.minutes.length; i++ ) {
+				breakpoints[profileOffsets[p] + i] = ( profile.minutes[i] << travelBits ) | profile.travelTimes[i];
+			}
+
+			int first = graph.indexOf( profile.firstId );
+			int second = graph.indexOf( profile.secondId );
+			if ( first >= 0 && second >= 0 ) {
+				byPair.put( pairKey( first, second ), p );
+			}
+		}
+
+		slotProfile = new int[graph.edgeCount()];
+		Arrays.fill( slotProfile, -1 );
+		for ( int u = 0; u < graph.nodeCount(); u++ ) {
+			for ( int slot = graph.edgeStart( u ); slot < graph.edgeEnd( u ); slot++ ) {
+				Integer p = byPair.get( pairKey( u, graph.edgeTarget( slot ) ) );
+				if ( p != null ) {
+					slotProfile[slot] = p;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * The snapshot the profiles are attached to.
+	 */
+	public CompactGraph<T> getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Travel time along an adjacency slot for a bag getting on at the given time.
+	 * @param time minutes since midnight of the first day; later days repeat the profile
+	 */
+	public int travelTime( int slot, int time ) {
+		int p = slotProfile[slot];
+		if ( p < 0 ) {
+			return graph.edgeWeight( slot );
+		}
+
+		int from = profileOffsets[p];
+		int to = profileOffsets[p + 1];
+		if ( to - from == 1 ) {
+			return breakpoints[from] & travelMask;
+		}
+
+		int minute = time % minutesPerDay;
+
+		//	packed values sort by minute, so search for the last breakpoint at or before
+		//	the minute; before the first one, the previous day's last applies
+		int found = Arrays.binarySearch( breakpoints, from, to, ( minute << travelBits ) | travelMask );
+		int at = found >= 0 ? found : -found - 2;
+		if ( at < from ) { at = to - 1; }
+		int next = at + 1 == to ? from : at + 1;
+
+		int startMinute = breakpoints[at] >>> travelBits;
+		int endMinute = breakpoints[next] >>> travelBits;
+		if ( endMinute <= startMinute ) { endMinute += minutesPerDay; }
+		if ( minute < startMinute ) { minute += minutesPerDay; }
+
+		long startTravel = breakpoints[at] & travelMask;
+		long endTravel = breakpoints[next] & travelMask;
+		return (int) Math.floorDiv( startTravel * ( endMinute - minute ) + endTravel * ( minute - startMinute ), endMinute - startMinute );
+	}
+
+
+	/**
+	 * Approximate memory used by the profiles and their slot index.
+	 */
+	public long sizeInBytes() {
+		return 4L * ( slotProfile.length + profileOffsets.length + breakpoints.length );
+	}
+
+
+	//	same key for both directions
+	private static long pairKey( int u, int v ) {
+		return ( (long) Math.min( u, v ) << 32 ) | Math.max( u, v );
+	}
+
+
+	/**
+	 * Travel times of the conveyor between two nodes over the day.
+	 */
+	public static final class Profile {
+
+		private final Object firstId;
+		private final Object secondId;
+		private final int[] minutes;
+		private final int[] travelTimes;
+
+		/**
+		 * @param firstId id of one end of the conveyor
+		 * @param secondId id of the other end
+		 * @param minutes breakpoint times in increasing minutes since midnight
+		 * @param travelTimes travel time at each breakpoint
+		 */
+		public Profile( Object firstId, Object secondId, int[] minutes, int[] travelTimes ) {
+			if ( firstId == null || secondId == null || minutes == null || travelTimes == null ) {
+				throw new IllegalArgumentException( "Null profile data" );
+			}
+			if ( minutes.length == 0 || minutes.length != travelTimes.length ) {
+				throw new IllegalArgumentException( "Profile needs one travel time per breakpoint" );
+			}
+
+			for ( int i = 0; i < minutes.length; i++ ) {
+				if ( minutes[i] < 0 || minutes[i] >= minutesPerDay || ( i > 0 && minutes[i] <= minutes[i - 1] ) ) {
+					throw new IllegalArgumentException( "Profile times must increase within the day" );
+				}
+				if ( travelTimes[i] < 0 || travelTimes[i] > travelMask ) {
+					throw new IllegalArgumentException( "Travel time out of range" );
+				}
+			}
+
+			//	FIFO: across each segment, including the one wrapping past midnight
+			for ( int i = 0; i < minutes.length && minutes.length > 1; i++ ) {
+				int next = ( i + 1 ) % minutes.length;
+				int span = next == 0 ? minutes[0] + minutesPerDay - minutes[i] : minutes[next] - minutes[i];
+				if ( travelTimes[next] - travelTimes[i] < -span ) {
+					throw new IllegalArgumentException( "Profile between " + firstId + " and " + secondId + " is not FIFO" );
+				}
+			}
+
+			this.firstId = firstId;
+			this.secondId = secondId;
+			this.minutes = minutes.clone();
+			this.travelTimes = travelTimes.clone();
+		}
+	}
+
+}
@@ -0,0 +1,270 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.store;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+
+/**
+ * {@link CompactGraph} read in place from a buffer in the {@link TopologyLayout}
+ * form, usually a memory mapped compiled topology. Searches read the adjacency
+ * straight out of the buffer. Node ids are looked up in the buffer's own hash
+ * table, and {@link Node}s are only created for the indices that get asked for.
+ *
+ * Node ids are stored as strings, and the item factory turns them back into node
+ * items, such as {@code TerminalGate::new}.
+ *
+ * {@link #allocateDirect(CompactGraph, Function)} keeps the same layout in direct
+ * memory instead, for conveyor systems too large to keep as objects. The collector
+ * never scans or copies it, so heap use and pauses don't grow with the graph. Built
+ * from a {@link com.flydenver.bagrouter.routing.GraphBuilder} snapshot, there is no
+ * object graph behind it at all, and only the nodes searches ask for are on the heap.
+ */
+public class BufferGraph<T> extends CompactGraph<T> {
+
+	private final ByteBuffer buffer;
+	private final Function<String, T> itemFactory;
+	private final int nodeCount;
+	private final int slotCount;
+	private final int maxWeight;
+	private final int tableMask;
+	private final IntBuffer offsets;
+	private final IntBuffer targets;
+	private final IntBuffer weights;
+	private final IntBuffer idOffsets;
+	private final IntBuffer idTable;
+	private final int idBytesAt;
+	private final AtomicReferenceArray<Node<T>> nodes;
+
+
+	/**
+	 * Copy a snapshot into direct memory, outside of the heap, so the heap snapshot
+	 * can be dropped once it's taken. The copy has no source graph, like a compiled
+	 * topology. Direct memory is capped by {@code -XX:MaxDirectMemorySize}.
+	 */
+	public static <T> BufferGraph<T> allocateDirect( CompactGraph<T> snapshot, Function<String, T> itemFactory ) {
+		if ( snapshot == null || itemFactory == null ) {
+			throw new IllegalArgumentException( "Null snapshot or item factory" );
+		}
+
+		ByteBuffer buffer = TopologyLayout.encode( snapshot, null, ByteBuffer::allocateDirect );
+		return new BufferGraph<>( buffer, itemFactory, null, 0 );
+	}
+
+
+	/**
+	 * Copy the current state of a graph into direct memory, outside of the heap.
+	 * Closed conveyors are left out. The copy is a snapshot of the graph, and goes
+	 * stale like any other once the graph changes.
+	 */
+	public static <T> BufferGraph<T> allocateDirect( WeightedGraph<T> graph, Function<String, T> itemFactory ) {
+		if ( graph == null || itemFactory == null ) {
+			throw new IllegalArgumentException( "Null graph or item factory" );
+		}
+
+		//	read the version first, so a change during the copy leaves it stale
+		long version = graph.getVersion();
+		ByteBuffer buffer = TopologyLayout.encode( CompactGraph.fromGraph( graph ), null, ByteBuffer::allocateDirect );
+		return new BufferGraph<>( buffer, itemFactory, graph, version );
+	}
+
+
+	/**
+	 * Read a graph laid out in the buffer.
+	 * @throws IllegalArgumentException if the buffer isn't a compiled topology of this format version
+	 */
+	public BufferGraph( ByteBuffer buffer, Function<String, T> itemFactory ) {
+		this( buffer, itemFactory, null, 0 );
+	}
+
+
+	private BufferGraph( ByteBuffer buffer, Function<String, T> itemFactory, WeightedGraph<T> sourceGraph, long sourceVersion ) {
+		super( sourceGraph, sourceVersion );
+		if ( buffer == null || itemFactory == null ) {
+			throw new IllegalArgumentException( "Null buffer or item factory" );
+		}
+
+		this.buffer = buffer.duplicate().order( TopologyLayout.order );
+		this.itemFactory = itemFactory;
+		if ( this.buffer.capacity() < TopologyLayout.headerSize || this.buffer.getInt( TopologyLayout.magicAt ) != TopologyLayout.magic ) {
+			throw new IllegalArgumentException( "Not a compiled topology." );
+		}
+		int version = this.buffer.getInt( TopologyLayout.versionAt );
+		if ( version != TopologyLayout.formatVersion ) {
+			throw new IllegalArgumentException( "Unsupported compiled topology version " + version + "." );
+		}
+
+		nodeCount = this.buffer.getInt( TopologyLayout.nodeCountAt );
+		slotCount = this.buffer.getInt( TopologyLayout.slotCountAt );
+		maxWeight = this.buffer.getInt( TopologyLayout.maxWeightAt );
+		int tableSize = this.buffer.getInt( TopologyLayout.tableSizeAt );
+		tableMask = tableSize - 1;
+
+		long idBytesAt = TopologyLayout.offsetOf( nodeCount, slotCount, tableSize );
+		if ( idBytesAt + this.buffer.getInt( TopologyLayout.idByteCountAt ) > this.buffer.capacity() ) {
+			throw new IllegalArgumentException( "Compiled topology is truncated." );
+		}
+		this.idBytesAt = (int) idBytesAt;
+
+		int at = TopologyLayout.headerSize;
+		offsets = ints( at, nodeCount + 1 );
+		targets = ints( at += 4 * ( nodeCount + 1 ), slotCount );
+		weights = ints( at += 4 * slotCount, slotCount );
+		idOffsets = ints( at += 4 * slotCount, nodeCount + 1 );
+		idTable = ints( at + 4 * ( nodeCount + 1 ), tableSize );
+		nodes = new AtomicReferenceArray<>( nodeCount );
+	}
+
+
+	//	int view of one section
+	private IntBuffer ints( int at, int count ) {
+		ByteBuffer section = buffer.duplicate();
+		section.position( at );
+		section.limit( at + 4 * count );
+		return section.slice().order( TopologyLayout.order ).asIntBuffer();
+	}
+
+
+	/**
+	 * Check if the layout is in direct memory rather than a heap array.
+	 */
+	public boolean isDirect() {
+		return buffer.isDirect();
+	}
+
+
+	/**
+	 * The whole layout, read only.
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer.asReadOnlyBuffer().order( TopologyLayout.order );
+	}
+
+
+	@Override
+	public int nodeCount() {
+		return nodeCount;
+	}
+
+	@Override
+	public int edgeCount() {
+		return slotCount;
+	}
+
+	@Override
+	public int maxWeight() {
+		return maxWeight;
+	}
+
+
+	@Override
+	public int indexOf( Object nodeId ) {
+		if ( nodeId == null || nodeCount == 0 ) {
+			return -1;
+		}
+
+		String id = String.valueOf( nodeId );
+		byte[] bytes = id.getBytes( StandardCharsets.UTF_8 );
+		for ( int bucket = TopologyLayout.hash( id ) & tableMask; ; bucket = ( bucket + 1 ) & tableMask ) {
+			int entry = idTable.get( bucket );
+			if ( entry == 0 ) {
+				return -1;
+			}
+			if ( idEquals( entry - 1, bytes ) ) {
+				return entry - 1;
+			}
+		}
+	}
+
+
+	private boolean idEquals( int node, byte[] bytes ) {
+		int from = idOffsets.get( node );
+		if ( idOffsets.get( node + 1 ) - from != bytes.length ) {
+			return false;
+		}
+		for ( int i = 0; i < bytes.length; i++ ) {
+			if ( buffer.get( idBytesAt + from + i ) != bytes[i] ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Node id of an index, as stored.
+	 */
+	public String nodeId( int index ) {
+		int from = idOffsets.get( index );
+		byte[] bytes = new byte[idOffsets.get( index + 1 ) - from];
+		for ( int i = 0; i < bytes.length; i++ ) {
+			bytes[i] = buffer.get( idBytesAt + from + i );
+		}
+		return new String( bytes, StandardCharsets.UTF_8 );
+	}
+
+
+	//	racing threads may both create the node, but only the first one is published
+	@Override
+	public Node<T> getNode( int index ) {
+		Node<T> node = nodes.get( index );
+		if ( node == null ) {
+			nodes.compareAndSet( index, null, new Node<>( itemFactory.apply( nodeId( index ) ) ) );
+			node = nodes.get( index );
+		}
+		return node;
+	}
+
+
+	@Override
+	public int edgeStart( int index ) {
+		return offsets.get( index );
+	}
+
+	@Override
+	public int edgeEnd( int index ) {
+		return offsets.get( index + 1 );
+	}
+
+	@Override
+	public int edgeTarget( int slot ) {
+		return targets.get( slot );
+	}
+
+	@Override
+	public int edgeWeight( int slot ) {
+		return weights.get( slot );
+	}
+
+}
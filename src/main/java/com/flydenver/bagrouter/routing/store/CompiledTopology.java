@@ -0,0 +1,224 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.store;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.Node;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.Searchable;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.hub.HubLabels;
+import com.flydenver.bagrouter.routing.search.ksp.YenKShortestPaths;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * A conveyor system compiled by {@link TopologyCompiler}, memory mapped read only
+ * and searched in place. Opening it only maps the file and checks the header, and
+ * every process mapping the same file shares one copy in the page cache.
+ *
+ * Searches use the hub labels stored in the file, if there are any, and otherwise
+ * the search strategy, {@link IndexedDijkstraSearchStrategy} by default. The labels
+ * are read on the first search. Nodes in different components are rejected before
+ * searching, like {@link com.flydenver.bagrouter.routing.search.SearchableGraph}
+ * does; the components are labeled on the first search too.
+ */
+public class CompiledTopology<T> implements Searchable<T> {
+
+	private final BufferGraph<T> graph;
+	private final long openMillis;
+	private final YenKShortestPaths<T> alternatePaths = new YenKShortestPaths<>();
+	private CompactSearchStrategy<T> searchStrategy = new IndexedDijkstraSearchStrategy<>();
+	private volatile HubLabels<T> hubLabels;
+	private volatile boolean hubLabelsRead;
+
+
+	private CompiledTopology( BufferGraph<T> graph, long openMillis ) {
+		this.graph = graph;
+		this.openMillis = openMillis;
+	}
+
+
+	/**
+	 * Map a compiled topology file.
+	 * @param itemFactory turns the stored node ids back into node items
+	 * @throws IOException if the file can't be mapped, or isn't a compiled topology
+	 */
+	public static <T> CompiledTopology<T> open( Path file, Function<String, T> itemFactory ) throws IOException {
+		if ( file == null || itemFactory == null ) {
+			throw new IllegalArgumentException( "Null file or item factory" );
+		}
+
+		long started = System.currentTimeMillis();
+		MappedByteBuffer mapped;
+		try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) ) {
+			mapped = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+		}
+
+		try {
+			return new CompiledTopology<>( new BufferGraph<>( mapped, itemFactory ), System.currentTimeMillis() - started );
+		}
+		catch ( IllegalArgumentException e ) {
+			throw new IOException( e.getMessage() + " " + file, e );
+		}
+	}
+
+
+	/**
+	 * The mapped graph, which any {@link CompactSearchStrategy} can search.
+	 */
+	public CompactGraph<T> getGraph() {
+		return graph;
+	}
+
+
+	/**
+	 * Time it took to map and check the file.
+	 */
+	public long getOpenMillis() {
+		return openMillis;
+	}
+
+
+	/**
+	 * Strategy for searches when the file has no hub labels.
+	 */
+	public void setSearchStrategy( CompactSearchStrategy<T> searchStrategy ) {
+		if ( searchStrategy == null ) {
+			throw new IllegalArgumentException( "Null search strategy" );
+		}
+		this.searchStrategy = searchStrategy;
+	}
+
+
+	/**
+	 * Hub labels stored in the file, null if there aren't any.
+	 */
+	public HubLabels<T> getHubLabels() {
+		if ( ! hubLabelsRead ) {
+			synchronized ( this ) {
+				if ( ! hubLabelsRead ) {
+					hubLabels = readHubLabels();
+					hubLabelsRead = true;
+				}
+			}
+		}
+		return hubLabels;
+	}
+
+
+	private HubLabels<T> readHubLabels() {
+		ByteBuffer buffer = graph.getBuffer();
+		int length = buffer.getInt( TopologyLayout.labelLengthAt );
+		if ( length == 0 ) {
+			return null;
+		}
+
+		int at = buffer.getInt( TopologyLayout.labelOffsetAt );
+		buffer.position( at );
+		buffer.limit( at + length );
+		try {
+			return HubLabels.read( new BufferInputStream( buffer.slice() ), graph );
+		}
+		catch ( IOException e ) {
+			throw new IllegalStateException( "Bad hub labels in compiled topology. " + e.getMessage(), e );
+		}
+	}
+
+
+	@Override
+	public NodePath<T> findOptimalPath( Node<T> startNode, Node<T> endNode ) throws SearchRouteException {
+		if ( startNode == null || endNode == null ) {
+			throw new IllegalArgumentException( "Cannot search null nodes." );
+		}
+
+		int start = graph.indexOf( startNode );
+		int end = graph.indexOf( endNode );
+		if ( start >= 0 && end >= 0 && graph.isDisconnected( start, end ) ) {
+			throw SearchRouteException.notConnected( startNode, endNode );
+		}
+
+		HubLabels<T> labels = getHubLabels();
+		if ( labels == null ) {
+			return searchStrategy.findPath( graph, startNode, endNode );
+		}
+
+		if ( start < 0 || end < 0 ) {
+			throw new IllegalArgumentException( "Node is not in the graph." );
+		}
+		if ( start == end ) {
+			return NodePath.toSelf( graph.getNode( start ) );
+		}
+		return labels.path( start, end );
+	}
+
+
+	@Override
+	public List<NodePath<T>> findAlternatePaths( Node<T> startNode, Node<T> endNode, int k ) {
+		if ( startNode == null || endNode == null ) {
+			throw new IllegalArgumentException( "Cannot search null nodes." );
+		}
+		return alternatePaths.findPaths( graph, startNode, endNode, k );
+	}
+
+
+	//	stream over a buffer slice, for reading the hub labels
+	private static final class BufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		BufferInputStream( ByteBuffer buffer ) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read( byte[] bytes, int offset, int length ) {
+			if ( ! buffer.hasRemaining() ) {
+				return -1;
+			}
+			int count = Math.min( length, buffer.remaining() );
+			buffer.get( bytes, offset, count );
+			return count;
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.store;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+import com.flydenver.bagrouter.routing.WeightedGraph;
+import com.flydenver.bagrouter.routing.search.hub.HubLabels;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Compiles a conveyor system to a binary file that {@link CompiledTopology} maps
+ * straight into memory, so later runs skip parsing and building the graph. The
+ * file can also carry {@link HubLabels}, so they don't have to be built again.
+ *
+ * The file is written beside the target and renamed into place, so processes that
+ * already have the old file mapped keep reading the old copy.
+ */
+public class TopologyCompiler<T> {
+
+	private boolean includeHubLabels;
+
+
+	/**
+	 * Build hub labels and store them in the file.
+	 */
+	public void setIncludeHubLabels( boolean includeHubLabels ) {
+		this.includeHubLabels = includeHubLabels;
+	}
+
+
+	/**
+	 * Compile the current state of the graph. Closed conveyors are left out.
+	 */
+	public void compile( WeightedGraph<T> graph, Path file ) throws IOException {
+		if ( graph == null || file == null ) {
+			throw new IllegalArgumentException( "Null graph or file" );
+		}
+
+		//	fail before building labels if there's nowhere to put the file
+		Path absolute = file.toAbsolutePath();
+		if ( ! Files.isDirectory( absolute.getParent() ) ) {
+			throw new NoSuchFileException( absolute.getParent().toString(), null, "No such directory" );
+		}
+
+		CompactGraph<T> snapshot = CompactGraph.fromGraph( graph );
+		byte[] labels = null;
+		if ( includeHubLabels ) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			new HubLabels<>( snapshot ).write( bytes );
+			labels = bytes.toByteArray();
+		}
+
+		ByteBuffer buffer = TopologyLayout.encode( snapshot, labels, ByteBuffer::allocate );
+		Path partial = Files.createTempFile( absolute.getParent(), absolute.getFileName().toString(), ".partial" );
+		try {
+			try ( FileChannel channel = FileChannel.open( partial, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) ) {
+				while ( buffer.hasRemaining() ) {
+					channel.write( buffer );
+				}
+				channel.force( false );
+			}
+			Files.move( partial, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		finally {
+			Files.deleteIfExists( partial );
+		}
+	}
+
+}
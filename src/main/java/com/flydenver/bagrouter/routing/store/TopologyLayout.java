@@ -0,0 +1,175 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing.store;
+
+import com.flydenver.bagrouter.routing.CompactGraph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+
+
+/**
+ * Binary layout of a compiled conveyor system. Everything is little-endian, and
+ * every section starts on a four byte boundary so it can be read as ints in place.
+ * <pre>
+ *     header       magic, format version, node count, slot count, max weight,
+ *                  hash table size, id byte count, hub label offset and length
+ *     offsets      int[nodeCount + 1]   adjacency slice of each node
+ *     targets      int[slotCount]       far node of each slot
+ *     weights      int[slotCount]       weight of each slot
+ *     idOffsets    int[nodeCount + 1]   id bytes of each node
+ *     idTable      int[tableSize]       open addressed node id hash, index + 1
+ *     idBytes      byte[idByteCount]    UTF-8 node ids
+ *     labels       byte[labelLength]    optional hub labels, as written by HubLabels
+ * </pre>
+ */
+final class TopologyLayout {
+
+	static final int magic = 0x54474142;		//	"BAGT"
+	static final int formatVersion = 1;
+	static final ByteOrder order = ByteOrder.LITTLE_ENDIAN;
+
+	static final int magicAt = 0;
+	static final int versionAt = 4;
+	static final int nodeCountAt = 8;
+	static final int slotCountAt = 12;
+	static final int maxWeightAt = 16;
+	static final int tableSizeAt = 20;
+	static final int idByteCountAt = 24;
+	static final int labelOffsetAt = 28;
+	static final int labelLengthAt = 32;
+	static final int headerSize = 36;
+
+
+	private TopologyLayout() { }
+
+
+	/**
+	 * Lay out a snapshot, and any hub labels, in a buffer from the allocator.
+	 * @param labels hub label bytes, or null for none
+	 * @return the filled buffer, positioned at 0
+	 */
+	static ByteBuffer encode( CompactGraph<?> graph, byte[] labels, IntFunction<ByteBuffer> allocator ) {
+		int nodeCount = graph.nodeCount();
+		int slotCount = graph.edgeCount();
+		int tableSize = tableSize( nodeCount );
+
+		byte[][] ids = new byte[nodeCount][];
+		long idByteCount = 0;
+		for ( int node = 0; node < nodeCount; node++ ) {
+			ids[node] = nodeId( graph, node ).getBytes( StandardCharsets.UTF_8 );
+			idByteCount += ids[node].length;
+		}
+
+		long idBytesAt = offsetOf( nodeCount, slotCount, tableSize );
+		long labelsAt = align( idBytesAt + idByteCount );
+		long size = labelsAt + ( labels == null ? 0 : labels.length );
+		if ( size > Integer.MAX_VALUE ) {
+			throw new IllegalArgumentException( "Conveyor system is too large to compile, " + size + " bytes." );
+		}
+
+		ByteBuffer buffer = allocator.apply( (int) size ).order( order );
+		buffer.putInt( magicAt, magic );
+		buffer.putInt( versionAt, formatVersion );
+		buffer.putInt( nodeCountAt, nodeCount );
+		buffer.putInt( slotCountAt, slotCount );
+		buffer.putInt( maxWeightAt, graph.maxWeight() );
+		buffer.putInt( tableSizeAt, tableSize );
+		buffer.putInt( idByteCountAt, (int) idByteCount );
+		buffer.putInt( labelOffsetAt, labels == null ? 0 : (int) labelsAt );
+		buffer.putInt( labelLengthAt, labels == null ? 0 : labels.length );
+
+		int at = headerSize;
+		for ( int node = 0; node <= nodeCount; node++, at += 4 ) {
+			buffer.putInt( at, node < nodeCount ? graph.edgeStart( node ) : slotCount );
+		}
+		for ( int slot = 0; slot < slotCount; slot++, at += 4 ) {
+			buffer.putInt( at, graph.edgeTarget( slot ) );
+		}
+		for ( int slot = 0; slot < slotCount; slot++, at += 4 ) {
+			buffer.putInt( at, graph.edgeWeight( slot ) );
+		}
+
+		int idOffset = 0;
+		for ( int node = 0; node <= nodeCount; node++, at += 4 ) {
+			buffer.putInt( at, idOffset );
+			if ( node < nodeCount ) {
+				idOffset += ids[node].length;
+			}
+		}
+
+		//	linear probing, the table is at most half full
+		int tableAt = at;
+		for ( int node = 0; node < nodeCount; node++ ) {
+			int bucket = hash( nodeId( graph, node ) ) & ( tableSize - 1 );
+			while ( buffer.getInt( tableAt + bucket * 4 ) != 0 ) {
+				bucket = ( bucket + 1 ) & ( tableSize - 1 );
+			}
+			buffer.putInt( tableAt + bucket * 4, node + 1 );
+		}
+
+		ByteBuffer writer = buffer.duplicate();
+		writer.position( (int) idBytesAt );
+		for ( byte[] id : ids ) {
+			writer.put( id );
+		}
+		if ( labels != null ) {
+			writer.position( (int) labelsAt );
+			writer.put( labels );
+		}
+
+		buffer.position( 0 );
+		return buffer;
+	}
+
+
+	//	byte offset of the id bytes, everything before it is ints
+	static long offsetOf( int nodeCount, int slotCount, int tableSize ) {
+		return headerSize + 4L * ( ( nodeCount + 1 ) * 2L + slotCount * 2L + tableSize );
+	}
+
+	//	power of two with room to spare, so probes stay short
+	static int tableSize( int nodeCount ) {
+		return Integer.highestOneBit( Math.max( 1, nodeCount ) * 2 - 1 ) << 1;
+	}
+
+	//	spread String.hashCode, which is the same on every JVM
+	static int hash( String id ) {
+		int h = id.hashCode();
+		return h ^ ( h >>> 16 );
+	}
+
+	static String nodeId( CompactGraph<?> graph, int node ) {
+		return String.valueOf( graph.getNode( node ).getNodeId() );
+	}
+
+	private static long align( long offset ) {
+		return ( offset + 3 ) & ~3L;
+	}
+
+}
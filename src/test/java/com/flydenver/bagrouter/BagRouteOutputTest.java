@@ -37,6 +37,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.LinkedList;
 
 import static org.junit.Assert.*;
 
@@ -73,6 +74,32 @@ public class BagRouteOutputTest {
 		assertEquals( sw.toString(), String.format( "%s %s %s %s %s : %d%s", bag.getBagNumber(), t1, t2, t3, t4, nodePath.getTotalDistance(), newline ) );
 	}
 
+	@Test
+	public void testReusedBuffer() throws IOException {
+		StringWriter sw = new StringWriter(  );
+		BagRouteOutput out = new BagRouteOutput( sw );
+		BagRoute late = new BagRoute( bag, nodePath );
+		late.setLate( true );
+
+		TerminalGate[] gates = new TerminalGate[60];
+		Node<TerminalGate>[] nodes = new Node[60];
+		StringBuilder expected = new StringBuilder( "0003 " );
+		for ( int i = 0; i < gates.length; i++ ) {
+			gates[i] = new TerminalGate( "Concourse_" + i );
+			nodes[i] = new Node<>( gates[i] );
+			expected.append( gates[i] ).append( ' ' );
+		}
+		BagRoute longRoute = new BagRoute( new PassengerBag( "0003" ), new NodePath<>( new LinkedList<>( Arrays.asList( nodes ) ), 120 ) );
+
+		out.writeln( late );
+		out.writeln( longRoute );
+		out.write( late );
+		out.flush();
+
+		String lateRow = String.format( "%s %s %s %s %s : %d LATE", bag.getBagNumber(), t1, t2, t3, t4, nodePath.getTotalDistance() );
+		assertEquals( lateRow + newline + expected + ": 120" + newline + lateRow, sw.toString() );
+	}
+
 	/*
 
 	Could not run this with gradle with java 8. Works in Intellij, but not gradle.
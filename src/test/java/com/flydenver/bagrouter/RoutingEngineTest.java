@@ -25,14 +25,26 @@
 
 package com.flydenver.bagrouter;
 
+import com.flydenver.bagrouter.domain.TerminalGate;
 import com.flydenver.bagrouter.lexer.RoutingInput;
 import com.flydenver.bagrouter.routing.RoutingException;
+import com.flydenver.bagrouter.routing.search.table.RoutingTableSearchStrategy;
+import com.flydenver.bagrouter.routing.store.CompiledTopology;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 /**
@@ -67,4 +79,307 @@ public class RoutingEngineTest {
 		assertEquals( sampleOutput.toString(), sw.toString() );
 	}
 
+
+	@Test
+	public void testExecuteBatch() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		RoutingInput input = new RoutingInput( "routing-input.txt" );
+		BagRouteOutput output = new BagRouteOutput( sw );
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setBatchRouting( true );
+		engine.executeSearch( input, output );
+		engine.cleanup();
+
+		assertEquals( sampleOutput.toString(), sw.toString() );
+	}
+
+
+	@Test
+	public void testExecuteOffHeap() throws RoutingException {
+		for ( boolean batch : new boolean[]{ false, true } ) {
+			StringWriter sw = new StringWriter(  );
+			RoutingEngine engine = new RoutingEngine();
+			engine.setBaggageClaimId( "BaggageClaim" );
+			engine.setBatchRouting( batch );
+			engine.setOffHeapGraph( true );
+			engine.executeSearch( new RoutingInput( "routing-input.txt" ), new BagRouteOutput( sw ) );
+			engine.cleanup();
+
+			assertEquals( sampleOutput.toString(), sw.toString() );
+		}
+	}
+
+
+	@Test
+	public void testExecuteOffHeapCapacity() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setCapacityRouting( true );
+		engine.setOffHeapGraph( true );
+		engine.executeSearch( new RoutingInput( "routing-input-capacity.txt" ), new BagRouteOutput( sw ) );
+		engine.cleanup();
+
+		assertEquals( sampleOutput.toString(), sw.toString() );
+	}
+
+
+	@Test
+	public void testExecuteParallel() throws RoutingException {
+		for ( boolean batch : new boolean[]{ false, true } ) {
+			StringWriter sw = new StringWriter(  );
+			RoutingInput input = new RoutingInput( "routing-input.txt" );
+			BagRouteOutput output = new BagRouteOutput( sw );
+			RoutingEngine engine = new RoutingEngine();
+			engine.setBaggageClaimId( "BaggageClaim" );
+			engine.setBatchRouting( batch );
+			engine.setParallelism( 4 );
+			engine.setChunkSize( 1 );
+			engine.executeSearch( input, output );
+			engine.cleanup();
+
+			assertEquals( sampleOutput.toString(), sw.toString() );
+		}
+	}
+
+
+	@Test
+	public void testExecuteCached() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		RoutingInput input = new RoutingInput( "routing-input.txt" );
+		BagRouteOutput output = new BagRouteOutput( sw );
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setRouteCacheSize( 10 );
+		engine.executeSearch( input, output );
+		engine.cleanup();
+
+		assertEquals( sampleOutput.toString(), sw.toString() );
+	}
+
+
+	@Test
+	public void testExecuteProfiles() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setEntryTime( 6 * 60 );
+		engine.executeSearch( new RoutingInput( "routing-input-profiles.txt" ), new BagRouteOutput( sw ) );
+		engine.cleanup();
+		assertEquals( sampleOutput.toString(), sw.toString() );
+
+		sw = new StringWriter(  );
+		engine.setEntryTime( 8 * 60 + 15 );
+		engine.executeSearch( new RoutingInput( "routing-input-profiles.txt" ), new BagRouteOutput( sw ) );
+		engine.cleanup();
+		assertEquals( "0001 Concourse_A_Ticketing A5 A1 : 13\n" +
+				"0002 A5 A1 A2 A3 A4 : 9\n" +
+				"0003 A2 A1 : 1\n" +
+				"0004 A8 A9 A10 A5 : 14\n" +
+				"0005 A7 A8 A9 A10 A5 BaggageClaim : 20\n", sw.toString() );
+	}
+
+
+	@Test
+	public void testBadEntryTimeProperty() {
+		String old = System.getProperty( "router.search.entryTime" );
+		System.setProperty( "router.search.entryTime", "9am" );
+		try {
+			try {
+				RoutingEngine.entryTimeDefault();
+				fail( "Bad entry time accepted." );
+			}
+			catch ( IllegalArgumentException e ) {
+				assertTrue( e.getMessage().contains( "9am" ) );
+			}
+
+			RoutingEngine engine = new RoutingEngine();
+			engine.setBaggageClaimId( "BaggageClaim" );
+			try {
+				engine.executeSearch( new RoutingInput( "routing-input.txt" ), new BagRouteOutput( new StringWriter() ) );
+				fail( "Routed with a bad entry time." );
+			}
+			catch ( RoutingException e ) {
+				assertTrue( e.getMessage().contains( "router.search.entryTime" ) );
+			}
+			finally {
+				engine.cleanup();
+			}
+
+			System.setProperty( "router.search.entryTime", "09:30" );
+			assertEquals( 9 * 60 + 30, RoutingEngine.entryTimeDefault() );
+		}
+		finally {
+			if ( old == null ) {
+				System.clearProperty( "router.search.entryTime" );
+			}
+			else {
+				System.setProperty( "router.search.entryTime", old );
+			}
+		}
+	}
+
+
+	@Test
+	public void testExecuteTable() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setSearchStrategy( new RoutingTableSearchStrategy<>() );
+		engine.executeSearch( new RoutingInput( "routing-input.txt" ), new BagRouteOutput( sw ) );
+		engine.cleanup();
+
+		assertEquals( sampleOutput.toString(), sw.toString() );
+	}
+
+
+	@Test
+	public void testTableRefusedBeforeRouting() {
+		List<BagRoute> routed = new ArrayList<>();
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setSearchStrategy( new RoutingTableSearchStrategy<>( 1 ) );
+		engine.setRouteListener( routed::add );
+		try {
+			engine.executeSearch( new RoutingInput( "routing-input.txt" ), new BagRouteOutput( new StringWriter() ) );
+			fail( "Expected the table to be refused" );
+		}
+		catch ( RoutingException e ) {
+			assertTrue( e.getMessage().contains( "too large" ) );
+		}
+		finally {
+			engine.cleanup();
+		}
+		assertTrue( routed.isEmpty() );
+	}
+
+
+	@Test
+	public void testExecuteCapacity() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setCapacityRouting( true );
+		engine.executeSearch( new RoutingInput( "routing-input-capacity.txt" ), new BagRouteOutput( sw ) );
+		engine.cleanup();
+
+		//	the sample conveyors have no alternate routes to divert to
+		assertEquals( sampleOutput.toString(), sw.toString() );
+	}
+
+
+	@Test
+	public void testExecuteDeadlines() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		List<String> routed = new ArrayList<>();
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setDeadlineRouting( true );
+		engine.setEntryTime( 9 * 60 );
+		engine.setRouteListener( route -> routed.add( route.getBag().getBagNumber() ) );
+		engine.executeSearch( new RoutingInput( "routing-input.txt" ), new BagRouteOutput( sw ) );
+		engine.cleanup();
+
+		//	routed by flight time, written in input order, and UA10 left at 08:00
+		assertEquals( Arrays.asList( "0003", "0002", "0001", "0004", "0005" ), routed );
+		assertEquals( sampleOutput.toString().replace( "0003 A2 A1 : 1", "0003 A2 A1 : 1 LATE" ), sw.toString() );
+	}
+
+
+	@Test
+	public void testExecuteParallelDeadlines() throws RoutingException {
+		for ( int run = 0; run < 20; run++ ) {
+			StringWriter sw = new StringWriter(  );
+			//	not thread-safe, the engine calls the listener one route at a time
+			List<String> routed = new ArrayList<>();
+			RoutingEngine engine = new RoutingEngine();
+			engine.setBaggageClaimId( "BaggageClaim" );
+			engine.setDeadlineRouting( true );
+			engine.setEntryTime( 9 * 60 );
+			engine.setParallelism( 4 );
+			engine.setChunkSize( 1 );
+			engine.setRouteListener( route -> routed.add( route.getBag().getBagNumber() ) );
+			engine.executeSearch( new RoutingInput( "routing-input.txt" ), new BagRouteOutput( sw ) );
+			engine.cleanup();
+
+			Collections.sort( routed );
+			assertEquals( Arrays.asList( "0001", "0002", "0003", "0004", "0005" ), routed );
+			assertEquals( sampleOutput.toString().replace( "0003 A2 A1 : 1", "0003 A2 A1 : 1 LATE" ), sw.toString() );
+		}
+	}
+
+
+	@Test
+	public void testExecuteDeadlinesAfterMidnight() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		List<String> routed = new ArrayList<>();
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setDeadlineRouting( true );
+		engine.setEntryTime( 23 * 60 + 50 );
+		engine.setRouteListener( route -> routed.add( route.getBag().getBagNumber() ) );
+		engine.executeSearch( new RoutingInput( "routing-input.txt" ), new BagRouteOutput( sw ) );
+		engine.cleanup();
+
+		//	every flight leaves the next morning, so nothing is late
+		assertEquals( Arrays.asList( "0003", "0002", "0001", "0004", "0005" ), routed );
+		assertEquals( sampleOutput.toString(), sw.toString() );
+	}
+
+
+	@Test
+	public void testExecuteSelfRoutes() throws RoutingException {
+		String expected = "0001 A1 A1 : 0\n0002 BaggageClaim BaggageClaim : 0\n0003 A2 A1 : 1\n";
+		for ( boolean batch : new boolean[]{ false, true } ) {
+			StringWriter sw = new StringWriter(  );
+			RoutingEngine engine = new RoutingEngine();
+			engine.setBaggageClaimId( "BaggageClaim" );
+			engine.setBatchRouting( batch );
+			engine.executeSearch( new RoutingInput( "routing-input-self.txt" ), new BagRouteOutput( sw ) );
+			engine.cleanup();
+
+			assertEquals( expected, sw.toString() );
+		}
+	}
+
+
+	@Test
+	public void testExecuteDisconnected() throws RoutingException {
+		StringWriter sw = new StringWriter(  );
+		RoutingEngine engine = new RoutingEngine();
+		engine.setBaggageClaimId( "BaggageClaim" );
+		engine.setDeadlineRouting( true );
+		engine.executeSearch( new RoutingInput( "routing-input-disconnected.txt" ), new BagRouteOutput( sw ) );
+		engine.cleanup();
+
+		assertEquals( "0001 Concourse_A_Ticketing A5 A1 : 11\n0002 A2 B2 : UNROUTABLE\n0003 B1 B2 : 2\n", sw.toString() );
+	}
+
+
+	@Test
+	public void testExecuteCompiled() throws RoutingException, IOException {
+		Path file = Files.createTempFile( "topology", ".bin" );
+		try {
+			RoutingEngine engine = new RoutingEngine();
+			engine.setBaggageClaimId( "BaggageClaim" );
+			engine.compileTopology( new RoutingInput( "routing-input.txt" ), file, false );
+			engine.setCompiledTopology( CompiledTopology.open( file, TerminalGate::new ) );
+
+			StringWriter sw = new StringWriter(  );
+			engine.executeSearch( new RoutingInput( "routing-input.txt" ), new BagRouteOutput( sw ) );
+			engine.cleanup();
+			assertEquals( sampleOutput.toString(), sw.toString() );
+		}
+		finally {
+			Files.deleteIfExists( file );
+		}
+	}
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testBadParallelism() {
+		new RoutingEngine().setParallelism( 0 );
+	}
+
 }
@@ -37,6 +37,7 @@ import org.junit.runners.Suite;
 		FlightTest.class,
 		FlightIdTest.class,
 		TerminalGateTest.class,
-		BagTest.class
+		BagTest.class,
+		SymbolTableTest.class
 })
 public class DomainSuite {}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.domain;
+
+
+import com.flydenver.bagrouter.lexer.ParseException;
+import com.flydenver.bagrouter.lexer.section.bag.BagEntry;
+import com.flydenver.bagrouter.lexer.section.bag.BagRowParser;
+import com.flydenver.bagrouter.lexer.section.departure.Departure;
+import com.flydenver.bagrouter.lexer.section.departure.DepartureRowParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+public class SymbolTableTest {
+
+	@Test
+	public void testIntern() {
+		SymbolTable symbols = new SymbolTable();
+		assertEquals( 0, symbols.intern( "A1" ) );
+		assertEquals( 1, symbols.intern( "UA10" ) );
+		assertEquals( 0, symbols.intern( new String( "A1" ) ) );
+		assertEquals( 2, symbols.size() );
+		assertEquals( "UA10", symbols.name( 1 ) );
+		assertEquals( SymbolTable.NO_SYMBOL, symbols.symbolOf( "B1" ) );
+
+		symbols.clear();
+		assertEquals( 0, symbols.size() );
+		assertEquals( SymbolTable.NO_SYMBOL, symbols.symbolOf( "A1" ) );
+	}
+
+	@Test
+	public void testSharedItems() {
+		SymbolTable symbols = new SymbolTable();
+		TerminalGate gate = symbols.gate( "A1" );
+		assertSame( gate, symbols.gate( "A1" ) );
+		assertSame( gate, symbols.gate( gate.getSymbol() ) );
+		assertEquals( SymbolTable.NO_SYMBOL, new TerminalGate( "A1" ).getSymbol() );
+
+		//	same name, different kinds
+		Airport airport = symbols.airport( "A1" );
+		assertEquals( gate.getSymbol(), airport.getSymbol() );
+		assertSame( gate, symbols.gate( "A1" ) );
+		assertSame( airport, symbols.airport( "A1" ) );
+
+		FlightId flight = symbols.flight( "UA10" );
+		assertSame( flight, symbols.flight( "UA10" ) );
+		assertNull( symbols.gate( flight.getSymbol() ) );
+
+		assertEquals( 0, symbols.bag( "0001" ).getSymbol() );
+		assertEquals( 1, symbols.bag( "0002" ).getSymbol() );
+		assertEquals( 2, symbols.bagCount() );
+	}
+
+	@Test
+	public void testSharedParsers() throws ParseException {
+		SymbolTable symbols = new SymbolTable();
+		Departure departure = new DepartureRowParser( symbols ).parseSectionRow( "UA10 A1 MIA 08:00" ).getWrappedRow();
+		BagEntry bag = new BagRowParser( symbols ).parseSectionRow( "0001 A1 UA10" ).getWrappedRow();
+
+		assertSame( departure.getFlightGate(), bag.getEntryPoint() );
+		assertSame( departure.getFlight().getFlightId(), bag.getFlight().getFlightId() );
+		assertEquals( 0, bag.getBag().getSymbol() );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNullName() {
+		new SymbolTable().intern( null );
+	}
+
+}
@@ -29,6 +29,8 @@ import com.flydenver.bagrouter.lexer.section.bag.BagEntryTest;
 import com.flydenver.bagrouter.lexer.section.conveyor.ConveyorRouteTest;
 import com.flydenver.bagrouter.lexer.section.departure.DepartureParserTest;
 import com.flydenver.bagrouter.lexer.section.departure.DepartureTest;
+import com.flydenver.bagrouter.lexer.section.capacity.ConveyorCapacityTest;
+import com.flydenver.bagrouter.lexer.section.profile.ConveyorProfileTest;
 import com.flydenver.bagrouter.lexer.section.SectionHeaderTokenizerTest;
 import com.flydenver.bagrouter.lexer.section.SectionTokenTest;
 import com.flydenver.bagrouter.lexer.section.SectionTypeTest;
@@ -48,6 +50,8 @@ import org.junit.runners.Suite;
 		SectionTokenTest.class,
 		DepartureTest.class,
 		SectionHeaderTokenizerTest.class,
-		RoutingEvaluatorTest.class
+		RoutingEvaluatorTest.class,
+		ConveyorProfileTest.class,
+		ConveyorCapacityTest.class
 })
 public class ParsingSuite {}
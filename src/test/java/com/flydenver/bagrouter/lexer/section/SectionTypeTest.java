@@ -56,6 +56,18 @@ public class SectionTypeTest {
 		assertEquals( SectionType.fromIdentifier( " Bags " ), SectionType.BAGS );
 	}
 	
+	@Test
+	public void testGoodConveyorProfiles() {
+		assertEquals( SectionType.fromIdentifier( "Conveyor Profiles" ), SectionType.CONVEYOR_PROFILES );
+		assertEquals( SectionType.fromIdentifier( " conveyor profiles " ), SectionType.CONVEYOR_PROFILES );
+	}
+
+	@Test
+	public void testGoodConveyorCapacity() {
+		assertEquals( SectionType.fromIdentifier( "Conveyor Capacity" ), SectionType.CONVEYOR_CAPACITY );
+		assertEquals( SectionType.fromIdentifier( " CONVEYOR CAPACITY " ), SectionType.CONVEYOR_CAPACITY );
+	}
+	
 	@Test
 	public void testGoodConveyorSystemCase() {
 		assertEquals( SectionType.fromIdentifier( conveyorSystem.toLowerCase() ), SectionType.CONVEYOR_SYSTEM );
@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.lexer.section.capacity;
+
+import com.flydenver.bagrouter.lexer.ParseException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the conveyor capacity parsing.
+ */
+public class ConveyorCapacityTest {
+
+	private final String goodFormat = "A5 A10 20";
+
+	private ConveyorCapacityRowParser parser;
+
+	@Before
+	public void setup() {
+		parser = new ConveyorCapacityRowParser();
+	}
+
+
+	//=[ good tests ]==========================================================
+
+
+	@Test
+	public void testCapacityParseGood() throws ParseException {
+		ConveyorCapacity capacity = parser.parseSectionRow( goodFormat ).getWrappedRow();
+		assertEquals( "A5", capacity.getFirstTerminal().getId() );
+		assertEquals( "A10", capacity.getSecondTerminal().getId() );
+		assertEquals( 20, capacity.getBagsPerMinute() );
+	}
+
+	@Test
+	public void testSurroundingWhitespace() throws ParseException {
+		assertEquals( 3, parser.parseSectionRow( "  A1   A2 3 " ).getWrappedRow().getBagsPerMinute() );
+	}
+
+
+	//=[ bad argument tests ]==========================================================
+
+
+	@Test( expected = IllegalArgumentException.class )
+	public void testTooManyLines() throws ParseException {
+		parser.parseSectionRow( goodFormat + "\n" + goodFormat );
+	}
+
+	@Test( expected = IllegalArgumentException.class )
+	public void testNullLine() throws ParseException {
+		parser.parseSectionRow( null );
+	}
+
+	@Test( expected = ParseException.class )
+	public void testNoCapacity() throws ParseException {
+		parser.parseSectionRow( "A1 A2" );
+	}
+
+	@Test( expected = ParseException.class )
+	public void testZeroCapacity() throws ParseException {
+		parser.parseSectionRow( "A1 A2 0" );
+	}
+
+	@Test( expected = ParseException.class )
+	public void testHugeCapacity() throws ParseException {
+		parser.parseSectionRow( "A1 A2 99999999999" );
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.lexer.section.profile;
+
+import com.flydenver.bagrouter.lexer.ParseException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the conveyor profile parsing.
+ */
+public class ConveyorProfileTest {
+
+	private final String goodFormat = "A5 A10 00:00=4 07:30=4 08:00=9 23:59=4";
+
+	private ConveyorProfileRowParser parser;
+
+	@Before
+	public void setup() {
+		parser = new ConveyorProfileRowParser();
+	}
+
+
+	//=[ good tests ]==========================================================
+
+
+	@Test
+	public void testProfileParseGood() throws ParseException {
+		ConveyorProfile profile = parser.parseSectionRow( goodFormat ).getWrappedRow();
+		assertEquals( "A5", profile.getFirstTerminal().getId() );
+		assertEquals( "A10", profile.getSecondTerminal().getId() );
+		assertArrayEquals( new int[]{ 0, 450, 480, 1439 }, profile.getMinutes() );
+		assertArrayEquals( new int[]{ 4, 4, 9, 4 }, profile.getTravelTimes() );
+	}
+
+	@Test
+	public void testSingleBreakpoint() throws ParseException {
+		assertArrayEquals( new int[]{ 7 }, parser.parseSectionRow( "A1 A2 12:00=7" ).getWrappedRow().getTravelTimes() );
+	}
+
+
+	//=[ bad argument tests ]==========================================================
+
+
+	@Test( expected = IllegalArgumentException.class )
+	public void testTooManyLines() throws ParseException {
+		parser.parseSectionRow( goodFormat + "\n" + goodFormat );
+	}
+
+	@Test( expected = IllegalArgumentException.class )
+	public void testNullLine() throws ParseException {
+		parser.parseSectionRow( null );
+	}
+
+	@Test( expected = ParseException.class )
+	public void testNoBreakpoints() throws ParseException {
+		parser.parseSectionRow( "A1 A2" );
+	}
+
+	@Test( expected = ParseException.class )
+	public void testBadTime() throws ParseException {
+		parser.parseSectionRow( "A1 A2 24:00=3" );
+	}
+
+	@Test( expected = ParseException.class )
+	public void testOutOfOrder() throws ParseException {
+		parser.parseSectionRow( "A1 A2 08:00=3 07:00=4" );
+	}
+
+}
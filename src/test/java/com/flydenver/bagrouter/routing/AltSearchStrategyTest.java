@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.alt.AltSearchStrategy;
+import com.flydenver.bagrouter.routing.search.alt.LandmarkIndex;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class AltSearchStrategyTest {
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNoLandmarks() {
+		new AltSearchStrategy<TerminalGate>( 0 );
+	}
+
+	@Test
+	public void testLandmarks() {
+		AltSearchStrategy<TerminalGate> search = new AltSearchStrategy<>( 3 );
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		LandmarkIndex<TerminalGate> index = search.load( wg );
+		assertEquals( 3, index.landmarkCount() );
+
+		//	the sample graph is a star, so the first picks are the ends of the arms
+		CompactGraph<TerminalGate> cg = index.getGraph();
+		List<Node<TerminalGate>> ends = Arrays.asList( cg.getNode( index.landmark( 0 ) ), cg.getNode( index.landmark( 1 ) ) );
+		assertTrue( ends.contains( gate( "A4" ) ) );
+		assertTrue( ends.contains( gate( "A6" ) ) );
+
+		//	a landmark on the end node makes the bound exact
+		assertEquals( 17, index.lowerBound( cg.indexOf( gate( "A6" ) ), cg.indexOf( gate( "A4" ) ) ) );
+	}
+
+	@Test
+	public void testSearchGood() throws SearchRouteException {
+		AltSearchStrategy<TerminalGate> search = new AltSearchStrategy<>( 2 );
+		NodePath<TerminalGate> path = search.findPath( RoutingFixtures.airportGraph(), gate( "Concourse_A_Ticketing" ), gate( "A1" ) );
+		assertArrayEquals( path.nodes().toArray(), new Node[]{ gate( "Concourse_A_Ticketing" ), gate( "A5" ), gate( "A1" ) } );
+		assertEquals( 11, path.getTotalDistance() );
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.bucket.BucketQueueSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class BucketQueueSearchStrategyTest {
+
+	@Test
+	public void testQueueChoice() {
+		BucketQueueSearchStrategy<TerminalGate> search = new BucketQueueSearchStrategy<>( 30 );
+		assertTrue( search.usesDialQueue( CompactGraph.fromGraph( RoutingFixtures.airportGraph() ) ) );
+		assertFalse( search.usesDialQueue( CompactGraph.fromGraph( RoutingFixtures.randomGraph( 1, 20, 20, 1000 ) ) ) );
+		assertEquals( 6, CompactGraph.fromGraph( RoutingFixtures.airportGraph() ).maxWeight() );
+	}
+
+	@Test
+	public void testSearchGood() throws SearchRouteException {
+		BucketQueueSearchStrategy<TerminalGate> search = new BucketQueueSearchStrategy<>();
+		NodePath<TerminalGate> path = search.findPath( RoutingFixtures.airportGraph(), gate( "A8" ), gate( "A5" ) );
+		assertArrayEquals( path.nodes().toArray(), new Node[]{ gate( "A8" ), gate( "A9" ), gate( "A10" ), gate( "A5" ) } );
+		assertEquals( 6, path.getTotalDistance() );
+	}
+
+	@Test
+	public void testQueuesReused() throws SearchRouteException {
+		BucketQueueSearchStrategy<TerminalGate> bucket = new BucketQueueSearchStrategy<>( 30 );
+		CompactGraph<TerminalGate> dial = CompactGraph.fromGraph( RoutingFixtures.randomGraph( 41, 250, 400, 30 ) );
+		CompactGraph<TerminalGate> radix = CompactGraph.fromGraph( RoutingFixtures.randomGraph( 43, 250, 400, 100000 ) );
+		DijkstraSearchStrategy<TerminalGate> classic = new DijkstraSearchStrategy<>();
+
+		//	switching snapshots, with early stops leaving entries queued
+		for ( int i = 0; i < 250; i += 31 ) {
+			for ( CompactGraph<TerminalGate> graph : Arrays.asList( dial, radix, dial ) ) {
+				assertEquals( classic.findPath( graph, gate( "G" + i ), gate( "G0" ) ).getTotalDistance(),
+						bucket.findPath( graph, gate( "G" + i ), gate( "G0" ) ).getTotalDistance() );
+			}
+		}
+	}
+
+}
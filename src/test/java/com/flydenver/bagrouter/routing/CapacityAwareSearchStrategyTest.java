@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.SearchableGraph;
+import com.flydenver.bagrouter.routing.search.capacity.CapacityAwareSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class CapacityAwareSearchStrategyTest {
+
+	private WeightedGraph<TerminalGate> wg;
+	private Node<TerminalGate> s = new Node<>( new TerminalGate( "Ticketing" ) );
+	private Node<TerminalGate> a = new Node<>( new TerminalGate( "A1" ) );
+	private Node<TerminalGate> b = new Node<>( new TerminalGate( "B1" ) );
+	private Node<TerminalGate> t = new Node<>( new TerminalGate( "BaggageClaim" ) );
+
+
+	//	a short way through A1 and a longer way through B1
+	@Before
+	public void setup() {
+		wg = new WeightedGraph<>();
+		wg.addEdge( new WeightedEdge<>( s, a, 1 ) );
+		wg.addEdge( new WeightedEdge<>( a, t, 1 ) );
+		wg.addEdge( new WeightedEdge<>( s, b, 2 ) );
+		wg.addEdge( new WeightedEdge<>( b, t, 1 ) );
+	}
+
+
+	@Test
+	public void testNoCapacitiesMatchesDijkstra() throws SearchRouteException {
+		SearchableGraph<TerminalGate> classic = new SearchableGraph<>( wg );
+		classic.setSearchStrategy( new DijkstraSearchStrategy<>() );
+		SearchableGraph<TerminalGate> capacity = new SearchableGraph<>( wg );
+		capacity.setSearchStrategy( new CapacityAwareSearchStrategy<>() );
+
+		List<Node<TerminalGate>> all = Arrays.asList( s, a, b, t );
+		for ( int i = 0; i < 3; i++ ) {
+			for ( Node<TerminalGate> from : all ) {
+				for ( Node<TerminalGate> to : all ) {
+					if ( from.equals( to ) ) { continue; }
+					NodePath<TerminalGate> expected = classic.findOptimalPath( from, to );
+					NodePath<TerminalGate> actual = capacity.findOptimalPath( from, to );
+					assertArrayEquals( expected.nodes().toArray(), actual.nodes().toArray() );
+					assertEquals( expected.getTotalDistance(), actual.getTotalDistance() );
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBookingsAddLoad() {
+		CapacityAwareSearchStrategy<TerminalGate> strategy = new CapacityAwareSearchStrategy<>();
+		strategy.setCapacity( s, a, 10 );
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+
+		strategy.findPath( cg, s, t );
+		strategy.findPath( cg, t, s );
+		assertEquals( 2, strategy.getLoad( cg, s, a ) );
+		assertEquals( 2, strategy.getLoad( cg, a, s ) );
+		assertEquals( 0, strategy.getLoad( cg, s, b ) );
+
+		strategy.resetLoads();
+		assertEquals( 0, strategy.getLoad( cg, s, a ) );
+	}
+
+	@Test
+	public void testDivertsAroundSaturatedConveyor() {
+		CapacityAwareSearchStrategy<TerminalGate> strategy = new CapacityAwareSearchStrategy<>( 2, 1, 1 );
+		strategy.setCapacity( s, a, 1 );
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+
+		NodePath<TerminalGate> first = strategy.findPath( cg, s, t );
+		assertArrayEquals( new Object[]{ s, a, t }, first.nodes().toArray() );
+		assertEquals( 2, first.getTotalDistance() );
+
+		//	the booked conveyor now costs 3, so the way through B1 is cheaper, reported unpenalized
+		NodePath<TerminalGate> second = strategy.findPath( cg, s, t );
+		assertArrayEquals( new Object[]{ s, b, t }, second.nodes().toArray() );
+		assertEquals( 3, second.getTotalDistance() );
+	}
+
+	@Test
+	public void testManyBags() {
+		CapacityAwareSearchStrategy<TerminalGate> strategy = new CapacityAwareSearchStrategy<>();
+		strategy.setCapacity( s, a, 20 );
+		strategy.setCapacity( s, b, 20 );
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+
+		for ( int i = 0; i < 100000; i++ ) {
+			strategy.findPath( cg, s, t );
+		}
+		assertEquals( 100000, strategy.getLoad( cg, s, a ) + strategy.getLoad( cg, s, b ) );
+		assertTrue( strategy.getLoad( cg, s, b ) > 0 );
+	}
+
+
+	@Test
+	public void testLargeGraphKeepsPenalties() {
+		//	enough nodes that an int cost cap per conveyor would flatten the penalties
+		GraphBuilder<TerminalGate> builder = new GraphBuilder<>();
+		builder.add( s.getNodeItem(), a.getNodeItem(), 10 );
+		builder.add( a.getNodeItem(), t.getNodeItem(), 10 );
+		builder.add( s.getNodeItem(), b.getNodeItem(), 10 );
+		builder.add( b.getNodeItem(), t.getNodeItem(), 10 );
+		TerminalGate previous = t.getNodeItem();
+		for ( int i = 0; i < 120000; i++ ) {
+			TerminalGate next = new TerminalGate( "C" + i );
+			builder.add( previous, next, 1 );
+			previous = next;
+		}
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( builder.build() );
+
+		CapacityAwareSearchStrategy<TerminalGate> strategy = new CapacityAwareSearchStrategy<>( 2, 1, 1 );
+		strategy.setCapacity( s, a, 1 );
+		strategy.setCapacity( s, b, 1 );
+		for ( int i = 0; i < 20; i++ ) {
+			strategy.findPath( cg, s, t );
+		}
+		assertTrue( Math.abs( strategy.getLoad( cg, s, a ) - strategy.getLoad( cg, s, b ) ) <= 1 );
+	}
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testBadCapacity() {
+		new CapacityAwareSearchStrategy<TerminalGate>().setCapacity( s, a, 0 );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testBadParameters() {
+		new CapacityAwareSearchStrategy<TerminalGate>( -1, 4, 60 );
+	}
+
+}
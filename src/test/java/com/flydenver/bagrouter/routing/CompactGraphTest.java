@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.SearchableGraph;
+import com.flydenver.bagrouter.routing.search.dijkstra.CompactDijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class CompactGraphTest {
+
+	private WeightedGraph<TerminalGate> wg;
+	private Node<TerminalGate> ts  = new Node<>(new TerminalGate( "Concourse_A_Ticketing" ));
+	private Node<TerminalGate> a5  = new Node<>(new TerminalGate("A5"));
+	private Node<TerminalGate> bc  = new Node<>(new TerminalGate("BaggageClaim"));
+	private Node<TerminalGate> a10 = new Node<>(new TerminalGate("A10"));
+	private Node<TerminalGate> a1  = new Node<>(new TerminalGate("A1"));
+	private Node<TerminalGate> a2  = new Node<>(new TerminalGate("A2"));
+	private Node<TerminalGate> a3  = new Node<>(new TerminalGate("A3"));
+	private Node<TerminalGate> a4  = new Node<>(new TerminalGate("A4"));
+	private Node<TerminalGate> a9  = new Node<>(new TerminalGate("A9"));
+	private Node<TerminalGate> a8  = new Node<>(new TerminalGate("A8"));
+	private Node<TerminalGate> a7  = new Node<>(new TerminalGate("A7"));
+	private Node<TerminalGate> a6  = new Node<>(new TerminalGate("A6"));
+
+
+	@Before
+	public void setup() {
+		wg = new WeightedGraph<>();
+		wg.addEdge(new WeightedEdge<>(ts,  a5,  5));
+		wg.addEdge(new WeightedEdge<>(a5,  bc,  5));
+		wg.addEdge(new WeightedEdge<>(a5,  a10, 4));
+		wg.addEdge(new WeightedEdge<>(a5,  a1,  6));
+		wg.addEdge(new WeightedEdge<>(a1,  a2,  1));
+		wg.addEdge(new WeightedEdge<>(a2,  a3,  1));
+		wg.addEdge(new WeightedEdge<>(a3,  a4,  1));
+		wg.addEdge(new WeightedEdge<>(a10, a9,  1));
+		wg.addEdge(new WeightedEdge<>(a9,  a8,  1));
+		wg.addEdge(new WeightedEdge<>(a8,  a7,  1));
+		wg.addEdge(new WeightedEdge<>(a7,  a6,  1));
+	}
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNullGraph() {
+		CompactGraph.fromGraph( null );
+	}
+
+	@Test
+	public void testLayout() {
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		assertEquals( 12, cg.nodeCount() );
+		assertEquals( 22, cg.edgeCount() );
+		assertEquals( -1, cg.indexOf( new Node<>( new TerminalGate( "B1" ) ) ) );
+
+		int i5 = cg.indexOf( a5 );
+		assertEquals( a5, cg.getNode( i5 ) );
+		assertEquals( 4, cg.edgeEnd( i5 ) - cg.edgeStart( i5 ) );
+
+		int weight = 0;
+		for ( int slot = cg.edgeStart( i5 ); slot < cg.edgeEnd( i5 ); slot++ ) {
+			weight += cg.edgeWeight( slot );
+			if ( cg.edgeTarget( slot ) == cg.indexOf( bc ) ) {
+				assertEquals( 5, cg.edgeWeight( slot ) );
+			}
+		}
+		assertEquals( 20, weight );
+	}
+
+	@Test
+	public void testStaleSnapshot() {
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		assertTrue( cg.isSnapshotOf( wg ) );
+		assertFalse( cg.isSnapshotOf( new WeightedGraph<>() ) );
+
+		wg.addEdge( new Node<>( new TerminalGate( "A6" ) ), new Node<>( new TerminalGate( "B1" ) ), 3 );
+		assertFalse( cg.isSnapshotOf( wg ) );
+	}
+
+	@Test
+	public void testSearchSnapshot() throws SearchRouteException {
+		SearchableGraph<TerminalGate> compact = new SearchableGraph<>( wg );
+		compact.setSearchStrategy( new CompactDijkstraSearchStrategy<>() );
+		SearchableGraph<TerminalGate> classic = new SearchableGraph<>( wg );
+		classic.setSearchStrategy( new DijkstraSearchStrategy<>() );
+
+		List<Node<TerminalGate>> all = Arrays.asList( ts, a5, bc, a10, a1, a2, a3, a4, a9, a8, a7, a6 );
+		for ( Node<TerminalGate> from : all ) {
+			for ( Node<TerminalGate> to : all ) {
+				if ( from.equals( to ) ) { continue; }
+				assertArrayEquals( classic.findOptimalPath( from, to ).nodes().toArray(), compact.findOptimalPath( from, to ).nodes().toArray() );
+				assertEquals( classic.findOptimalPath( from, to ).getTotalDistance(), compact.findOptimalPath( from, to ).getTotalDistance() );
+			}
+		}
+	}
+
+	@Test
+	public void testSnapshotRebuilt() throws SearchRouteException {
+		SearchableGraph<TerminalGate> search = new SearchableGraph<>( wg );
+		search.setSearchStrategy( new CompactDijkstraSearchStrategy<>() );
+		CompactGraph<TerminalGate> first = search.snapshot();
+		assertTrue( first == search.snapshot() );
+
+		search.addEdge( new Node<>( new TerminalGate( "A4" ) ), new Node<>( new TerminalGate( "A6" ) ), 1 );
+		assertFalse( first == search.snapshot() );
+		assertEquals( 5, search.findOptimalPath( new Node<>( new TerminalGate( "A4" ) ), new Node<>( new TerminalGate( "A10" ) ) ).getTotalDistance() );
+	}
+
+	@Test
+	public void testDisconnected() {
+		Node<TerminalGate> b1 = new Node<>( new TerminalGate( "B1" ) );
+		Node<TerminalGate> b2 = new Node<>( new TerminalGate( "B2" ) );
+		wg.addEdge( new WeightedEdge<>( b1, b2, 3 ) );
+		wg.disableEdge( a5, a1 );
+
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		assertFalse( cg.isDisconnected( cg.indexOf( ts ), cg.indexOf( a6 ) ) );
+		assertFalse( cg.isDisconnected( cg.indexOf( a1 ), cg.indexOf( a4 ) ) );
+		assertTrue( cg.isDisconnected( cg.indexOf( a5 ), cg.indexOf( a1 ) ) );
+		assertTrue( cg.isDisconnected( cg.indexOf( bc ), cg.indexOf( b2 ) ) );
+		assertFalse( cg.isDisconnected( cg.indexOf( b1 ), cg.indexOf( b1 ) ) );
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.SearchableGraph;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.store.BufferGraph;
+import com.flydenver.bagrouter.routing.store.CompiledTopology;
+import com.flydenver.bagrouter.routing.store.TopologyCompiler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class CompiledTopologyTest {
+
+	private Path file;
+
+
+	@Before
+	public void setup() throws IOException {
+		file = Files.createTempFile( "topology", ".bin" );
+	}
+
+	@After
+	public void teardown() throws IOException {
+		Files.deleteIfExists( file );
+	}
+
+
+	@Test
+	public void testSearchMatchesSnapshot() throws IOException, SearchRouteException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.randomGraph( 3, 80, 120, 15 );
+		new TopologyCompiler<TerminalGate>().compile( wg, file );
+		CompiledTopology<TerminalGate> topology = CompiledTopology.open( file, TerminalGate::new );
+		assertNull( topology.getHubLabels() );
+
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		CompactGraph<TerminalGate> mapped = topology.getGraph();
+		assertEquals( cg.nodeCount(), mapped.nodeCount() );
+		assertEquals( cg.edgeCount(), mapped.edgeCount() );
+		assertEquals( cg.maxWeight(), mapped.maxWeight() );
+		assertEquals( -1, mapped.indexOf( "Nowhere" ) );
+
+		IndexedDijkstraSearchStrategy<TerminalGate> dijkstra = new IndexedDijkstraSearchStrategy<>();
+		for ( int start = 0; start < cg.nodeCount(); start += 7 ) {
+			for ( int end = 0; end < cg.nodeCount(); end++ ) {
+				if ( cg.isDisconnected( start, end ) ) {
+					continue;
+				}
+				NodePath<TerminalGate> expected = dijkstra.findPath( cg, cg.getNode( start ), cg.getNode( end ) );
+				NodePath<TerminalGate> actual = topology.findOptimalPath( cg.getNode( start ), cg.getNode( end ) );
+				assertEquals( expected.nodes(), actual.nodes() );
+				assertEquals( expected.getTotalDistance(), actual.getTotalDistance() );
+			}
+		}
+	}
+
+	@Test
+	public void testHubLabels() throws IOException, SearchRouteException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		wg.addEdge( gate( "A4" ), gate( "A6" ), 3 );
+		TopologyCompiler<TerminalGate> compiler = new TopologyCompiler<>();
+		compiler.setIncludeHubLabels( true );
+		compiler.compile( wg, file );
+
+		CompiledTopology<TerminalGate> topology = CompiledTopology.open( file, TerminalGate::new );
+		assertNotNull( topology.getHubLabels() );
+		assertEquals( 12, topology.findOptimalPath( gate( "A7" ), gate( "BaggageClaim" ) ).getTotalDistance() );
+		assertEquals( 2, topology.findAlternatePaths( gate( "A5" ), gate( "A4" ), 3 ).size() );
+	}
+
+	@Test
+	public void testDirectSnapshot() throws SearchRouteException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.randomGraph( 5, 60, 90, 12 );
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		BufferGraph<TerminalGate> direct = BufferGraph.allocateDirect( wg, TerminalGate::new );
+		assertTrue( direct.isDirect() );
+		assertTrue( direct.isSnapshotOf( wg ) );
+		assertEquals( cg.edgeCount(), direct.edgeCount() );
+
+		SearchableGraph<TerminalGate> search = new SearchableGraph<>( wg );
+		search.setSearchStrategy( new IndexedDijkstraSearchStrategy<>() );
+		search.setSnapshotFactory( g -> BufferGraph.allocateDirect( g, TerminalGate::new ) );
+		assertTrue( search.snapshot() instanceof BufferGraph );
+
+		IndexedDijkstraSearchStrategy<TerminalGate> dijkstra = new IndexedDijkstraSearchStrategy<>();
+		for ( int start = 0; start < cg.nodeCount(); start += 5 ) {
+			for ( int end = 0; end < cg.nodeCount(); end++ ) {
+				NodePath<TerminalGate> expected = dijkstra.findPath( cg, cg.getNode( start ), cg.getNode( end ) );
+				assertEquals( expected.nodes(), dijkstra.findPath( direct, cg.getNode( start ), cg.getNode( end ) ).nodes() );
+				assertEquals( expected.getTotalDistance(), search.findOptimalPath( cg.getNode( start ), cg.getNode( end ) ).getTotalDistance() );
+			}
+		}
+
+		//	the copy outlives the objects it was made from
+		Node<TerminalGate> first = cg.getNode( 0 );
+		Node<TerminalGate> last = cg.getNode( cg.nodeCount() - 1 );
+		int distance = dijkstra.findPath( direct, first, last ).getTotalDistance();
+		wg.cleanup();
+		assertFalse( direct.isSnapshotOf( wg ) );
+		assertEquals( distance, dijkstra.findPath( direct, first, last ).getTotalDistance() );
+	}
+
+	@Test
+	public void testDirectFromRowsHeap() {
+		int gates = 200000;
+		GraphBuilder<TerminalGate> builder = new GraphBuilder<>();
+		for ( int i = 0; i < gates; i++ ) {
+			builder.add( new TerminalGate( "G" + i ), new TerminalGate( "G" + ( i + 1 ) ), 1 + i % 5 );
+		}
+
+		long before = usedHeap();
+		WeightedGraph<TerminalGate> graph = builder.build();
+		long graphHeap = usedHeap() - before;
+		assertEquals( gates + 1, graph.nodes().size() );
+		graph = null;
+
+		before = usedHeap();
+		BufferGraph<TerminalGate> direct = BufferGraph.allocateDirect( builder.buildSnapshot(), TerminalGate::new );
+		long directHeap = usedHeap() - before;
+		assertEquals( gates + 1, direct.nodeCount() );
+		assertNull( graph );
+
+		//	the buffer keeps a lazy node slot per index, nothing like the object graph
+		assertTrue( "buffer " + directHeap + " vs graph " + graphHeap, directHeap * 4 < graphHeap );
+	}
+
+	//	heap in use once garbage is collected
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for ( int i = 0; i < 3; i++ ) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@Test (expected = IOException.class)
+	public void testNotCompiled() throws IOException {
+		Files.write( file, "# Section: Conveyor System".getBytes( "UTF-8" ) );
+		CompiledTopology.open( file, TerminalGate::new );
+	}
+
+	@Test (expected = NoSuchFileException.class)
+	public void testMissingDirectory() throws IOException {
+		Path missing = file.resolveSibling( "missing-" + file.getFileName() ).resolve( "topology.bin" );
+		new TopologyCompiler<TerminalGate>().compile( RoutingFixtures.airportGraph(), missing );
+	}
+
+	@Test
+	public void testDisconnected() throws IOException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		wg.addEdge( gate( "B1" ), gate( "B2" ), 2 );
+		for ( boolean includeHubLabels : new boolean[]{ false, true } ) {
+			TopologyCompiler<TerminalGate> compiler = new TopologyCompiler<>();
+			compiler.setIncludeHubLabels( includeHubLabels );
+			compiler.compile( wg, file );
+			CompiledTopology<TerminalGate> topology = CompiledTopology.open( file, TerminalGate::new );
+			try {
+				topology.findOptimalPath( gate( "A1" ), gate( "B2" ) );
+				fail( "Searched between components." );
+			}
+			catch ( SearchRouteException e ) {
+				assertTrue( e.getMessage().contains( "B2" ) );
+			}
+		}
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testMissingNode() throws IOException, SearchRouteException {
+		new TopologyCompiler<TerminalGate>().compile( RoutingFixtures.airportGraph(), file );
+		CompiledTopology.open( file, TerminalGate::new ).findOptimalPath( gate( "A1" ), gate( "B1" ) );
+	}
+
+}
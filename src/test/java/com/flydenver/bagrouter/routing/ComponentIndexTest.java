@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class ComponentIndexTest {
+
+	@Test
+	public void testUnion() {
+		ComponentIndex index = new ComponentIndex();
+		assertFalse( index.isConnected( "A1", "A1" ) );
+
+		index.union( "A1", "A2" );
+		index.union( "B1", "B2" );
+		assertEquals( 2, index.componentCount() );
+		assertTrue( index.isConnected( "A1", "A2" ) );
+		assertFalse( index.isConnected( "A1", "B2" ) );
+		assertFalse( index.isConnected( "A1", "C1" ) );
+
+		index.union( "A2", "B1" );
+		assertEquals( 1, index.componentCount() );
+		assertTrue( index.isConnected( "A1", "B2" ) );
+
+		index.clear();
+		assertFalse( index.contains( "A1" ) );
+		assertEquals( 0, index.componentCount() );
+	}
+
+	@Test
+	public void testGrowth() {
+		ComponentIndex index = new ComponentIndex();
+		for ( int i = 1; i < 100; i++ ) {
+			index.union( i - 1, i );
+			index.union( -i, -i - 1 );
+		}
+		assertEquals( 2, index.componentCount() );
+		assertTrue( index.isConnected( 0, 99 ) );
+		assertTrue( index.isConnected( -1, -100 ) );
+		assertFalse( index.isConnected( 0, -1 ) );
+	}
+
+	@Test
+	public void testGraph() {
+		WeightedGraph<TerminalGate> graph = new WeightedGraph<>();
+		Node<TerminalGate> a1 = new Node<>( new TerminalGate( "A1" ) );
+		Node<TerminalGate> a2 = new Node<>( new TerminalGate( "A2" ) );
+		Node<TerminalGate> b1 = new Node<>( new TerminalGate( "B1" ) );
+		Node<TerminalGate> b2 = new Node<>( new TerminalGate( "B2" ) );
+		graph.addEdge( a1, a2, 1 );
+		graph.addEdge( new WeightedEdge<>( b1, b2, 1 ) );
+
+		assertTrue( graph.isConnected( a1, a2 ) );
+		assertTrue( graph.isDisconnected( a1, b2 ) );
+		assertFalse( graph.isDisconnected( a1, new Node<>( new TerminalGate( "C1" ) ) ) );
+		assertFalse( graph.isDisconnected( a1, a1 ) );
+
+		//	a closed conveyor still counts
+		graph.disableEdge( a1, a2 );
+		assertTrue( graph.isConnected( a1, a2 ) );
+
+		graph.addEdge( a2, b1, 1 );
+		assertFalse( graph.isDisconnected( a1, b2 ) );
+
+		graph.cleanup();
+		assertFalse( graph.isConnected( a1, a2 ) );
+	}
+
+}
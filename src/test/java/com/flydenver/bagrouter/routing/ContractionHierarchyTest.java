@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.ch.ContractionHierarchy;
+import com.flydenver.bagrouter.routing.search.ch.ContractionHierarchySearchStrategy;
+import org.junit.Test;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class ContractionHierarchyTest {
+
+	@Test
+	public void testSearchGood() throws SearchRouteException {
+		ContractionHierarchySearchStrategy<TerminalGate> search = new ContractionHierarchySearchStrategy<>();
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+
+		NodePath<TerminalGate> path = search.findPath( wg, gate( "BaggageClaim" ), gate( "A4" ) );
+		assertArrayEquals( path.nodes().toArray(), new Node[]{
+				gate( "BaggageClaim" ), gate( "A5" ), gate( "A1" ), gate( "A2" ), gate( "A3" ), gate( "A4" )
+		});
+		assertEquals( 14, path.getTotalDistance() );
+
+		path = search.findPath( wg, gate( "A6" ), gate( "Concourse_A_Ticketing" ) );
+		assertArrayEquals( path.nodes().toArray(), new Node[]{
+				gate( "A6" ), gate( "A7" ), gate( "A8" ), gate( "A9" ), gate( "A10" ), gate( "A5" ), gate( "Concourse_A_Ticketing" )
+		});
+		assertEquals( 13, path.getTotalDistance() );
+	}
+
+	@Test
+	public void testStats() throws SearchRouteException {
+		ContractionHierarchySearchStrategy<TerminalGate> search = new ContractionHierarchySearchStrategy<>();
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		ContractionHierarchy<TerminalGate> ch = search.load( wg );
+
+		assertTrue( ch == search.getHierarchy() );
+		assertEquals( 0, ch.getQueryCount() );
+		search.findPath( wg, gate( "A1" ), gate( "A9" ) );
+		assertEquals( 1, ch.getQueryCount() );
+		assertTrue( ch.getAverageSearchSpace() > 0 );
+		assertTrue( ch.getShortcutCount() >= 0 );
+	}
+
+}
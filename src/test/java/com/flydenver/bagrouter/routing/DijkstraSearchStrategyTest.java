@@ -29,9 +29,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
 import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 
 public class DijkstraSearchStrategyTest {
@@ -71,22 +74,22 @@ public class DijkstraSearchStrategyTest {
 
 
 	@Test (expected = IllegalArgumentException.class)
-	public void testNullSearch1() {
-		search.findPath( null, new Node<>(new TerminalGate("A1")), new Node<>(new TerminalGate("BaggageClaim")) ).nodes().toArray();
+	public void testNullSearch1() throws SearchRouteException {
+		search.findPath( (WeightedGraph<TerminalGate>) null, new Node<>(new TerminalGate("A1")), new Node<>(new TerminalGate("BaggageClaim")) ).nodes().toArray();
 	}
 
 	@Test (expected = IllegalArgumentException.class)
-	public void testNullSearch2() {
+	public void testNullSearch2() throws SearchRouteException {
 		search.findPath( wg, null, new Node<>(new TerminalGate("BaggageClaim")) ).nodes().toArray();
 	}
 
 	@Test (expected = IllegalArgumentException.class)
-	public void testNullSearch3() {
+	public void testNullSearch3() throws SearchRouteException {
 		search.findPath( wg, new Node<>(new TerminalGate("A1")), null ).nodes().toArray();
 	}
 
 	@Test
-	public void testSearchGood1() {
+	public void testSearchGood1() throws SearchRouteException {
 
 		assertArrayEquals( search.findPath( wg, new Node<>(new TerminalGate("A1")), new Node<>(new TerminalGate("BaggageClaim")) ).nodes().toArray(), new Node[]{
 				new Node<>(new TerminalGate("A1")),
@@ -127,7 +130,7 @@ public class DijkstraSearchStrategyTest {
 	}
 
 	@Test
-	public void testSearchGood2() {
+	public void testSearchGood2() throws SearchRouteException {
 		DijkstraSearchStrategy<TerminalGate> search = new DijkstraSearchStrategy<>();
 
 		WeightedGraph<TerminalGate> wg2 = new WeightedGraph<>();
@@ -173,4 +176,28 @@ public class DijkstraSearchStrategyTest {
 
 	}
 
+	@Test
+	public void testSearchSelf() throws SearchRouteException {
+		assertArrayEquals( search.findPath( wg, a1, a1 ).nodes().toArray(), new Node[]{ a1, a1 } );
+	}
+
+	@Test
+	public void testSnapshotReused() throws SearchRouteException {
+		SnapshotProbe probe = new SnapshotProbe();
+		CompactGraph<TerminalGate> first = probe.snapshot( wg );
+		probe.findPath( wg, a1, bc );
+		assertSame( first, probe.snapshot( wg ) );
+
+		wg.addEdge( new WeightedEdge<>( a4, a6, 2 ) );
+		assertNotSame( first, probe.snapshot( wg ) );
+	}
+
+
+	//	opens up the snapshot the strategy searches
+	private static class SnapshotProbe extends DijkstraSearchStrategy<TerminalGate> {
+		CompactGraph<TerminalGate> snapshot( WeightedGraph<TerminalGate> graph ) {
+			return snapshotOf( graph );
+		}
+	}
+
 }
@@ -0,0 +1,130 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+import com.flydenver.bagrouter.routing.search.dynamic.DynamicShortestPathTrees;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class DynamicShortestPathTreesTest {
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNoTree() {
+		new DynamicShortestPathTrees<>( RoutingFixtures.airportGraph() ).distance( gate( "A1" ), gate( "A2" ) );
+	}
+
+	@Test
+	public void testJam() {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		wg.addEdge( gate( "A4" ), gate( "A6" ), 50 );
+		DynamicShortestPathTrees<TerminalGate> trees = new DynamicShortestPathTrees<>( wg );
+		trees.addTree( gate( "BaggageClaim" ) );
+		assertTrue( trees.hasTree( gate( "BaggageClaim" ) ) );
+		assertEquals( 12, trees.distance( gate( "A7" ), gate( "BaggageClaim" ) ) );
+
+		//	only the A10 side hangs below the jammed belt
+		assertEquals( 4, trees.setEdgeWeight( gate( "A9" ), gate( "A10" ), 10 ) );
+		assertEquals( 21, trees.distance( gate( "A7" ), gate( "BaggageClaim" ) ) );
+		assertEquals( 9, trees.distance( gate( "A10" ), gate( "BaggageClaim" ) ) );
+
+		//	a leaf edge only touches the leaf, and an edge off the tree touches nothing
+		assertEquals( 1, trees.setEdgeWeight( gate( "A3" ), gate( "A4" ), 3 ) );
+		assertEquals( 0, trees.setEdgeWeight( gate( "A4" ), gate( "A6" ), 60 ) );
+
+		assertEquals( 4, trees.disableEdge( gate( "A9" ), gate( "A10" ) ) );
+		NodePath<TerminalGate> path = trees.pathFrom( gate( "A7" ), gate( "BaggageClaim" ) );
+		assertEquals( 77, path.getTotalDistance() );
+		assertEquals( gate( "A4" ), path.getNode( 2 ) );
+
+		assertTrue( trees.enableEdge( gate( "A9" ), gate( "A10" ) ) > 0 );
+		trees.setEdgeWeight( gate( "A9" ), gate( "A10" ), 1 );
+		path = trees.pathFrom( gate( "A7" ), gate( "BaggageClaim" ) );
+		assertArrayEquals( new Node[]{ gate( "A7" ), gate( "A8" ), gate( "A9" ), gate( "A10" ), gate( "A5" ), gate( "BaggageClaim" ) }, path.nodes().toArray() );
+		assertEquals( 12, path.getTotalDistance() );
+		assertTrue( trees.isCurrent() );
+	}
+
+	@Test
+	public void testOutsideChange() {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		DynamicShortestPathTrees<TerminalGate> trees = new DynamicShortestPathTrees<>( wg );
+		trees.addTree( gate( "BaggageClaim" ) );
+		wg.addEdge( gate( "A4" ), gate( "BaggageClaim" ), 1 );
+		assertFalse( trees.isCurrent() );
+		assertEquals( 1, trees.distance( gate( "A4" ), gate( "BaggageClaim" ) ) );
+		assertTrue( trees.isCurrent() );
+	}
+
+	@Test
+	public void testRandomChanges() {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.randomGraph( 29, 200, 300, 20 );
+		DynamicShortestPathTrees<TerminalGate> trees = new DynamicShortestPathTrees<>( wg );
+		int[] roots = { 0, 57, 133, 199 };
+		for ( int root : roots ) {
+			trees.addTree( gate( "G" + root ) );
+		}
+
+		List<WeightedEdge<TerminalGate>> edges = new ArrayList<>( wg.edges() );
+		Random random = new Random( 31 );
+		for ( int change = 0; change < 200; change++ ) {
+			WeightedEdge<TerminalGate> edge = edges.get( random.nextInt( edges.size() ) );
+			switch ( random.nextInt( 3 ) ) {
+				case 0:
+					trees.setEdgeWeight( edge.getFirstNode(), edge.getSecondNode(), 1 + random.nextInt( 40 ) );
+					break;
+				case 1:
+					trees.disableEdge( edge.getFirstNode(), edge.getSecondNode() );
+					break;
+				default:
+					trees.enableEdge( edge.getFirstNode(), edge.getSecondNode() );
+			}
+
+			if ( change % 20 == 0 ) {
+				CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+				for ( int root : roots ) {
+					ShortestPathTree<TerminalGate> fresh = new ShortestPathTree<>( cg, gate( "G" + root ) );
+					for ( int i = 0; i < 200; i++ ) {
+						assertEquals( fresh.distance( cg.indexOf( gate( "G" + i ) ) ), trees.distance( gate( "G" + i ), gate( "G" + root ) ) );
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class GraphBuilderTest {
+
+	@Test
+	public void testDuplicateBelts() {
+		GraphBuilder<TerminalGate> builder = new GraphBuilder<>();
+		builder.add( new TerminalGate( "A1" ), new TerminalGate( "A2" ), 5 )
+				.add( new TerminalGate( "A2" ), new TerminalGate( "A1" ), 3 )
+				.add( new TerminalGate( "A1" ), new TerminalGate( "A2" ), 7 )
+				.add( new TerminalGate( "A2" ), new TerminalGate( "A3" ), 1 );
+		assertEquals( 4, builder.rowCount() );
+		assertEquals( 2, builder.edgeCount() );
+		assertEquals( 3, builder.nodeCount() );
+
+		WeightedGraph<TerminalGate> graph = builder.build();
+		assertEquals( 2, graph.edges().size() );
+		assertEquals( 3, graph.nodes().size() );
+		assertEquals( 3, graph.getEdge( gate( "A1" ), gate( "A2" ) ).getWeight() );
+		assertEquals( 2, graph.getNode( "A2" ).getEdges().size() );
+		assertTrue( graph.isConnected( gate( "A1" ), gate( "A3" ) ) );
+	}
+
+	@Test
+	public void testMatchesAddEdge() {
+		WeightedGraph<TerminalGate> expected = RoutingFixtures.randomGraph( 11, 300, 900, 20 );
+		GraphBuilder<TerminalGate> builder = new GraphBuilder<>();
+		builder.addAll( expected.edges().stream(), edge -> edge.getFirstNode().getNodeItem(),
+				edge -> edge.getSecondNode().getNodeItem(), WeightedEdge::getWeight );
+		WeightedGraph<TerminalGate> built = builder.build();
+		assertEquals( expected.edges().size(), built.edges().size() );
+		assertEquals( expected.nodes().size(), built.nodes().size() );
+
+		CompactGraph<TerminalGate> cgExpected = CompactGraph.fromGraph( expected );
+		CompactGraph<TerminalGate> cgBuilt = CompactGraph.fromGraph( built );
+		IndexedDijkstraSearchStrategy<TerminalGate> dijkstra = new IndexedDijkstraSearchStrategy<>();
+		for ( int end = 0; end < cgExpected.nodeCount(); end += 13 ) {
+			Node<TerminalGate> from = cgExpected.getNode( 0 );
+			Node<TerminalGate> to = cgExpected.getNode( end );
+			assertEquals( dijkstra.findPath( cgExpected, from, to ).getTotalDistance(), dijkstra.findPath( cgBuilt, from, to ).getTotalDistance() );
+		}
+	}
+
+	@Test
+	public void testAddToGraph() {
+		WeightedGraph<TerminalGate> graph = RoutingFixtures.airportGraph();
+		int edges = graph.edges().size();
+		long version = graph.getVersion();
+
+		GraphBuilder<TerminalGate> builder = new GraphBuilder<>();
+		builder.add( new TerminalGate( "A5" ), new TerminalGate( "A10" ), 1 );
+		builder.add( new TerminalGate( "A4" ), new TerminalGate( "B1" ), 2 );
+		builder.addTo( graph );
+
+		assertEquals( edges + 1, graph.edges().size() );
+		assertEquals( 1, graph.getEdge( gate( "A5" ), gate( "A10" ) ).getWeight() );
+		assertTrue( graph.getVersion() > version );
+	}
+
+	@Test
+	public void testManyRows() {
+		GraphBuilder<TerminalGate> builder = new GraphBuilder<>();
+		IntStream.range( 0, 5000 ).forEach( i -> {
+			builder.add( new TerminalGate( "G" + i ), new TerminalGate( "G" + ( i + 1 ) ), i % 7 );
+			builder.add( new TerminalGate( "G" + ( i + 1 ) ), new TerminalGate( "G" + i ), 3 );
+		} );
+		assertEquals( 5000, builder.edgeCount() );
+		assertEquals( 5001, builder.nodeCount() );
+		assertEquals( 2, builder.build().getEdge( gate( "G9" ), gate( "G10" ) ).getWeight() );
+	}
+
+	@Test
+	public void testBuildSnapshot() {
+		WeightedGraph<TerminalGate> expected = RoutingFixtures.randomGraph( 17, 200, 500, 20 );
+		GraphBuilder<TerminalGate> builder = new GraphBuilder<>();
+		builder.addAll( expected.edges().stream(), edge -> edge.getFirstNode().getNodeItem(),
+				edge -> edge.getSecondNode().getNodeItem(), WeightedEdge::getWeight );
+		CompactGraph<TerminalGate> snapshot = builder.buildSnapshot();
+		CompactGraph<TerminalGate> cgExpected = CompactGraph.fromGraph( expected );
+		assertEquals( cgExpected.nodeCount(), snapshot.nodeCount() );
+		assertEquals( cgExpected.edgeCount(), snapshot.edgeCount() );
+		assertFalse( snapshot.isSnapshotOf( expected ) );
+
+		IndexedDijkstraSearchStrategy<TerminalGate> dijkstra = new IndexedDijkstraSearchStrategy<>();
+		for ( int end = 0; end < cgExpected.nodeCount(); end += 11 ) {
+			Node<TerminalGate> from = cgExpected.getNode( 0 );
+			Node<TerminalGate> to = cgExpected.getNode( end );
+			assertEquals( dijkstra.findPath( cgExpected, from, to ).getTotalDistance(), dijkstra.findPath( snapshot, from, to ).getTotalDistance() );
+		}
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testLoop() {
+		new GraphBuilder<TerminalGate>().add( new TerminalGate( "A1" ), new TerminalGate( "A1" ), 1 );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNegativeWeight() {
+		new GraphBuilder<TerminalGate>().add( new TerminalGate( "A1" ), new TerminalGate( "A2" ), -1 );
+	}
+
+}
@@ -67,7 +67,7 @@ public class GraphSearchingIntegration {
 
 
 	@Test
-	public void testGraphSearching() throws ParseException {
+	public void testGraphSearching() throws ParseException, SearchRouteException {
 		WeightedGraph<TerminalGate> gateGraph = new WeightedGraph<>();
 		SearchableGraph<TerminalGate> searchableGraph = new SearchableGraph<>( gateGraph );
 		searchableGraph.setSearchStrategy( new DijkstraSearchStrategy<>() );
@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.SearchableGraph;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.hub.HubLabelSearchStrategy;
+import com.flydenver.bagrouter.routing.search.hub.HubLabels;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class HubLabelsTest {
+
+	@Test
+	public void testRandomDistancesAndPaths() {
+		for ( long seed = 0; seed < 10; seed++ ) {
+			CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( RoutingFixtures.randomGraph( seed, 60, 90, 20 ) );
+			HubLabels<TerminalGate> labels = new HubLabels<>( cg );
+			assertTrue( labels.labelEntryCount() >= cg.nodeCount() );
+
+			for ( int end = 0; end < cg.nodeCount(); end++ ) {
+				ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( cg, cg.getNode( end ) );
+				for ( int start = 0; start < cg.nodeCount(); start++ ) {
+					assertEquals( tree.distance( start ), labels.distance( start, end ) );
+
+					NodePath<TerminalGate> path = labels.path( start, end );
+					assertEquals( tree.distance( start ), path.getTotalDistance() );
+					assertEquals( cg.getNode( start ), path.getNode( 0 ) );
+					assertEquals( cg.getNode( end ), path.lastNode() );
+					assertEquals( tree.distance( start ), walk( cg, path ) );
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnreachable() {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		wg.addEdge( gate( "B1" ), gate( "B2" ), 1 );
+		HubLabels<TerminalGate> labels = new HubLabels<>( CompactGraph.fromGraph( wg ) );
+		assertEquals( Integer.MAX_VALUE, labels.distance( gate( "A1" ), gate( "B2" ) ) );
+		assertEquals( 1, labels.distance( gate( "B2" ), gate( "B1" ) ) );
+	}
+
+	@Test
+	public void testStrategy() throws SearchRouteException {
+		SearchableGraph<TerminalGate> classic = new SearchableGraph<>( RoutingFixtures.airportGraph() );
+		classic.setSearchStrategy( new DijkstraSearchStrategy<>() );
+		SearchableGraph<TerminalGate> hub = new SearchableGraph<>( RoutingFixtures.airportGraph() );
+		hub.setSearchStrategy( new HubLabelSearchStrategy<>() );
+
+		for ( String from : new String[]{ "Concourse_A_Ticketing", "A2", "A7", "BaggageClaim" } ) {
+			for ( String to : new String[]{ "A1", "A4", "A10", "BaggageClaim" } ) {
+				NodePath<TerminalGate> expected = classic.findOptimalPath( gate( from ), gate( to ) );
+				NodePath<TerminalGate> actual = hub.findOptimalPath( gate( from ), gate( to ) );
+				assertEquals( expected.getTotalDistance(), actual.getTotalDistance() );
+				if ( ! from.equals( to ) ) {
+					assertEquals( expected.nodes(), actual.nodes() );
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPersistence() throws IOException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.randomGraph( 7, 40, 60, 10 );
+		HubLabels<TerminalGate> labels = new HubLabels<>( CompactGraph.fromGraph( wg ) );
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		labels.write( bytes );
+
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		HubLabels<TerminalGate> read = HubLabels.read( new ByteArrayInputStream( bytes.toByteArray() ), cg );
+		assertEquals( labels.labelEntryCount(), read.labelEntryCount() );
+		for ( int start = 0; start < cg.nodeCount(); start++ ) {
+			for ( int end = 0; end < cg.nodeCount(); end++ ) {
+				assertEquals( labels.distance( cg.getNode( start ), cg.getNode( end ) ), read.distance( start, end ) );
+				assertEquals( labels.distance( cg.getNode( start ), cg.getNode( end ) ), walk( cg, read.path( start, end ) ) );
+			}
+		}
+	}
+
+	@Test (expected = IOException.class)
+	public void testPersistedForOtherGraph() throws IOException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new HubLabels<>( CompactGraph.fromGraph( wg ) ).write( bytes );
+
+		wg.setEdgeWeight( gate( "A1" ), gate( "A2" ), 3 );
+		HubLabels.read( new ByteArrayInputStream( bytes.toByteArray() ), CompactGraph.fromGraph( wg ) );
+	}
+
+
+	//	sum the fastest conveyor between each pair of nodes on the path
+	private int walk( CompactGraph<TerminalGate> cg, NodePath<TerminalGate> path ) {
+		if ( path.getTotalDistance() == Integer.MAX_VALUE ) {
+			return Integer.MAX_VALUE;
+		}
+		int total = 0;
+		for ( int i = 1; i < path.nodes().size(); i++ ) {
+			int u = cg.indexOf( path.getNode( i - 1 ) );
+			int v = cg.indexOf( path.getNode( i ) );
+			int weight = Integer.MAX_VALUE;
+			for ( int slot = cg.edgeStart( u ); slot < cg.edgeEnd( u ); slot++ ) {
+				if ( cg.edgeTarget( slot ) == v ) {
+					weight = Math.min( weight, cg.edgeWeight( slot ) );
+				}
+			}
+			assertTrue( weight != Integer.MAX_VALUE );
+			total += weight;
+		}
+		return total;
+	}
+
+}
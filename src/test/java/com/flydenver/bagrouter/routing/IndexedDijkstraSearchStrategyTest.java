@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.IndexedMinHeap;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
+import org.junit.Test;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class IndexedDijkstraSearchStrategyTest {
+
+	@Test
+	public void testHeapOrder() {
+		IndexedMinHeap heap = new IndexedMinHeap( 6 );
+		heap.insertOrDecrease( 0, 9 );
+		heap.insertOrDecrease( 1, 4 );
+		heap.insertOrDecrease( 2, 7 );
+		heap.insertOrDecrease( 3, 8 );
+		assertTrue( heap.insertOrDecrease( 0, 1 ) );
+		assertFalse( heap.insertOrDecrease( 2, 12 ) );
+		assertTrue( heap.contains( 3 ) );
+		assertFalse( heap.contains( 5 ) );
+
+		assertEquals( 1, heap.minKey() );
+		assertEquals( 0, heap.poll() );
+		assertEquals( 1, heap.poll() );
+		assertEquals( 2, heap.poll() );
+		assertEquals( 3, heap.poll() );
+		assertTrue( heap.isEmpty() );
+	}
+
+	@Test
+	public void testHeapClear() {
+		IndexedMinHeap heap = new IndexedMinHeap( 4 );
+		heap.insertOrDecrease( 2, 3 );
+		heap.insertOrDecrease( 1, 5 );
+		heap.clear();
+		assertTrue( heap.isEmpty() );
+		assertFalse( heap.contains( 2 ) );
+		heap.insertOrDecrease( 1, 2 );
+		assertEquals( 1, heap.poll() );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNullSearch() throws SearchRouteException {
+		new IndexedDijkstraSearchStrategy<TerminalGate>().findPath( (WeightedGraph<TerminalGate>) null, gate( "A1" ), gate( "A2" ) );
+	}
+
+	@Test
+	public void testSearchGood() throws SearchRouteException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		IndexedDijkstraSearchStrategy<TerminalGate> search = new IndexedDijkstraSearchStrategy<>();
+
+		NodePath<TerminalGate> path = search.findPath( wg, gate( "BaggageClaim" ), gate( "A4" ) );
+		assertArrayEquals( path.nodes().toArray(), new Node[]{
+				gate( "BaggageClaim" ), gate( "A5" ), gate( "A1" ), gate( "A2" ), gate( "A3" ), gate( "A4" )
+		});
+		assertEquals( 14, path.getTotalDistance() );
+	}
+
+	@Test
+	public void testSearchSelf() throws SearchRouteException {
+		IndexedDijkstraSearchStrategy<TerminalGate> search = new IndexedDijkstraSearchStrategy<>();
+		NodePath<TerminalGate> path = search.findPath( RoutingFixtures.airportGraph(), gate( "A1" ), gate( "A1" ) );
+
+		//	same shape as the original search: the node twice, at no distance
+		assertArrayEquals( new Node[]{ gate( "A1" ), gate( "A1" ) }, path.nodes().toArray() );
+		assertEquals( 0, path.getTotalDistance() );
+	}
+
+}
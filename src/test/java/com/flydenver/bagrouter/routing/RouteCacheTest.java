@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.SearchableGraph;
+import com.flydenver.bagrouter.routing.search.cache.RouteCache;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class RouteCacheTest {
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testBadSize() {
+		new RouteCache<TerminalGate>( 0 );
+	}
+
+	@Test
+	public void testHitAndMiss() {
+		RouteCache<TerminalGate> cache = new RouteCache<>( 10 );
+		NodePath<TerminalGate> path = new NodePath<>( new ArrayList<>(), 3 );
+		assertNull( cache.get( "A1", "A2", 1 ) );
+		cache.put( "A1", "A2", 1, path );
+		assertEquals( 3, cache.get( "A1", "A2", 1 ).getTotalDistance() );
+		assertNull( cache.get( "A2", "A1", 1 ) );
+
+		//	a newer version makes the entry stale
+		assertNull( cache.get( "A1", "A2", 2 ) );
+		assertNull( cache.get( "A1", "A2", 1 ) );
+		assertEquals( 1, cache.getHits() );
+		assertEquals( 4, cache.getMisses() );
+		assertEquals( 0, cache.size() );
+	}
+
+	@Test
+	public void testSharedPaths() {
+		RouteCache<TerminalGate> cache = new RouteCache<>( 10 );
+		NodePath<TerminalGate> path = new NodePath<>( new ArrayList<>(), 3 );
+		path.add( new Node<>( new TerminalGate( "A1" ) ) );
+		cache.put( "A1", "A2", 1, path );
+		path.add( new Node<>( new TerminalGate( "A2" ) ) );
+
+		NodePath<TerminalGate> hit = cache.get( "A1", "A2", 1 );
+		assertNotSame( path, hit );
+		assertSame( hit, cache.get( "A1", "A2", 1 ) );
+		assertTrue( hit.isReadOnly() );
+		assertEquals( 1, hit.size() );
+		assertEquals( 3, hit.getTotalDistance() );
+
+		try {
+			hit.add( new Node<>( new TerminalGate( "A2" ) ) );
+			fail( "Added to a cached path." );
+		}
+		catch ( UnsupportedOperationException e ) {
+			assertEquals( 1, hit.size() );
+		}
+		try {
+			hit.setTotalDistance( 7 );
+			fail( "Changed a cached path." );
+		}
+		catch ( UnsupportedOperationException e ) {
+			assertEquals( 3, hit.getTotalDistance() );
+		}
+
+		//	read only paths go in as they are
+		cache.put( "A1", "A3", 1, hit );
+		assertSame( hit, cache.get( "A1", "A3", 1 ) );
+	}
+
+	@Test
+	public void testEviction() {
+		RouteCache<TerminalGate> cache = new RouteCache<>( 32 );
+		for ( int i = 0; i < 500; i++ ) {
+			cache.put( "G" + i, "G0", 1, new NodePath<>( new ArrayList<>(), i ) );
+		}
+		assertTrue( cache.size() <= 32 );
+		assertEquals( 500 - cache.size(), cache.getEvictions() );
+	}
+
+	@Test
+	public void testLeastRecentlyUsed() {
+		RouteCache<TerminalGate> cache = new RouteCache<>( 2 );
+		cache.put( "A1", "A2", 1, new NodePath<>( new ArrayList<>(), 1 ) );
+		cache.put( "A3", "A4", 1, new NodePath<>( new ArrayList<>(), 1 ) );
+		cache.get( "A1", "A2", 1 );
+		cache.put( "A5", "A6", 1, new NodePath<>( new ArrayList<>(), 1 ) );
+		assertEquals( 2, cache.size() );
+		assertEquals( 1, cache.getEvictions() );
+		assertNull( cache.get( "A3", "A4", 1 ) );
+		assertEquals( 1, cache.get( "A1", "A2", 1 ).getTotalDistance() );
+	}
+
+	@Test
+	public void testSearchableGraph() throws SearchRouteException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		SearchableGraph<TerminalGate> search = new SearchableGraph<>( wg );
+		search.setSearchStrategy( new IndexedDijkstraSearchStrategy<>() );
+		search.setRouteCache( new RouteCache<>( 100 ) );
+
+		NodePath<TerminalGate> first = search.findOptimalPath( gate( "A4" ), gate( "A10" ) );
+		assertEquals( first.nodes(), search.findOptimalPath( gate( "A4" ), gate( "A10" ) ).nodes() );
+		assertEquals( 1, search.getRouteCache().getHits() );
+
+		long version = wg.getVersion();
+		wg.addEdge( gate( "A4" ), gate( "A6" ), 1 );
+		assertTrue( wg.getVersion() > version );
+		assertEquals( 5, search.findOptimalPath( gate( "A4" ), gate( "A10" ) ).getTotalDistance() );
+		assertEquals( 2, search.getRouteCache().getMisses() );
+
+		search.cleanup();
+		wg.addEdge( gate( "A4" ), gate( "A10" ), 2 );
+		assertEquals( 2, search.findOptimalPath( gate( "A4" ), gate( "A10" ) ).getTotalDistance() );
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+
+import java.util.Random;
+
+
+/**
+ * Shared graphs for the search strategy tests.
+ */
+public class RoutingFixtures {
+
+	/**
+	 * The sample conveyor system from the routing input.
+	 */
+	public static WeightedGraph<TerminalGate> airportGraph() {
+		WeightedGraph<TerminalGate> wg = new WeightedGraph<>();
+		wg.addEdge( gate( "Concourse_A_Ticketing" ), gate( "A5" ), 5 );
+		wg.addEdge( gate( "A5" ),  gate( "BaggageClaim" ), 5 );
+		wg.addEdge( gate( "A5" ),  gate( "A10" ), 4 );
+		wg.addEdge( gate( "A5" ),  gate( "A1" ),  6 );
+		wg.addEdge( gate( "A1" ),  gate( "A2" ),  1 );
+		wg.addEdge( gate( "A2" ),  gate( "A3" ),  1 );
+		wg.addEdge( gate( "A3" ),  gate( "A4" ),  1 );
+		wg.addEdge( gate( "A10" ), gate( "A9" ),  1 );
+		wg.addEdge( gate( "A9" ),  gate( "A8" ),  1 );
+		wg.addEdge( gate( "A8" ),  gate( "A7" ),  1 );
+		wg.addEdge( gate( "A7" ),  gate( "A6" ),  1 );
+		return wg;
+	}
+
+
+	/**
+	 * A connected random graph. A spanning chain keeps every node reachable,
+	 * and the remaining edges are random with weights {@code 1 .. maxWeight}.
+	 */
+	public static WeightedGraph<TerminalGate> randomGraph( long seed, int nodes, int extraEdges, int maxWeight ) {
+		Random random = new Random( seed );
+		WeightedGraph<TerminalGate> wg = new WeightedGraph<>();
+		for ( int i = 1; i < nodes; i++ ) {
+			wg.addEdge( gate( "G" + random.nextInt( i ) ), gate( "G" + i ), 1 + random.nextInt( maxWeight ) );
+		}
+		for ( int i = 0; i < extraEdges; i++ ) {
+			int a = random.nextInt( nodes );
+			int b = random.nextInt( nodes );
+			if ( a != b ) {
+				wg.addEdge( gate( "G" + a ), gate( "G" + b ), 1 + random.nextInt( maxWeight ) );
+			}
+		}
+		return wg;
+	}
+
+
+	/**
+	 * Build a node for a gate name.
+	 */
+	public static Node<TerminalGate> gate( String name ) {
+		return new Node<>( new TerminalGate( name ) );
+	}
+
+}
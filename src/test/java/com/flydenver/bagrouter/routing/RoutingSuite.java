@@ -35,6 +35,26 @@ import org.junit.runners.Suite;
 		GraphSearchingIntegration.class,
 		WeightedEdgeTest.class,
 		SearchableGraphTest.class,
-		SearchNodeTest.class
+		SearchNodeTest.class,
+		CompactGraphTest.class,
+		IndexedDijkstraSearchStrategyTest.class,
+		ShortestPathTreeTest.class,
+		RoutingTableSearchStrategyTest.class,
+		AltSearchStrategyTest.class,
+		ContractionHierarchyTest.class,
+		BidirectionalDijkstraSearchStrategyTest.class,
+		BucketQueueSearchStrategyTest.class,
+		SearchContextTest.class,
+		RouteCacheTest.class,
+		WeightedGraphTest.class,
+		DynamicShortestPathTreesTest.class,
+		TimeDependentSearchStrategyTest.class,
+		CapacityAwareSearchStrategyTest.class,
+		YenKShortestPathsTest.class,
+		HubLabelsTest.class,
+		CompiledTopologyTest.class,
+		ComponentIndexTest.class,
+		GraphBuilderTest.class,
+		SearchStrategyConformanceTest.class
 })
 public class RoutingSuite { }
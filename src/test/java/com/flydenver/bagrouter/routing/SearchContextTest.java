@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.SearchContext;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class SearchContextTest {
+
+	@Test
+	public void testReset() {
+		SearchContext context = new SearchContext().reset( 4 );
+		assertFalse( context.isReached( 2 ) );
+		assertEquals( Integer.MAX_VALUE, context.distance( 2 ) );
+		assertEquals( -1, context.previous( 2 ) );
+
+		context.update( 2, 7, 1 );
+		context.heap().insertOrDecrease( 2, 7 );
+		assertTrue( context.isReached( 2 ) );
+		assertEquals( 7, context.distance( 2 ) );
+		assertEquals( 1, context.previous( 2 ) );
+
+		context.reset( 4 );
+		assertFalse( context.isReached( 2 ) );
+		assertEquals( Integer.MAX_VALUE, context.distance( 2 ) );
+		assertTrue( context.heap().isEmpty() );
+	}
+
+	@Test
+	public void testGrow() {
+		SearchContext context = new SearchContext().reset( 2 );
+		context.update( 1, 3, 0 );
+		context.reset( 10 );
+		assertFalse( context.isReached( 1 ) );
+		context.update( 9, 1, 8 );
+		assertEquals( 1, context.distance( 9 ) );
+		assertEquals( 10, context.heap().capacity() );
+	}
+
+	@Test
+	public void testSharedStrategy() throws Exception {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.randomGraph( 17, 300, 500, 50 );
+		IndexedDijkstraSearchStrategy<TerminalGate> shared = new IndexedDijkstraSearchStrategy<>();
+		DijkstraSearchStrategy<TerminalGate> sharedClassic = new DijkstraSearchStrategy<>();
+		DijkstraSearchStrategy<TerminalGate> classic = new DijkstraSearchStrategy<>();
+
+		ExecutorService pool = Executors.newFixedThreadPool( 4 );
+		try {
+			List<Future<int[]>> results = new ArrayList<>();
+			for ( int t = 0; t < 8; t++ ) {
+				final int offset = t;
+				results.add( pool.submit( () -> {
+					int[] distances = new int[2 * 40];
+					for ( int i = 0; i < 40; i++ ) {
+						Node<TerminalGate> from = gate( "G" + ( ( i * 7 + offset ) % 300 ) );
+						Node<TerminalGate> to = gate( "G" + ( ( i * 13 + offset * 3 + 1 ) % 300 ) );
+						distances[2 * i] = shared.findPath( wg, from, to ).getTotalDistance();
+						distances[2 * i + 1] = sharedClassic.findPath( wg, from, to ).getTotalDistance();
+					}
+					return distances;
+				} ) );
+			}
+
+			for ( int t = 0; t < 8; t++ ) {
+				int[] distances = results.get( t ).get();
+				for ( int i = 0; i < 40; i++ ) {
+					Node<TerminalGate> from = gate( "G" + ( ( i * 7 + t ) % 300 ) );
+					Node<TerminalGate> to = gate( "G" + ( ( i * 13 + t * 3 + 1 ) % 300 ) );
+					if ( from.equals( to ) ) { continue; }
+					int expected = classic.findPath( wg, from, to ).getTotalDistance();
+					assertEquals( expected, distances[2 * i] );
+					assertEquals( expected, distances[2 * i + 1] );
+				}
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+}
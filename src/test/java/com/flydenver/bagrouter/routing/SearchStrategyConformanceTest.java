@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.CompactSearchStrategy;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+import com.flydenver.bagrouter.routing.search.alt.AltSearchStrategy;
+import com.flydenver.bagrouter.routing.search.bucket.BucketQueueSearchStrategy;
+import com.flydenver.bagrouter.routing.search.capacity.CapacityAwareSearchStrategy;
+import com.flydenver.bagrouter.routing.search.ch.ContractionHierarchySearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.BidirectionalDijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.CompactDijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.hub.HubLabelSearchStrategy;
+import com.flydenver.bagrouter.routing.search.table.RoutingTableSearchStrategy;
+import com.flydenver.bagrouter.routing.search.timed.TimeDependentSearchStrategy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Every {@link CompactSearchStrategy} finds shortest paths, along real edges,
+ * on random graphs with both small and large weights.
+ */
+@RunWith(Parameterized.class)
+public class SearchStrategyConformanceTest {
+
+	private final CompactSearchStrategy<TerminalGate> strategy;
+
+
+	public SearchStrategyConformanceTest( String name, CompactSearchStrategy<TerminalGate> strategy ) {
+		this.strategy = strategy;
+	}
+
+
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> strategies() {
+		return Arrays.asList( new Object[][]{
+				{ "dijkstra", new DijkstraSearchStrategy<TerminalGate>() },
+				{ "indexed", new IndexedDijkstraSearchStrategy<TerminalGate>() },
+				{ "compact", new CompactDijkstraSearchStrategy<TerminalGate>() },
+				{ "bidirectional", new BidirectionalDijkstraSearchStrategy<TerminalGate>() },
+				{ "bucket", new BucketQueueSearchStrategy<TerminalGate>( 30 ) },
+				{ "alt", new AltSearchStrategy<TerminalGate>() },
+				{ "ch", new ContractionHierarchySearchStrategy<TerminalGate>() },
+				{ "table", new RoutingTableSearchStrategy<TerminalGate>() },
+				{ "hub", new HubLabelSearchStrategy<TerminalGate>() },
+				{ "timed", new TimeDependentSearchStrategy<TerminalGate>() },
+				{ "capacity", new CapacityAwareSearchStrategy<TerminalGate>() }
+		} );
+	}
+
+
+	@Test
+	public void testSmallWeights() throws SearchRouteException {
+		matchesShortestPaths( CompactGraph.fromGraph( RoutingFixtures.randomGraph( 23, 300, 500, 30 ) ) );
+	}
+
+	@Test
+	public void testLargeWeights() throws SearchRouteException {
+		matchesShortestPaths( CompactGraph.fromGraph( RoutingFixtures.randomGraph( 43, 250, 400, 100000 ) ) );
+	}
+
+	private void matchesShortestPaths( CompactGraph<TerminalGate> cg ) throws SearchRouteException {
+		for ( int end = 5; end < cg.nodeCount(); end += 29 ) {
+			ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( cg, cg.getNode( end ) );
+			for ( int start = 0; start < cg.nodeCount(); start += 13 ) {
+				NodePath<TerminalGate> path = strategy.findPath( cg, cg.getNode( start ), cg.getNode( end ) );
+				assertEquals( tree.distance( start ), path.getTotalDistance() );
+				assertEquals( cg.getNode( start ), path.getNode( 0 ) );
+				assertEquals( cg.getNode( end ), path.lastNode() );
+				assertEquals( path.getTotalDistance(), walk( cg, path ) );
+				if ( start == end ) {
+					assertEquals( 2, path.size() );
+				}
+			}
+		}
+	}
+
+	//	add up the path along the snapshot's edges, failing on a missing edge; a node
+	//	repeated, as on a path to itself, costs nothing
+	private int walk( CompactGraph<TerminalGate> cg, NodePath<TerminalGate> path ) {
+		int total = 0;
+		for ( int i = 1; i < path.nodes().size(); i++ ) {
+			int u = cg.indexOf( path.getNode( i - 1 ) );
+			int v = cg.indexOf( path.getNode( i ) );
+			if ( u == v ) { continue; }
+			int weight = Integer.MAX_VALUE;
+			for ( int slot = cg.edgeStart( u ); slot < cg.edgeEnd( u ); slot++ ) {
+				if ( cg.edgeTarget( slot ) == v ) {
+					weight = Math.min( weight, cg.edgeWeight( slot ) );
+				}
+			}
+			assertTrue( weight != Integer.MAX_VALUE );
+			total += weight;
+		}
+		return total;
+	}
+
+}
@@ -26,9 +26,11 @@
 package com.flydenver.bagrouter.routing;
 
 import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
 import com.flydenver.bagrouter.routing.search.Searchable;
 import com.flydenver.bagrouter.routing.search.SearchableGraph;
 import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -36,6 +38,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 
 public class SearchableGraphTest {
@@ -91,24 +94,24 @@ public class SearchableGraphTest {
 	}
 
 	@Test(expected = IllegalArgumentException.class)
-	public void testNullSearch() {
+	public void testNullSearch() throws SearchRouteException {
 		Searchable<TerminalGate> search = new SearchableGraph<>( wg );
 		search.findOptimalPath( null, new Node<>( new TerminalGate( "BaggageClaim" ) ) );
 	}
 
 	@Test(expected = IllegalArgumentException.class)
-	public void testNullSearch1() {
+	public void testNullSearch1() throws SearchRouteException {
 		Searchable<TerminalGate> search = new SearchableGraph<>( wg );
 		search.findOptimalPath( new Node<>(new TerminalGate("BaggageClaim")), null );
 	}
 
 	@Test (expected = IllegalArgumentException.class)
 	public void testNullCreate() {
-		new SearchableGraph<>( null );
+		new SearchableGraph<>( (WeightedGraph<TerminalGate>) null );
 	}
 
 	@Test
-	public void testSearchGood1() {
+	public void testSearchGood1() throws SearchRouteException {
 		SearchableGraph<TerminalGate> search = new SearchableGraph<>( wg );
 		search.setSearchStrategy( strategy );
 
@@ -151,7 +154,7 @@ public class SearchableGraphTest {
 	}
 
 	@Test
-	public void testSearchGood2() {
+	public void testSearchGood2() throws SearchRouteException {
 		WeightedGraph<TerminalGate> wg2 = new WeightedGraph<>();
 		SearchableGraph<TerminalGate> search = new SearchableGraph<>( wg );
 		search.setSearchStrategy( new DijkstraSearchStrategy<>() );
@@ -197,4 +200,62 @@ public class SearchableGraphTest {
 		});
 	}
 
+	@Test (expected = SearchRouteException.class)
+	public void testDisconnectedSearch() throws SearchRouteException {
+		wg.addEdge( new Node<>( new TerminalGate( "B1" ) ), new Node<>( new TerminalGate( "B2" ) ), 1 );
+		SearchableGraph<TerminalGate> searchable = new SearchableGraph<>( wg );
+		searchable.setSearchStrategy( strategy );
+		searchable.findOptimalPath( a1, new Node<>( new TerminalGate( "B2" ) ) );
+	}
+
+	@Test (expected = SearchRouteException.class)
+	public void testDisconnectedStrategy() throws SearchRouteException {
+		Node<TerminalGate> b2 = new Node<>( new TerminalGate( "B2" ) );
+		wg.addEdge( new Node<>( new TerminalGate( "B1" ) ), b2, 1 );
+		strategy.findPath( wg, a1, b2 );
+	}
+
+	@Test (expected = SearchRouteException.class)
+	public void testDisconnectedCompactStrategy() throws SearchRouteException {
+		Node<TerminalGate> b2 = new Node<>( new TerminalGate( "B2" ) );
+		wg.addEdge( new Node<>( new TerminalGate( "B1" ) ), b2, 1 );
+		new IndexedDijkstraSearchStrategy<TerminalGate>().findPath( wg, a1, b2 );
+	}
+
+	@Test
+	public void testFixedSnapshot() throws SearchRouteException {
+		SearchableGraph<TerminalGate> search = new SearchableGraph<>( CompactGraph.fromGraph( wg ) );
+		search.setSearchStrategy( new IndexedDijkstraSearchStrategy<>() );
+		search.prepareSearch();
+		wg.cleanup();
+
+		assertEquals( 0, search.getVersion() );
+		assertEquals( a5, search.getNode( "A5" ) );
+		assertTrue( search.isConnected( a1, a6 ) );
+		assertEquals( 11, search.findOptimalPath( a1, bc ).getTotalDistance() );
+		assertArrayEquals( new Node[]{ a4, a4 }, search.findOptimalPath( a4, a4 ).nodes().toArray() );
+
+		search.cleanup();
+		assertEquals( 11, search.findOptimalPath( a1, bc ).getTotalDistance() );
+	}
+
+	@Test (expected = SearchRouteException.class)
+	public void testFixedSnapshotDisconnected() throws SearchRouteException {
+		Node<TerminalGate> b2 = new Node<>( new TerminalGate( "B2" ) );
+		wg.addEdge( new Node<>( new TerminalGate( "B1" ) ), b2, 1 );
+		SearchableGraph<TerminalGate> search = new SearchableGraph<>( CompactGraph.fromGraph( wg ) );
+		search.setSearchStrategy( strategy );
+		search.findOptimalPath( a1, b2 );
+	}
+
+	@Test (expected = UnsupportedOperationException.class)
+	public void testFixedSnapshotUnchanged() {
+		new SearchableGraph<>( CompactGraph.fromGraph( wg ) ).addEdge( a4, a6, 1 );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNullSnapshotCreate() {
+		new SearchableGraph<>( (CompactGraph<TerminalGate>) null );
+	}
+
 }
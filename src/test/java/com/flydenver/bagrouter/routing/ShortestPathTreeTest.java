@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+import com.flydenver.bagrouter.routing.search.TreeNodePath;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import org.junit.Test;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class ShortestPathTreeTest {
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testMissingRoot() {
+		new ShortestPathTree<>( CompactGraph.fromGraph( RoutingFixtures.airportGraph() ), gate( "B1" ) );
+	}
+
+	@Test
+	public void testPathFrom() {
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( RoutingFixtures.airportGraph() );
+		ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( cg, gate( "BaggageClaim" ) );
+
+		NodePath<TerminalGate> path = tree.pathFrom( gate( "A7" ) );
+		assertArrayEquals( path.nodes().toArray(), new Node[]{
+				gate( "A7" ), gate( "A8" ), gate( "A9" ), gate( "A10" ), gate( "A5" ), gate( "BaggageClaim" )
+		});
+		assertEquals( 12, path.getTotalDistance() );
+
+		assertEquals( 0, tree.distance( tree.getRoot() ) );
+		assertEquals( -1, tree.parent( tree.getRoot() ) );
+		assertArrayEquals( tree.pathFrom( gate( "BaggageClaim" ) ).nodes().toArray(), new Node[]{ gate( "BaggageClaim" ), gate( "BaggageClaim" ) } );
+	}
+
+	@Test
+	public void testSharedTreePath() throws SearchRouteException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		wg.addEdge( gate( "B1" ), gate( "B2" ), 1 );
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( cg, gate( "BaggageClaim" ) );
+
+		NodePath<TerminalGate> path = tree.pathFrom( gate( "A3" ) );
+		assertTrue( path instanceof TreeNodePath );
+		assertEquals( gate( "A2" ), path.getNode( 1 ) );
+		assertEquals( gate( "BaggageClaim" ), path.lastNode() );
+
+		StringBuilder gates = new StringBuilder();
+		path.forEachNode( gate -> gates.append( gate ).append( ' ' ) );
+		assertEquals( "A3 A2 A1 A5 BaggageClaim ", gates.toString() );
+
+		StringBuilder visited = new StringBuilder();
+		path.visitNodes( gate -> visited.append( gate ).append( ' ' ) );
+		assertEquals( gates.toString(), visited.toString() );
+		assertEquals( 5, path.size() );
+
+		NodePath<TerminalGate> unreachable = tree.pathFrom( gate( "B2" ) );
+		assertEquals( Integer.MAX_VALUE, unreachable.getTotalDistance() );
+		assertEquals( 2, unreachable.size() );
+		assertArrayEquals( new Node[]{ gate( "B2" ), gate( "BaggageClaim" ) }, unreachable.nodes().toArray() );
+	}
+
+	@Test (expected = UnsupportedOperationException.class)
+	public void testSharedTreePathAdd() {
+		ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( CompactGraph.fromGraph( RoutingFixtures.airportGraph() ), gate( "A1" ) );
+		tree.pathFrom( gate( "A2" ) ).add( gate( "A3" ) );
+	}
+
+	@Test
+	public void testSharedTreePathCopy() {
+		ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( CompactGraph.fromGraph( RoutingFixtures.airportGraph() ), gate( "A1" ) );
+		NodePath<TerminalGate> copy = tree.pathFrom( gate( "A2" ) ).copy();
+		copy.add( gate( "A3" ) );
+		assertArrayEquals( new Node[]{ gate( "A2" ), gate( "A1" ), gate( "A3" ) }, copy.nodes().toArray() );
+	}
+
+	@Test
+	public void testPathFromRoot() {
+		ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( CompactGraph.fromGraph( RoutingFixtures.airportGraph() ), gate( "A1" ) );
+		NodePath<TerminalGate> path = tree.pathFrom( gate( "A1" ) );
+		assertArrayEquals( new Node[]{ gate( "A1" ), gate( "A1" ) }, path.nodes().toArray() );
+		assertEquals( 0, path.getTotalDistance() );
+	}
+
+	@Test
+	public void testMatchesDijkstra() throws SearchRouteException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.randomGraph( 3, 150, 300, 20 );
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( cg, gate( "G0" ) );
+		DijkstraSearchStrategy<TerminalGate> classic = new DijkstraSearchStrategy<>();
+
+		for ( int i = 1; i < 150; i++ ) {
+			assertEquals( classic.findPath( wg, gate( "G" + i ), gate( "G0" ) ).getTotalDistance(), tree.pathFrom( gate( "G" + i ) ).getTotalDistance() );
+		}
+	}
+
+}
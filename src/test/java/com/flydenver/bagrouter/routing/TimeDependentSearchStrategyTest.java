@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.timed.TimeDependentSearchStrategy;
+import com.flydenver.bagrouter.routing.search.timed.TravelTimeProfiles;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class TimeDependentSearchStrategyTest {
+
+	private WeightedGraph<TerminalGate> wg;
+	private TimeDependentSearchStrategy<TerminalGate> search;
+
+
+	@Before
+	public void setup() {
+		wg = RoutingFixtures.airportGraph();
+		wg.addEdge( gate( "A4" ), gate( "A6" ), 0 );
+
+		//	the short cut jams in the morning bank
+		search = new TimeDependentSearchStrategy<>();
+		search.addProfile( gate( "A4" ), gate( "A6" ), new int[]{ 0, 480, 500, 560, 600 }, new int[]{ 0, 0, 30, 30, 0 } );
+	}
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNotFifo() {
+		search.addProfile( gate( "A1" ), gate( "A2" ), new int[]{ 0, 10 }, new int[]{ 20, 5 } );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNotFifoOverMidnight() {
+		search.addProfile( gate( "A1" ), gate( "A2" ), new int[]{ 0, 1430 }, new int[]{ 1, 30 } );
+	}
+
+	@Test
+	public void testInterpolation() {
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		TravelTimeProfiles<TerminalGate> profiles = new TravelTimeProfiles<>( cg, Collections.singletonList(
+				new TravelTimeProfiles.Profile( "A4", "A6", new int[]{ 60, 120, 1380 }, new int[]{ 10, 40, 4 } ) ) );
+
+		int a4 = cg.indexOf( gate( "A4" ) );
+		int slot = cg.edgeStart( a4 );
+		while ( cg.edgeTarget( slot ) != cg.indexOf( gate( "A6" ) ) ) { slot++; }
+
+		assertEquals( 10, profiles.travelTime( slot, 60 ) );
+		assertEquals( 25, profiles.travelTime( slot, 90 ) );
+		assertEquals( 40, profiles.travelTime( slot, 120 ) );
+		assertEquals( 4, profiles.travelTime( slot, 1380 ) );
+
+		//	wraps from the last breakpoint to the first one on the next day
+		assertEquals( 7, profiles.travelTime( slot, 0 ) );
+		assertEquals( 7, profiles.travelTime( slot, 1440 ) );
+	}
+
+	@Test
+	public void testOffPeak() {
+		NodePath<TerminalGate> path = search.findPath( wg, gate( "A4" ), gate( "BaggageClaim" ), 6 * 60 );
+		assertArrayEquals( new Node[]{ gate( "A4" ), gate( "A6" ), gate( "A7" ), gate( "A8" ), gate( "A9" ), gate( "A10" ), gate( "A5" ), gate( "BaggageClaim" ) }, path.nodes().toArray() );
+		assertEquals( 13, path.getTotalDistance() );
+	}
+
+	@Test
+	public void testPeak() {
+		NodePath<TerminalGate> path = search.findPath( wg, gate( "A4" ), gate( "BaggageClaim" ), 8 * 60 + 30 );
+		assertArrayEquals( new Node[]{ gate( "A4" ), gate( "A3" ), gate( "A2" ), gate( "A1" ), gate( "A5" ), gate( "BaggageClaim" ) }, path.nodes().toArray() );
+		assertEquals( 14, path.getTotalDistance() );
+
+		//	at the tail of the bank the belt is nearly clear again
+		assertEquals( 14, search.findPath( wg, gate( "A4" ), gate( "BaggageClaim" ), 9 * 60 + 58 ).getTotalDistance() );
+		assertEquals( 13, search.findPath( wg, gate( "A4" ), gate( "BaggageClaim" ), 9 * 60 + 59 ).getTotalDistance() );
+	}
+
+	@Test
+	public void testMatchesStaticWithoutProfiles() throws SearchRouteException {
+		WeightedGraph<TerminalGate> random = RoutingFixtures.randomGraph( 5, 150, 200, 25 );
+		TimeDependentSearchStrategy<TerminalGate> timed = new TimeDependentSearchStrategy<>();
+		DijkstraSearchStrategy<TerminalGate> classic = new DijkstraSearchStrategy<>();
+		for ( int i = 0; i < 150; i += 11 ) {
+			for ( int j = 3; j < 150; j += 23 ) {
+				if ( i == j ) { continue; }
+				assertEquals( classic.findPath( random, gate( "G" + i ), gate( "G" + j ) ).getTotalDistance(),
+						timed.findPath( random, gate( "G" + i ), gate( "G" + j ), 700 ).getTotalDistance() );
+			}
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.SearchableGraph;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.dijkstra.IndexedDijkstraSearchStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class WeightedGraphTest {
+
+	private WeightedGraph<TerminalGate> wg;
+
+
+	@Before
+	public void setup() {
+		wg = RoutingFixtures.airportGraph();
+	}
+
+
+	@Test
+	public void testGetEdge() {
+		assertEquals( 4, wg.getEdge( gate( "A10" ), gate( "A5" ) ).getWeight() );
+		assertEquals( 4, wg.getEdge( gate( "A5" ), gate( "A10" ) ).getWeight() );
+		assertNull( wg.getEdge( gate( "A5" ), gate( "A6" ) ) );
+		assertNull( wg.getEdge( gate( "B1" ), gate( "A6" ) ) );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNotConnected() {
+		wg.disableEdge( gate( "A5" ), gate( "A6" ) );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNotInGraph() {
+		wg.setEdgeWeight( gate( "B1" ), gate( "A6" ), 2 );
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNegativeWeight() {
+		wg.setEdgeWeight( gate( "A5" ), gate( "A10" ), -1 );
+	}
+
+	@Test
+	public void testVersion() {
+		long version = wg.getVersion();
+		wg.disableEdge( gate( "A5" ), gate( "A10" ) );
+		assertTrue( wg.getVersion() > version );
+		assertFalse( wg.getEdge( gate( "A5" ), gate( "A10" ) ).isEnabled() );
+
+		//	no change, no new version
+		version = wg.getVersion();
+		wg.disableEdge( gate( "A10" ), gate( "A5" ) );
+		wg.setEdgeWeight( gate( "A1" ), gate( "A2" ), 1 );
+		assertEquals( version, wg.getVersion() );
+
+		wg.enableEdge( gate( "A5" ), gate( "A10" ) );
+		assertTrue( wg.getVersion() > version );
+		assertTrue( wg.getEdge( gate( "A5" ), gate( "A10" ) ).isEnabled() );
+	}
+
+	@Test
+	public void testParallelBelts() {
+		int edges = wg.edges().size();
+		wg.addEdge( gate( "A10" ), gate( "A5" ), 9 );
+		assertEquals( edges, wg.edges().size() );
+		assertEquals( 4, wg.getEdge( gate( "A5" ), gate( "A10" ) ).getWeight() );
+
+		long version = wg.getVersion();
+		wg.addEdge( new WeightedEdge<>( gate( "A5" ), gate( "A10" ), 2 ) );
+		assertEquals( edges, wg.edges().size() );
+		assertEquals( 2, wg.getEdge( gate( "A10" ), gate( "A5" ) ).getWeight() );
+		assertTrue( wg.getVersion() > version );
+	}
+
+	@Test
+	public void testEdgeHash() {
+		WeightedEdge<TerminalGate> edge = new WeightedEdge<>( gate( "A1" ), gate( "A2" ), 1 );
+		WeightedEdge<TerminalGate> reversed = new WeightedEdge<>( gate( "A2" ), gate( "A1" ), 5 );
+		assertEquals( edge, reversed );
+		assertEquals( edge.hashCode(), reversed.hashCode() );
+		assertEquals( gate( "A1" ).hashCode(), gate( "A1" ).hashCode() );
+	}
+
+	@Test
+	public void testClosureSearch() throws SearchRouteException {
+		SearchableGraph<TerminalGate> compact = new SearchableGraph<>( wg );
+		compact.setSearchStrategy( new IndexedDijkstraSearchStrategy<>() );
+		SearchableGraph<TerminalGate> classic = new SearchableGraph<>( wg );
+		classic.setSearchStrategy( new DijkstraSearchStrategy<>() );
+		assertEquals( 12, compact.findOptimalPath( gate( "A7" ), gate( "BaggageClaim" ) ).getTotalDistance() );
+
+		compact.disableEdge( gate( "A9" ), gate( "A10" ) );
+		assertEquals( Integer.MAX_VALUE, compact.findOptimalPath( gate( "A7" ), gate( "BaggageClaim" ) ).getTotalDistance() );
+		assertEquals( Integer.MAX_VALUE, classic.findOptimalPath( gate( "A7" ), gate( "BaggageClaim" ) ).getTotalDistance() );
+
+		compact.enableEdge( gate( "A9" ), gate( "A10" ) );
+		compact.setEdgeWeight( gate( "A5" ), gate( "BaggageClaim" ), 1 );
+		assertEquals( 8, compact.findOptimalPath( gate( "A7" ), gate( "BaggageClaim" ) ).getTotalDistance() );
+		assertEquals( 8, classic.findOptimalPath( gate( "A7" ), gate( "BaggageClaim" ) ).getTotalDistance() );
+	}
+
+}
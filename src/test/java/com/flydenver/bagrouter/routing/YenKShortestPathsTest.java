@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Jason Pritchard
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package com.flydenver.bagrouter.routing;
+
+import com.flydenver.bagrouter.domain.TerminalGate;
+import com.flydenver.bagrouter.routing.search.NodePath;
+import com.flydenver.bagrouter.routing.search.SearchRouteException;
+import com.flydenver.bagrouter.routing.search.SearchableGraph;
+import com.flydenver.bagrouter.routing.search.ShortestPathTree;
+import com.flydenver.bagrouter.routing.search.dijkstra.DijkstraSearchStrategy;
+import com.flydenver.bagrouter.routing.search.ksp.YenKShortestPaths;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.flydenver.bagrouter.routing.RoutingFixtures.gate;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class YenKShortestPathsTest {
+
+	@Test
+	public void testAlternateAroundLoop() throws SearchRouteException {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		wg.addEdge( gate( "A4" ), gate( "A6" ), 3 );
+		SearchableGraph<TerminalGate> search = new SearchableGraph<>( wg );
+		search.setSearchStrategy( new DijkstraSearchStrategy<>() );
+
+		List<NodePath<TerminalGate>> paths = search.findAlternatePaths( gate( "A5" ), gate( "A4" ), 3 );
+		assertEquals( 2, paths.size() );
+		assertArrayEquals( new Node[]{ gate( "A5" ), gate( "A1" ), gate( "A2" ), gate( "A3" ), gate( "A4" ) }, paths.get( 0 ).nodes().toArray() );
+		assertEquals( 9, paths.get( 0 ).getTotalDistance() );
+		assertArrayEquals( new Node[]{ gate( "A5" ), gate( "A10" ), gate( "A9" ), gate( "A8" ), gate( "A7" ), gate( "A6" ), gate( "A4" ) },
+				paths.get( 1 ).nodes().toArray() );
+		assertEquals( 11, paths.get( 1 ).getTotalDistance() );
+
+		assertEquals( search.findOptimalPath( gate( "A7" ), gate( "BaggageClaim" ) ).nodes(),
+				search.findAlternatePaths( gate( "A7" ), gate( "BaggageClaim" ), 1 ).get( 0 ).nodes() );
+	}
+
+	@Test
+	public void testTreeOnly() {
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( RoutingFixtures.airportGraph() );
+		List<NodePath<TerminalGate>> paths = new YenKShortestPaths<TerminalGate>().findPaths( cg, gate( "A7" ), gate( "BaggageClaim" ), 3 );
+		assertEquals( 1, paths.size() );
+		assertEquals( 12, paths.get( 0 ).getTotalDistance() );
+	}
+
+	@Test
+	public void testUnreachable() {
+		WeightedGraph<TerminalGate> wg = RoutingFixtures.airportGraph();
+		wg.addEdge( gate( "B1" ), gate( "B2" ), 1 );
+		CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( wg );
+		List<NodePath<TerminalGate>> paths = new YenKShortestPaths<TerminalGate>().findPaths( cg, gate( "A1" ), gate( "B2" ), 3 );
+		assertEquals( 1, paths.size() );
+		assertEquals( Integer.MAX_VALUE, paths.get( 0 ).getTotalDistance() );
+	}
+
+	@Test
+	public void testRandomAgainstEnumeration() {
+		YenKShortestPaths<TerminalGate> yen = new YenKShortestPaths<>();
+		for ( long seed = 0; seed < 20; seed++ ) {
+			CompactGraph<TerminalGate> cg = CompactGraph.fromGraph( RoutingFixtures.randomGraph( seed, 9, 10, 9 ) );
+			ShortestPathTree<TerminalGate> tree = new ShortestPathTree<>( cg, cg.getNode( 0 ) );
+
+			for ( int start = 1; start < cg.nodeCount(); start++ ) {
+				List<Integer> costs = new ArrayList<>();
+				enumerate( cg, start, 0, new boolean[cg.nodeCount()], 0, costs );
+				Collections.sort( costs );
+
+				List<NodePath<TerminalGate>> paths = yen.findPaths( tree, cg.getNode( start ), 5 );
+				assertEquals( Math.min( 5, costs.size() ), paths.size() );
+
+				Set<List<Node<TerminalGate>>> distinct = new HashSet<>();
+				for ( int i = 0; i < paths.size(); i++ ) {
+					NodePath<TerminalGate> path = paths.get( i );
+					assertEquals( (int) costs.get( i ), path.getTotalDistance() );
+					assertEquals( path.nodes().size(), new HashSet<>( path.nodes() ).size() );
+					assertTrue( distinct.add( path.nodes() ) );
+				}
+			}
+		}
+	}
+
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testBadK() {
+		new YenKShortestPaths<TerminalGate>().findPaths( CompactGraph.fromGraph( RoutingFixtures.airportGraph() ), gate( "A1" ), gate( "A2" ), 0 );
+	}
+
+
+	//	every simple path cost, counting parallel belts as the fastest one
+	private void enumerate( CompactGraph<TerminalGate> cg, int node, int end, boolean[] visited, int cost, List<Integer> costs ) {
+		if ( node == end ) {
+			costs.add( cost );
+			return;
+		}
+		visited[node] = true;
+		for ( int v = 0; v < cg.nodeCount(); v++ ) {
+			int weight = Integer.MAX_VALUE;
+			for ( int slot = cg.edgeStart( node ); slot < cg.edgeEnd( node ); slot++ ) {
+				if ( cg.edgeTarget( slot ) == v ) {
+					weight = Math.min( weight, cg.edgeWeight( slot ) );
+				}
+			}
+			if ( weight != Integer.MAX_VALUE && ! visited[v] ) {
+				enumerate( cg, v, end, visited, cost + weight, costs );
+			}
+		}
+		visited[node] = false;
+	}
+
+}